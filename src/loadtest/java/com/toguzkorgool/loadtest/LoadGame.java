@@ -0,0 +1,218 @@
+package com.toguzkorgool.loadtest;
+
+import com.toguzkorgool.dto.request.CreateRoomRequest;
+import com.toguzkorgool.dto.request.JoinRoomRequest;
+import com.toguzkorgool.dto.request.MoveMessage;
+import com.toguzkorgool.dto.response.RoomResponse;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One room played to the end by two STOMP clients making random legal moves.
+ * Each client measures the round trip from sending {@code /app/game.move} to receiving the broadcast
+ * state that contains its move.
+ */
+final class LoadGame {
+
+    private static final long CONNECT_TIMEOUT_SECONDS = 30;
+
+    private final String roomId;
+    private final String url;
+    private final RestClient rest;
+    private final WebSocketStompClient stompClient;
+    private final int timerSeconds;
+    private final CountDownLatch finished;
+    private final AtomicLong errors;
+    private final AtomicBoolean over = new AtomicBoolean();
+    private final Player white = new Player(0);
+    private final Player black = new Player(1);
+    private volatile long lastMoveNanos = System.nanoTime();
+
+    LoadGame(String roomId, String url, RestClient rest, WebSocketStompClient stompClient, int timerSeconds,
+             CountDownLatch finished, AtomicLong errors) {
+        this.roomId = roomId;
+        this.url = url;
+        this.rest = rest;
+        this.stompClient = stompClient;
+        this.timerSeconds = timerSeconds;
+        this.finished = finished;
+        this.errors = errors;
+    }
+
+    /**
+     * Creates and joins the room over REST, connects both clients and starts the game.
+     */
+    void start() throws Exception {
+        RoomResponse created = rest.post().uri("/api/rooms/create")
+                .body(new CreateRoomRequest("white", roomId, timerSeconds, false, null))
+                .retrieve().body(RoomResponse.class);
+        RoomResponse joined = rest.post().uri("/api/rooms/{roomId}/join", roomId)
+                .body(new JoinRoomRequest("black", null))
+                .retrieve().body(RoomResponse.class);
+
+        white.connect(created.player1().id());
+        black.connect(joined.player2().id());
+
+        Map<?, ?> state = rest.post().uri("/api/games/{roomId}/start", roomId).retrieve().body(Map.class);
+        lastMoveNanos = System.nanoTime();
+        onState(state);
+    }
+
+    /**
+     * Re-reads the state over REST when no move has been seen for a while, in case a broadcast was
+     * published before a subscription became active.
+     */
+    boolean resyncIfStalled(long stallNanos) {
+        if (over.get() || System.nanoTime() - lastMoveNanos < stallNanos) return false;
+        onState(rest.get().uri("/api/games/{roomId}/state", roomId).retrieve().body(Map.class));
+        lastMoveNanos = System.nanoTime();
+        return true;
+    }
+
+    boolean isOver() {
+        return over.get();
+    }
+
+    long[] latencies() {
+        long[] whiteSamples = white.latencies();
+        long[] blackSamples = black.latencies();
+        long[] all = Arrays.copyOf(whiteSamples, whiteSamples.length + blackSamples.length);
+        System.arraycopy(blackSamples, 0, all, whiteSamples.length, blackSamples.length);
+        return all;
+    }
+
+    void disconnect() {
+        white.disconnect();
+        black.disconnect();
+    }
+
+    private void onState(Map<?, ?> state) {
+        if (checkOver(state)) return;
+        white.onState(state);
+        black.onState(state);
+    }
+
+    private boolean checkOver(Map<?, ?> state) {
+        if (!Boolean.TRUE.equals(state.get("gameOver"))) return false;
+        if (over.compareAndSet(false, true)) {
+            finished.countDown();
+        }
+        return true;
+    }
+
+    private final class Player {
+
+        private final int side;
+        private StompSession session;
+        private String playerId;
+        private int movedAt = -1;
+        private long sentAt;
+        private long[] samples = new long[64];
+        private int sampleCount;
+
+        Player(int side) {
+            this.side = side;
+        }
+
+        void connect(String playerId) throws Exception {
+            this.playerId = playerId;
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("player-id", playerId);
+            session = stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders,
+                    new StompSessionHandlerAdapter() {
+                        @Override
+                        public void handleTransportError(StompSession session, Throwable exception) {
+                            errors.incrementAndGet();
+                        }
+                    }).get(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            session.subscribe("/topic/game/" + roomId, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    Map<?, ?> event = (Map<?, ?>) payload;
+                    if ("TIMER_UPDATE".equals(event.get("type"))) return;
+                    lastMoveNanos = System.nanoTime();
+                    Map<?, ?> state = (Map<?, ?>) event.get("data");
+                    if (!checkOver(state)) {
+                        onState(state);
+                    }
+                }
+            });
+            session.subscribe("/user/queue/errors", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+
+        synchronized void onState(Map<?, ?> state) {
+            int moveNumber = ((Number) state.get("moveNumber")).intValue();
+            if (sentAt != 0 && moveNumber > movedAt) {
+                record(System.nanoTime() - sentAt);
+                sentAt = 0;
+            }
+            if (((Number) state.get("currentPlayer")).intValue() != side || moveNumber == movedAt) return;
+
+            List<?> holes = (List<?>) state.get("holes");
+            int[] candidates = new int[ToguzKorgoolEngine.HOLES_PER_PLAYER];
+            int count = 0;
+            int start = side * ToguzKorgoolEngine.HOLES_PER_PLAYER;
+            for (int i = start; i < start + ToguzKorgoolEngine.HOLES_PER_PLAYER; i++) {
+                if (((Number) holes.get(i)).intValue() > 0) {
+                    candidates[count++] = i;
+                }
+            }
+            if (count == 0) return;
+
+            movedAt = moveNumber;
+            sentAt = System.nanoTime();
+            int hole = candidates[ThreadLocalRandom.current().nextInt(count)];
+            session.send("/app/game.move", new MoveMessage(roomId, playerId, hole, System.currentTimeMillis(),
+                    moveNumber, (long) moveNumber));
+        }
+
+        private void record(long nanos) {
+            if (sampleCount == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            samples[sampleCount++] = nanos;
+        }
+
+        synchronized long[] latencies() {
+            return Arrays.copyOf(samples, sampleCount);
+        }
+
+        void disconnect() {
+            if (session != null && session.isConnected()) {
+                session.disconnect();
+            }
+        }
+    }
+}
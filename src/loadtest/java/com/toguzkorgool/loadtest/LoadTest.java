@@ -0,0 +1,258 @@
+package com.toguzkorgool.loadtest;
+
+import com.toguzkorgool.ToguzkorgoolApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Capacity harness: starts the application on a random local port, then for each client count plays
+ * {@code clients / 2} concurrent timed games over SockJS/STOMP and reports move round-trip percentiles,
+ * throughput, heap and GC activity. Clients share the JVM with the server, so heap and GC figures
+ * include the client side. With broker {@code relay}, the server relays to the embedded STOMP broker on
+ * a free local port instead of using the in-memory simple broker, so both fan-out paths can be compared.
+ * With threads {@code virtual}, Tomcat and the STOMP channels run on virtual threads instead of platform
+ * pools. Several thread modes, such as {@code platform,virtual}, run one after the other against a fresh
+ * server each, and end with a summary of the largest client count each mode kept within the limits.
+ * <p>
+ * A step fails when its p99 move round trip exceeds {@code maxP99Ms}, it counts more than
+ * {@code maxErrors} errors, or a game does not finish in time; the harness then exits with status 1, so
+ * the Gradle task fails and can gate a build. The server writes its archive, position index and
+ * annotations to a temporary directory that is deleted afterwards, never to {@code data/}.
+ * <p>
+ * Run with {@code ./gradlew loadTest -Pclients=200,1000,2000 -PtimerSeconds=600 -PstepTimeoutSeconds=600
+ * -Pbroker=simple -Pthreads=platform -PmaxP99Ms=250 -PmaxErrors=0}; compare the thread modes with
+ * {@code -Pthreads=platform,virtual}.
+ */
+public final class LoadTest {
+
+    private static final int SETUP_THREADS = 32;
+    private static final long STALL_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    public static void main(String[] args) throws Exception {
+        int[] clientSteps = Arrays.stream((args.length > 0 ? args[0] : "200,1000,2000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int timerSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        long stepTimeoutSeconds = args.length > 2 ? Long.parseLong(args[2]) : 600;
+        String broker = args.length > 3 ? args[3] : "simple";
+        String[] threadModes = (args.length > 4 ? args[4] : "platform").split(",");
+        double maxP99Millis = args.length > 5 ? Double.parseDouble(args[5]) : 250;
+        long maxErrors = args.length > 6 ? Long.parseLong(args[6]) : 0;
+
+        boolean passed = true;
+        List<List<StepResult>> results = new ArrayList<>(threadModes.length);
+        for (String threads : threadModes) {
+            List<StepResult> steps = runMode(clientSteps, timerSeconds, stepTimeoutSeconds, broker, threads,
+                    maxP99Millis, maxErrors);
+            results.add(steps);
+            passed &= steps.stream().allMatch(StepResult::passed);
+        }
+        if (threadModes.length > 1) {
+            printCapacity(threadModes, results);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Starts a server with the given broker and thread mode and runs every client step against it.
+     */
+    private static List<StepResult> runMode(int[] clientSteps, int timerSeconds, long stepTimeoutSeconds,
+                                            String broker, String threads, double maxP99Millis, long maxErrors)
+            throws Exception {
+        Path dataDir = Files.createTempDirectory("toguzkorgool-loadtest");
+
+        // Load clients move as soon as it is their turn, far faster than the rate limits allow people to
+        List<String> properties = new ArrayList<>(List.of("server.port=0", "toguzkorgool.broker.mode=" + broker,
+                "toguzkorgool.rate-limit.enabled=false",
+                "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                "toguzkorgool.archive.path=" + dataDir.resolve("games.tkga"),
+                "toguzkorgool.positions.path=" + dataDir.resolve("positions"),
+                "toguzkorgool.postgame.path=" + dataDir.resolve("annotations.tkan")));
+        if (broker.equals("relay")) {
+            properties.add("toguzkorgool.broker.embedded.enabled=true");
+            properties.add("toguzkorgool.broker.relay-port=" + freePort());
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ToguzkorgoolApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run();
+        System.out.println("broker: " + broker + ", threads: " + threads);
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new JacksonJsonMessageConverter());
+        RestClient rest = RestClient.create("http://localhost:" + port);
+
+        System.out.printf("%8s %8s %10s %10s %9s %9s %9s %9s %7s %7s %9s %7s %9s%n",
+                "clients", "games", "moves", "moves/s", "p50 ms", "p99 ms", "p999 ms", "max ms",
+                "errors", "stalls", "heap MB", "gc", "gc ms");
+        List<StepResult> steps = new ArrayList<>(clientSteps.length);
+        try {
+            int run = 0;
+            for (int clients : clientSteps) {
+                steps.add(runStep(++run, clients, timerSeconds, stepTimeoutSeconds, port, rest, stompClient,
+                        maxP99Millis, maxErrors));
+            }
+        } finally {
+            stompClient.stop();
+            context.close();
+            deleteRecursively(dataDir);
+        }
+        return steps;
+    }
+
+    private record StepResult(int clients, double movesPerSecond, double p99Millis, boolean passed) {
+    }
+
+    /**
+     * Prints, for each thread mode, the largest client count whose step stayed within the limits.
+     */
+    private static void printCapacity(String[] threadModes, List<List<StepResult>> results) {
+        System.out.println();
+        System.out.printf("%10s %12s %10s %9s%n", "threads", "max clients", "moves/s", "p99 ms");
+        for (int i = 0; i < threadModes.length; i++) {
+            StepResult best = results.get(i).stream()
+                    .filter(StepResult::passed)
+                    .max(Comparator.comparingInt(StepResult::clients))
+                    .orElse(null);
+            if (best == null) {
+                System.out.printf("%10s %12s %10s %9s%n", threadModes[i], "none", "-", "-");
+            } else {
+                System.out.printf("%10s %12d %10.0f %9.2f%n", threadModes[i], best.clients(),
+                        best.movesPerSecond(), best.p99Millis());
+            }
+        }
+    }
+
+    private static StepResult runStep(int run, int clients, int timerSeconds, long timeoutSeconds, int port,
+                                   RestClient rest, WebSocketStompClient stompClient, double maxP99Millis,
+                                   long maxErrors) throws Exception {
+        int games = clients / 2;
+        CountDownLatch finished = new CountDownLatch(games);
+        AtomicLong errors = new AtomicLong();
+        List<LoadGame> running = new ArrayList<>(games);
+        String url = "http://localhost:" + port + "/ws-game";
+
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long started = System.nanoTime();
+
+        ExecutorService setup = Executors.newFixedThreadPool(SETUP_THREADS);
+        List<Future<?>> starts = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            LoadGame game = new LoadGame("load-" + run + "-" + i, url, rest, stompClient, timerSeconds,
+                    finished, errors);
+            running.add(game);
+            starts.add(setup.submit(() -> {
+                game.start();
+                return null;
+            }));
+        }
+        for (Future<?> start : starts) {
+            start.get();
+        }
+        setup.shutdown();
+
+        long stalls = 0;
+        long deadline = started + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (!finished.await(1, TimeUnit.SECONDS) && System.nanoTime() < deadline) {
+            for (LoadGame game : running) {
+                if (game.resyncIfStalled(STALL_NANOS)) stalls++;
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long[] latencies = running.stream()
+                .map(LoadGame::latencies)
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .toArray();
+        long completed = running.stream().filter(LoadGame::isOver).count();
+        running.forEach(LoadGame::disconnect);
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%8d %8s %10d %10.0f %9.2f %9.2f %9.2f %9.2f %7d %7d %9d %7d %9d%n",
+                clients, completed + "/" + games, latencies.length, latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                percentile(latencies, 1.0), errors.get(), stalls,
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20,
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+
+        boolean passed = true;
+        double p99 = percentile(latencies, 0.99);
+        if (p99 > maxP99Millis) {
+            System.out.printf("FAIL %d clients: p99 %.2f ms over the %.2f ms limit%n", clients, p99, maxP99Millis);
+            passed = false;
+        }
+        if (errors.get() > maxErrors) {
+            System.out.printf("FAIL %d clients: %d errors, at most %d allowed%n", clients, errors.get(), maxErrors);
+            passed = false;
+        }
+        if (completed < games) {
+            System.out.printf("FAIL %d clients: %d of %d games unfinished%n", clients, games - completed, games);
+            passed = false;
+        }
+        return new StepResult(clients, latencies.length / seconds, p99, passed);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
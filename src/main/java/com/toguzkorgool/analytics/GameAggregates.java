@@ -0,0 +1,162 @@
+package com.toguzkorgool.analytics;
+
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.model.ArchivedGame;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.ONGOING;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+
+/**
+ * Running totals over finished games: outcome per first move, length histogram, captures, tuz
+ * declarations and how games ended.
+ * <p>
+ * Every total is a {@link LongAdder}, so any number of threads may {@link #add} games at once without
+ * locking and readers see each total without stopping them. A read taken while games are being
+ * added may mix totals from before and after a game; that is fine for reporting.
+ */
+public final class GameAggregates {
+
+    public static final int LENGTH_BUCKET_PLIES = 10;
+    public static final int LENGTH_BUCKETS = 31;
+
+    /** Outcome columns of {@link #firstMove}, matching the engine's result codes. */
+    private static final int OUTCOMES = 3;
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder plies = new LongAdder();
+    private final LongAdder captures = new LongAdder();
+    private final LongAdder capturedStones = new LongAdder();
+    private final LongAdder tuzDeclarations = new LongAdder();
+    private final LongAdder gamesWithTuz = new LongAdder();
+    private final LongAdder[][] firstMove = new LongAdder[HOLES_PER_PLAYER][OUTCOMES];
+    private final LongAdder[] lengths = adders(LENGTH_BUCKETS);
+    private final LongAdder[] terminations = adders(Termination.values().length);
+
+    public GameAggregates() {
+        for (int hole = 0; hole < HOLES_PER_PLAYER; hole++) {
+            firstMove[hole] = adders(OUTCOMES);
+        }
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        Arrays.setAll(adders, i -> new LongAdder());
+        return adders;
+    }
+
+    /**
+     * Replays a game on raw board arrays and adds it to every total.
+     */
+    public void add(ArchivedGame game) {
+        int[] holes = new int[TOTAL_HOLES];
+        int[] kazan = new int[2];
+        int[] tuz = {-1, -1};
+        Arrays.fill(holes, 9);
+
+        byte[] moves = game.moves();
+        int gameCaptures = 0;
+        int gameStones = 0;
+        int gameTuz = 0;
+        boolean atsyroo = false;
+        int result = ONGOING;
+        for (int i = 0; i < moves.length; i++) {
+            int summary = ToguzKorgoolEngine.sow(holes, kazan, tuz, i % 2, moves[i]);
+            int captured = ToguzKorgoolEngine.captured(summary);
+            if (captured > 0) {
+                gameCaptures++;
+                gameStones += captured;
+            }
+            if (ToguzKorgoolEngine.isTuzDeclared(summary)) {
+                gameTuz++;
+            }
+            atsyroo = ToguzKorgoolEngine.sideStones(holes, 0) == 0 || ToguzKorgoolEngine.sideStones(holes, 1) == 0;
+            result = ToguzKorgoolEngine.settle(holes, kazan);
+        }
+
+        games.increment();
+        plies.add(moves.length);
+        lengths[Math.min(moves.length / LENGTH_BUCKET_PLIES, LENGTH_BUCKETS - 1)].increment();
+        captures.add(gameCaptures);
+        capturedStones.add(gameStones);
+        tuzDeclarations.add(gameTuz);
+        if (gameTuz > 0) {
+            gamesWithTuz.increment();
+        }
+        int outcome = outcome(game.winner());
+        if (moves.length > 0 && outcome >= 0) {
+            firstMove[moves[0]][outcome].increment();
+        }
+        terminations[termination(game, result, atsyroo).ordinal()].increment();
+    }
+
+    private static int outcome(String winner) {
+        if (winner == null) return -1;
+        return switch (winner) {
+            case "0" -> ToguzKorgoolEngine.WHITE_WINS;
+            case "1" -> ToguzKorgoolEngine.BLACK_WINS;
+            case "DRAW" -> ToguzKorgoolEngine.DRAW;
+            default -> -1;
+        };
+    }
+
+    private static Termination termination(ArchivedGame game, int result, boolean atsyroo) {
+        if (game.reason() != null) {
+            return switch (game.reason()) {
+                case "TIME" -> Termination.TIME;
+                case "RESIGN" -> Termination.RESIGN;
+                case "ABANDONED" -> Termination.ABANDONED;
+                default -> Termination.OTHER;
+            };
+        }
+        if (result != ONGOING) return atsyroo ? Termination.ATSYROO : Termination.SCORE;
+        return "DRAW".equals(game.winner()) ? Termination.AGREEMENT : Termination.OTHER;
+    }
+
+    public long games() {
+        return games.sum();
+    }
+
+    public long plies() {
+        return plies.sum();
+    }
+
+    public long captures() {
+        return captures.sum();
+    }
+
+    public long capturedStones() {
+        return capturedStones.sum();
+    }
+
+    public long tuzDeclarations() {
+        return tuzDeclarations.sum();
+    }
+
+    public long gamesWithTuz() {
+        return gamesWithTuz.sum();
+    }
+
+    /**
+     * @param hole    first move, 0-8
+     * @param outcome {@link ToguzKorgoolEngine#WHITE_WINS}, {@link ToguzKorgoolEngine#BLACK_WINS} or
+     *                {@link ToguzKorgoolEngine#DRAW}
+     */
+    public long firstMove(int hole, int outcome) {
+        return firstMove[hole][outcome].sum();
+    }
+
+    /**
+     * @return games of {@code bucket * LENGTH_BUCKET_PLIES} up to the next bucket's plies; the last bucket is open
+     */
+    public long lengthBucket(int bucket) {
+        return lengths[bucket].sum();
+    }
+
+    public long terminations(Termination termination) {
+        return terminations[termination.ordinal()].sum();
+    }
+}
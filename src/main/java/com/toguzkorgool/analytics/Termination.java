@@ -0,0 +1,18 @@
+package com.toguzkorgool.analytics;
+
+/**
+ * How a game ended, as far as it can be told from the archived record.
+ */
+public enum Termination {
+    /** A player reached the winning score, or both reached the draw score. */
+    SCORE,
+    /** A side ran out of stones and the other collected the rest. */
+    ATSYROO,
+    TIME,
+    RESIGN,
+    /** Forfeited by staying disconnected past the grace period. */
+    ABANDONED,
+    /** Drawn by agreement before the board decided the game. */
+    AGREEMENT,
+    OTHER
+}
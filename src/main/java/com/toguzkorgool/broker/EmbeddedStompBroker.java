@@ -0,0 +1,242 @@
+package com.toguzkorgool.broker;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A minimal STOMP 1.2 broker for running the broker relay without an external broker, started when
+ * {@code toguzkorgool.broker.embedded.enabled} is set.
+ * <p>
+ * It supports what the relay uses: CONNECT, SUBSCRIBE, UNSUBSCRIBE, SEND, DISCONNECT and receipts.
+ * Destinations are matched exactly, with no wildcards, acknowledgements, transactions or persistence,
+ * and heart-beats are declined. Each connection has its own reader thread; a SEND is written to every
+ * subscriber on the sender's thread. Meant for local runs and load tests, not production.
+ */
+@Component
+public class EmbeddedStompBroker {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedStompBroker.class);
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong messageIds = new AtomicLong();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ServerSocket server;
+
+    public EmbeddedStompBroker(@Value("${toguzkorgool.broker.embedded.enabled:false}") boolean enabled,
+                               @Value("${toguzkorgool.broker.relay-host:localhost}") String host,
+                               @Value("${toguzkorgool.broker.relay-port:61613}") int port) throws IOException {
+        if (!enabled) {
+            this.server = null;
+            return;
+        }
+        this.server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress(InetAddress.getByName(host), port));
+        Thread acceptor = new Thread(this::accept, "stomp-broker-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Embedded STOMP broker listening on {}", server.getLocalSocketAddress());
+    }
+
+    /**
+     * @return the bound port, or -1 when the broker is disabled
+     */
+    public int getPort() {
+        return server != null ? server.getLocalPort() : -1;
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                Thread reader = new Thread(connection::run, "stomp-broker-" + connectionCount.incrementAndGet());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    log.warn("Embedded STOMP broker failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void publish(StompFrame send) {
+        String destination = send.headers().get("destination");
+        Set<Subscription> subscribers = subscriptions.get(destination);
+        if (subscribers == null || subscribers.isEmpty()) return;
+
+        String messageId = Long.toString(messageIds.incrementAndGet());
+        for (Subscription subscription : subscribers) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("destination", destination);
+            headers.put("subscription", subscription.id());
+            headers.put("message-id", messageId);
+            send.headers().forEach((name, value) -> {
+                if (!name.equals("receipt") && !name.equals("transaction")) headers.putIfAbsent(name, value);
+            });
+            subscription.connection().write(new StompFrame("MESSAGE", headers, send.body()));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (server == null) return;
+        server.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private record Subscription(Connection connection, String id, String destination) {
+    }
+
+    private final class Connection {
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final Map<String, Subscription> byId = new ConcurrentHashMap<>();
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 1 << 16);
+        }
+
+        void run() {
+            try {
+                // Closing the stream would close the socket before an ERROR frame could be written
+                InputStream in = new BufferedInputStream(socket.getInputStream(), 1 << 16);
+                StompFrame frame;
+                while ((frame = StompFrame.read(in)) != null) {
+                    if (!handle(frame)) break;
+                }
+            } catch (SocketException e) {
+                // closed by the peer or by stop()
+            } catch (IOException | RuntimeException e) {
+                log.debug("Embedded STOMP broker dropping connection {}", socket.getRemoteSocketAddress(), e);
+                write(new StompFrame("ERROR", Map.of("message", String.valueOf(e.getMessage())), new byte[0]));
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * @return false once the connection should be closed
+         */
+        private boolean handle(StompFrame frame) {
+            switch (frame.command()) {
+                case "CONNECT", "STOMP" -> {
+                    write(new StompFrame("CONNECTED",
+                            Map.of("version", "1.2", "heart-beat", "0,0", "server", "toguzkorgool-embedded"),
+                            new byte[0]));
+                    return true;
+                }
+                case "SUBSCRIBE" -> {
+                    Subscription subscription = new Subscription(this, require(frame, "id"),
+                            require(frame, "destination"));
+                    Subscription previous = byId.put(subscription.id(), subscription);
+                    if (previous != null) unsubscribe(previous);
+                    subscribe(subscription);
+                }
+                case "UNSUBSCRIBE" -> {
+                    Subscription subscription = byId.remove(require(frame, "id"));
+                    if (subscription != null) unsubscribe(subscription);
+                }
+                case "SEND" -> {
+                    require(frame, "destination");
+                    publish(frame);
+                }
+                case "DISCONNECT" -> {
+                    receipt(frame);
+                    return false;
+                }
+                case "ACK", "NACK", "BEGIN", "COMMIT", "ABORT" -> {
+                    // no acknowledgements or transactions: accepted and ignored
+                }
+                default -> throw new IllegalArgumentException("Unsupported STOMP command " + frame.command());
+            }
+            receipt(frame);
+            return true;
+        }
+
+        private void receipt(StompFrame frame) {
+            String receipt = frame.headers().get("receipt");
+            if (receipt != null) {
+                write(new StompFrame("RECEIPT", Map.of("receipt-id", receipt), new byte[0]));
+            }
+        }
+
+        private String require(StompFrame frame, String header) {
+            String value = frame.headers().get(header);
+            if (value == null) {
+                throw new IllegalArgumentException(frame.command() + " frame without " + header + " header");
+            }
+            return value;
+        }
+
+        void write(StompFrame frame) {
+            byte[] bytes = frame.encode();
+            synchronized (out) {
+                try {
+                    out.write(bytes);
+                    out.flush();
+                } catch (IOException e) {
+                    close();
+                }
+            }
+        }
+
+        void close() {
+            if (!connections.remove(this)) return;
+            for (Subscription subscription : byId.values()) {
+                unsubscribe(subscription);
+            }
+            byId.clear();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    /**
+     * Adds inside compute, so it cannot land in a set that {@link #unsubscribe} has just emptied and dropped.
+     */
+    private void subscribe(Subscription subscription) {
+        subscriptions.compute(subscription.destination(), (destination, subscribers) -> {
+            if (subscribers == null) subscribers = ConcurrentHashMap.newKeySet();
+            subscribers.add(subscription);
+            return subscribers;
+        });
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.destination(),
+                (destination, subscribers) -> subscribers.remove(subscription) && subscribers.isEmpty()
+                        ? null : subscribers);
+    }
+}
@@ -0,0 +1,144 @@
+package com.toguzkorgool.broker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A STOMP 1.2 frame: command, headers and body. Header values are escaped on the wire except in
+ * CONNECT and CONNECTED frames, as the specification requires.
+ */
+record StompFrame(String command, Map<String, String> headers, byte[] body) {
+
+    private static final int MAX_LINE = 64 * 1024;
+    private static final int MAX_BODY = 16 << 20;
+
+    /**
+     * @return the next frame, skipping heart-beat newlines, or null at the end of the stream
+     */
+    static StompFrame read(InputStream in) throws IOException {
+        String command;
+        do {
+            command = readLine(in);
+            if (command == null) return null;
+        } while (command.isEmpty());
+
+        boolean escaped = !command.equals("CONNECT") && !command.equals("CONNECTED");
+        Map<String, String> headers = new LinkedHashMap<>();
+        String line;
+        while (!(line = requireLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) throw new IOException("Malformed STOMP header: " + line);
+            String name = escaped ? unescape(line.substring(0, colon)) : line.substring(0, colon);
+            String value = escaped ? unescape(line.substring(colon + 1)) : line.substring(colon + 1);
+            // Repeated headers: the first one wins
+            headers.putIfAbsent(name, value);
+        }
+
+        byte[] body;
+        String contentLength = headers.get("content-length");
+        if (contentLength != null) {
+            int length = Integer.parseInt(contentLength);
+            if (length < 0 || length > MAX_BODY) throw new IOException("Invalid content-length " + length);
+            body = in.readNBytes(length);
+            if (body.length < length) throw new EOFException("Truncated STOMP body");
+            if (in.read() != 0) throw new IOException("STOMP frame not terminated by NUL");
+        } else {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != 0) {
+                if (b < 0) throw new EOFException("Truncated STOMP body");
+                if (buffer.size() == MAX_BODY) throw new IOException("STOMP body too large");
+                buffer.write(b);
+            }
+            body = buffer.toByteArray();
+        }
+        return new StompFrame(command, headers, body);
+    }
+
+    byte[] encode() {
+        boolean escaped = !command.equals("CONNECTED");
+        StringBuilder head = new StringBuilder(128).append(command).append('\n');
+        headers.forEach((name, value) -> {
+            if (name.equals("content-length")) return;
+            head.append(escaped ? escape(name) : name).append(':').append(escaped ? escape(value) : value).append('\n');
+        });
+        if (body.length > 0) {
+            head.append("content-length:").append(body.length).append('\n');
+        }
+        head.append('\n');
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[headBytes.length + body.length + 1];
+        System.arraycopy(headBytes, 0, frame, 0, headBytes.length);
+        System.arraycopy(body, 0, frame, headBytes.length, body.length);
+        return frame;
+    }
+
+    private static String requireLine(InputStream in) throws IOException {
+        String line = readLine(in);
+        if (line == null) throw new EOFException("Truncated STOMP frame");
+        return line;
+    }
+
+    /**
+     * Reads a UTF-8 line ended by LF or CRLF.
+     */
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                if (line.size() == 0) return null;
+                throw new EOFException("Truncated STOMP frame");
+            }
+            if (line.size() == MAX_LINE) throw new IOException("STOMP line too long");
+            line.write(b);
+        }
+        byte[] bytes = line.toByteArray();
+        int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf(':') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case ':' -> out.append("\\c");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String unescape(String value) throws IOException {
+        if (value.indexOf('\\') < 0) return value;
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (++i == value.length()) throw new IOException("Invalid STOMP header escape");
+            switch (value.charAt(i)) {
+                case '\\' -> out.append('\\');
+                case 'c' -> out.append(':');
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                default -> throw new IOException("Invalid STOMP header escape \\" + value.charAt(i));
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.toguzkorgool.cluster;
+
+/**
+ * One message between nodes.
+ *
+ * @param target a command's mapping name, or an event's STOMP destination
+ * @param user   the player who sent a command, or the user an event is addressed to; null for a topic event
+ * @param body   the JSON payload
+ */
+public record ClusterMessage(Kind kind, String origin, String target, String user, byte[] body) {
+
+    public enum Kind {
+        /** A client command for a room owned by the receiving node. */
+        COMMAND,
+        /** A message for the STOMP subscribers connected to the receiving node. */
+        EVENT
+    }
+}
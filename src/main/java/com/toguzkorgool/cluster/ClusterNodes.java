@@ -0,0 +1,28 @@
+package com.toguzkorgool.cluster;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses node lists written as {@code node-1=value, node-2=value}, keeping their order.
+ */
+public final class ClusterNodes {
+
+    private ClusterNodes() {
+    }
+
+    public static Map<String, String> parse(String spec) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) return nodes;
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) continue;
+            int separator = trimmed.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected nodeId=value in cluster node list: " + trimmed);
+            }
+            nodes.put(trimmed.substring(0, separator).trim(), trimmed.substring(separator + 1).trim());
+        }
+        return nodes;
+    }
+}
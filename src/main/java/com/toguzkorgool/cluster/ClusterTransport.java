@@ -0,0 +1,24 @@
+package com.toguzkorgool.cluster;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link ClusterMessage}s between nodes. Messages from one node to another arrive in the order
+ * they were sent. Delivery is best effort: a message for a node that cannot be reached is dropped.
+ */
+public interface ClusterTransport extends AutoCloseable {
+
+    /**
+     * Starts receiving messages addressed to {@code nodeId}.
+     */
+    void start(String nodeId, Consumer<ClusterMessage> receiver) throws IOException;
+
+    /**
+     * Sends without waiting for delivery.
+     */
+    void send(String nodeId, ClusterMessage message);
+
+    @Override
+    void close();
+}
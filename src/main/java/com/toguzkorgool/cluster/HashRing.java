@@ -0,0 +1,75 @@
+package com.toguzkorgool.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent hashing of room ids onto nodes. Every node is placed at {@code virtualNodes} points on a
+ * 64-bit ring and a key belongs to the first point at or after its hash, so adding or removing a node
+ * only moves the keys next to its points. The hash is fixed, so every node computes the same owners
+ * from the same member list.
+ */
+public final class HashRing {
+
+    private final long[] points;
+    private final String[] owners;
+
+    public HashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        int size = nodes.size() * virtualNodes;
+        long[] hashes = new long[size];
+        int[] nodeOf = new int[size];
+        Integer[] order = new Integer[size];
+        for (int n = 0; n < nodes.size(); n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                int i = n * virtualNodes + v;
+                hashes[i] = hash(nodes.get(n) + "#" + v);
+                nodeOf[i] = n;
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compareUnsigned(hashes[a], hashes[b]));
+
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = nodes.get(nodeOf[order[i]]);
+        }
+    }
+
+    public String ownerOf(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return owners[low == points.length ? 0 : low];
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer to spread similar ids.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
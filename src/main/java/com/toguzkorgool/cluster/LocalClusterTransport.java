@@ -0,0 +1,62 @@
+package com.toguzkorgool.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the network, for running several nodes as application contexts in one JVM.
+ * Nodes find each other through a static registry. Each node receives on its own thread, so delivery
+ * is asynchronous and in order, as over a connection.
+ */
+public class LocalClusterTransport implements ClusterTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalClusterTransport.class);
+    private static final Map<String, LocalClusterTransport> NODES = new ConcurrentHashMap<>();
+
+    private String nodeId;
+    private Consumer<ClusterMessage> receiver;
+    private ExecutorService delivery;
+
+    @Override
+    public void start(String nodeId, Consumer<ClusterMessage> receiver) {
+        this.nodeId = nodeId;
+        this.receiver = receiver;
+        this.delivery = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-receive-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (NODES.putIfAbsent(nodeId, this) != null) {
+            delivery.shutdown();
+            throw new IllegalStateException("Node " + nodeId + " is already running in this JVM");
+        }
+    }
+
+    @Override
+    public void send(String nodeId, ClusterMessage message) {
+        LocalClusterTransport peer = NODES.get(nodeId);
+        if (peer == null) {
+            log.debug("Node {} is not running, dropping {} {}", nodeId, message.kind(), message.target());
+            return;
+        }
+        try {
+            peer.delivery.execute(() -> peer.receiver.accept(message));
+        } catch (RejectedExecutionException e) {
+            // The peer is shutting down
+        }
+    }
+
+    @Override
+    public void close() {
+        if (nodeId == null) return;
+        NODES.remove(nodeId, this);
+        delivery.shutdown();
+    }
+}
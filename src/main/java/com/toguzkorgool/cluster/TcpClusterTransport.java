@@ -0,0 +1,231 @@
+package com.toguzkorgool.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Length-prefixed frames over one outgoing TCP connection per peer.
+ * <p>
+ * Each peer has a bounded send queue drained by its own writer thread, which connects on demand and
+ * reconnects after a failure, so a slow or stopped node never blocks the sender. A frame is dropped
+ * when the queue is full or its write fails. Incoming connections are read by one thread each.
+ * <p>
+ * Frame: {@code length, kind, origin, target, hasUser, [user], bodyLength, body}, strings in modified UTF-8.
+ * <p>
+ * Peers are trusted: a forwarded command runs as the user named in its frame. The server listens only on
+ * the node's configured address, which must be on a private network; the cluster port must never be
+ * reachable by clients.
+ */
+public class TcpClusterTransport implements ClusterTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(TcpClusterTransport.class);
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    private static final int MAX_FRAME = 16 << 20;
+
+    private final Map<String, InetSocketAddress> addresses;
+    private final int queueSize;
+    private final Map<String, Peer> peers = new ConcurrentHashMap<>();
+    private final AtomicInteger readerCount = new AtomicInteger();
+    private Consumer<ClusterMessage> receiver;
+    private ServerSocket server;
+    private volatile boolean running;
+
+    public TcpClusterTransport(Map<String, InetSocketAddress> addresses, int queueSize) {
+        this.addresses = addresses;
+        this.queueSize = queueSize;
+    }
+
+    @Override
+    public void start(String nodeId, Consumer<ClusterMessage> receiver) throws IOException {
+        InetSocketAddress address = addresses.get(nodeId);
+        if (address == null) {
+            throw new IOException("No address configured for node " + nodeId);
+        }
+        this.receiver = receiver;
+        this.server = new ServerSocket();
+        server.bind(address);
+        running = true;
+
+        Thread acceptor = new Thread(this::acceptLoop, "cluster-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Cluster node {} listening on {}", nodeId, address);
+    }
+
+    @Override
+    public void send(String nodeId, ClusterMessage message) {
+        Peer peer = peers.computeIfAbsent(nodeId, id -> {
+            InetSocketAddress address = addresses.get(id);
+            return address == null ? null : new Peer(id, address);
+        });
+        if (peer == null) {
+            log.warn("Unknown cluster node {}, dropping {} {}", nodeId, message.kind(), message.target());
+        } else if (!peer.queue.offer(message)) {
+            log.warn("Send queue to node {} full, dropping {} {}", nodeId, message.kind(), message.target());
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                Thread reader = new Thread(() -> readLoop(socket), "cluster-read-" + readerCount.incrementAndGet());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) log.warn("Accepting a cluster connection failed", e);
+            }
+        }
+    }
+
+    private void readLoop(Socket socket) {
+        try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (running) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME) {
+                    throw new IOException("Invalid cluster frame length " + length);
+                }
+                ClusterMessage.Kind kind = ClusterMessage.Kind.values()[in.readByte()];
+                String origin = in.readUTF();
+                String target = in.readUTF();
+                String user = in.readBoolean() ? in.readUTF() : null;
+                int bodyLength = in.readInt();
+                int headerLength = 1 + utfLength(origin) + utfLength(target) + 1
+                        + (user != null ? utfLength(user) : 0) + Integer.BYTES;
+                if (bodyLength != length - headerLength) {
+                    throw new IOException("Invalid cluster frame body length " + bodyLength);
+                }
+                byte[] body = new byte[bodyLength];
+                in.readFully(body);
+                receiver.accept(new ClusterMessage(kind, origin, target, user, body));
+            }
+        } catch (EOFException e) {
+            // Peer closed the connection
+        } catch (IOException | RuntimeException e) {
+            if (running) log.warn("Cluster connection from {} failed", socket.getRemoteSocketAddress(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Peer peer : peers.values()) {
+            peer.writer.interrupt();
+        }
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException e) {
+                log.debug("Closing cluster server socket failed", e);
+            }
+        }
+    }
+
+    private final class Peer {
+
+        private final String nodeId;
+        private final InetSocketAddress address;
+        private final BlockingQueue<ClusterMessage> queue = new ArrayBlockingQueue<>(queueSize);
+        private final Thread writer;
+        private Socket socket;
+        private DataOutputStream out;
+
+        Peer(String nodeId, InetSocketAddress address) {
+            this.nodeId = nodeId;
+            this.address = address;
+            this.writer = new Thread(this::writeLoop, "cluster-write-" + nodeId);
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        private void writeLoop() {
+            while (running) {
+                ClusterMessage message;
+                try {
+                    message = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (message == null) continue;
+                try {
+                    if (out == null) connect();
+                    write(message);
+                    // Batch frames under load: flush only once the queue is drained
+                    if (queue.isEmpty()) out.flush();
+                } catch (IOException e) {
+                    log.warn("Sending to cluster node {} at {} failed: {}", nodeId, address, e.getMessage());
+                    disconnect();
+                    try {
+                        Thread.sleep(RECONNECT_DELAY_MILLIS);
+                    } catch (InterruptedException interrupted) {
+                        break;
+                    }
+                }
+            }
+            disconnect();
+        }
+
+        private void connect() throws IOException {
+            Socket connection = new Socket();
+            connection.setTcpNoDelay(true);
+            connection.connect(address, CONNECT_TIMEOUT_MILLIS);
+            socket = connection;
+            out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        }
+
+        private void write(ClusterMessage message) throws IOException {
+            int length = 1 + utfLength(message.origin()) + utfLength(message.target()) + 1
+                    + (message.user() != null ? utfLength(message.user()) : 0) + Integer.BYTES + message.body().length;
+            out.writeInt(length);
+            out.writeByte(message.kind().ordinal());
+            out.writeUTF(message.origin());
+            out.writeUTF(message.target());
+            out.writeBoolean(message.user() != null);
+            if (message.user() != null) out.writeUTF(message.user());
+            out.writeInt(message.body().length);
+            out.write(message.body());
+        }
+
+        private void disconnect() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    log.debug("Closing connection to cluster node {} failed", nodeId, e);
+                }
+            }
+            socket = null;
+            out = null;
+        }
+    }
+
+    /**
+     * Bytes {@link DataOutputStream#writeUTF} writes for {@code value}, including its length prefix.
+     */
+    private static int utfLength(String value) {
+        int length = Short.BYTES;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,40 @@
+package com.toguzkorgool.config;
+
+import com.toguzkorgool.cluster.ClusterNodes;
+import com.toguzkorgool.cluster.ClusterTransport;
+import com.toguzkorgool.cluster.LocalClusterTransport;
+import com.toguzkorgool.cluster.TcpClusterTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class ClusterConfig {
+
+    /**
+     * {@code local} connects nodes running in the same JVM; {@code tcp} connects nodes at the
+     * {@code host:port} addresses of the node list.
+     */
+    @Bean(destroyMethod = "close")
+    public ClusterTransport clusterTransport(@Value("${toguzkorgool.cluster.transport:local}") String transport,
+                                             @Value("${toguzkorgool.cluster.nodes:}") String nodes,
+                                             @Value("${toguzkorgool.cluster.queue-size:65536}") int queueSize) {
+        if (!transport.equals("tcp")) {
+            return new LocalClusterTransport();
+        }
+        Map<String, InetSocketAddress> addresses = new LinkedHashMap<>();
+        ClusterNodes.parse(nodes).forEach((nodeId, address) -> {
+            int colon = address.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected host:port for cluster node " + nodeId + ": " + address);
+            }
+            addresses.put(nodeId, new InetSocketAddress(address.substring(0, colon),
+                    Integer.parseInt(address.substring(colon + 1))));
+        });
+        return new TcpClusterTransport(addresses, queueSize);
+    }
+}
@@ -0,0 +1,69 @@
+package com.toguzkorgool.config;
+
+import com.toguzkorgool.engine.EvalWeights;
+import com.toguzkorgool.engine.Evaluator;
+import com.toguzkorgool.engine.HandcraftedEvaluator;
+import com.toguzkorgool.engine.nnue.NnueEvaluator;
+import com.toguzkorgool.engine.nnue.NnueNetwork;
+import com.toguzkorgool.engine.tablebase.Tablebase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+@Configuration
+public class EngineConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EngineConfig.class);
+
+    @Bean
+    public Tablebase tablebase(@Value("${toguzkorgool.engine.tablebase-path:}") String path) throws IOException {
+        if (path.isBlank() || !Files.exists(Path.of(path))) {
+            log.info("No endgame tablebase configured, endgames will be searched");
+            return Tablebase.empty();
+        }
+        Tablebase tablebase = Tablebase.open(Path.of(path));
+        log.info("Loaded endgame tablebase {} covering up to {} stones", path, tablebase.maxStones());
+        return tablebase;
+    }
+
+    /**
+     * Evaluators can be stateful (NNUE accumulators), so every search worker asks for its own instance.
+     */
+    @Bean
+    public Supplier<Evaluator> evaluatorFactory(@Value("${toguzkorgool.engine.evaluator:handcrafted}") String evaluator,
+                                                @Value("${toguzkorgool.engine.nnue-path:}") String nnuePath,
+                                                @Value("${toguzkorgool.engine.weights-path:}") String weightsPath)
+            throws IOException {
+        switch (evaluator) {
+            case "kazan" -> {
+                return () -> Evaluator.KAZAN_DIFFERENCE;
+            }
+            case "nnue" -> {
+                NnueNetwork network = NnueNetwork.load(Path.of(nnuePath));
+                log.info("Loaded NNUE network {} (hidden {}, vector API {})", nnuePath, network.hidden(),
+                        new NnueEvaluator(network).isVectorized() ? "on" : "off");
+                return () -> new NnueEvaluator(network);
+            }
+            default -> {
+                EvalWeights weights = loadWeights(weightsPath);
+                return () -> new HandcraftedEvaluator(weights);
+            }
+        }
+    }
+
+    private static EvalWeights loadWeights(String path) throws IOException {
+        if (path.isBlank() || !Files.exists(Path.of(path))) {
+            return EvalWeights.DEFAULT;
+        }
+        EvalWeights weights = EvalWeights.load(Path.of(path));
+        log.info("Loaded evaluation weights {} from {}", weights, path);
+        return weights;
+    }
+}
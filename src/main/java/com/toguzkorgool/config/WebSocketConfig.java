@@ -1,14 +1,20 @@
 package com.toguzkorgool.config;
 
+import com.toguzkorgool.ratelimit.InboundRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -19,9 +25,80 @@ import java.util.UUID;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    /** Keeps subscriptions and fan-out in this JVM. */
+    public static final String BROKER_SIMPLE = "simple";
+    /** Relays {@code /topic} and {@code /queue} to an external STOMP broker. */
+    public static final String BROKER_RELAY = "relay";
+
+    private final String brokerMode;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final String relayVirtualHost;
+    private final long heartbeatMillis;
+    private final boolean virtualThreads;
+    private final InboundRateLimiter rateLimiter;
+
+    public WebSocketConfig(InboundRateLimiter rateLimiter,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${toguzkorgool.presence.heartbeat-ms:10000}") long heartbeatMillis,
+                           @Value("${toguzkorgool.broker.mode:simple}") String brokerMode,
+                           @Value("${toguzkorgool.broker.relay-host:localhost}") String relayHost,
+                           @Value("${toguzkorgool.broker.relay-port:61613}") int relayPort,
+                           @Value("${toguzkorgool.broker.login:guest}") String relayLogin,
+                           @Value("${toguzkorgool.broker.passcode:guest}") String relayPasscode,
+                           @Value("${toguzkorgool.broker.virtual-host:}") String relayVirtualHost) {
+        if (!BROKER_SIMPLE.equals(brokerMode) && !BROKER_RELAY.equals(brokerMode)) {
+            throw new IllegalArgumentException("Unknown broker mode " + brokerMode);
+        }
+        this.brokerMode = brokerMode;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.relayVirtualHost = relayVirtualHost;
+        this.heartbeatMillis = heartbeatMillis;
+        this.virtualThreads = virtualThreads;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Sends server heart-beats and closes sessions whose client stopped sending its own, so a dropped
+     * connection is noticed in a few intervals instead of when TCP gives up.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler stompHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("stomp-heartbeat-");
+        scheduler.setDaemon(true);
+        return scheduler;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (BROKER_RELAY.equals(brokerMode)) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Let every node resolve /user destinations of sessions connected elsewhere
+                    .setUserDestinationBroadcast("/topic/unresolved-user")
+                    .setUserRegistryBroadcast("/topic/user-registry")
+                    .setSystemHeartbeatSendInterval(heartbeatMillis)
+                    .setSystemHeartbeatReceiveInterval(heartbeatMillis);
+            if (!relayVirtualHost.isEmpty()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else {
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                    .setTaskScheduler(stompHeartbeatScheduler());
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
@@ -34,8 +111,17 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    /**
+     * With {@code spring.threads.virtual.enabled} the client channels run each message on its own virtual
+     * thread, like Tomcat does for requests, instead of on the bounded platform pools. Game locks are
+     * plain {@code synchronized} blocks; since JDK 24 a virtual thread blocked in or on one unmounts
+     * from its carrier, so they need no rework.
+     */
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-inbound-"));
+        }
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -49,6 +135,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 }
                 return message;
             }
-        });
+        }, rateLimiter);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-outbound-"));
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.toguzkorgool.controller;
+
+import com.toguzkorgool.dto.response.ArchivedGameResponse;
+import com.toguzkorgool.dto.response.GameAnnotationsResponse;
+import com.toguzkorgool.dto.response.ImportResponse;
+import com.toguzkorgool.dto.response.ReplayResponse;
+import com.toguzkorgool.notation.GameNotation;
+import com.toguzkorgool.service.GameArchiveService;
+import com.toguzkorgool.service.GameNotationService;
+import com.toguzkorgool.service.PostGameAnalysisService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+
+    private final GameArchiveService gameArchiveService;
+    private final GameNotationService gameNotationService;
+    private final PostGameAnalysisService postGameAnalysisService;
+
+    public ArchiveController(GameArchiveService gameArchiveService, GameNotationService gameNotationService,
+                             PostGameAnalysisService postGameAnalysisService) {
+        this.gameArchiveService = gameArchiveService;
+        this.gameNotationService = gameNotationService;
+        this.postGameAnalysisService = postGameAnalysisService;
+    }
+
+    @GetMapping("/rooms/{roomId}")
+    public ResponseEntity<List<ArchivedGameResponse>> getRoomGames(@PathVariable String roomId) {
+        return ResponseEntity.ok(gameArchiveService.getRoomGames(roomId));
+    }
+
+    @GetMapping("/games/{gameId}/replay")
+    public ResponseEntity<ReplayResponse> replay(@PathVariable long gameId) {
+        return ResponseEntity.ok(gameArchiveService.replay(gameId));
+    }
+
+    @GetMapping("/games/{gameId}/annotations")
+    public ResponseEntity<GameAnnotationsResponse> getAnnotations(@PathVariable long gameId) {
+        return ResponseEntity.ok(postGameAnalysisService.getAnnotations(gameId));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportGames(@RequestParam(defaultValue = "0") long from,
+                                                             @RequestParam(required = false) Long to) {
+        long end = to == null ? Long.MAX_VALUE : to;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(GameNotation.MEDIA_TYPE + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"games.tkn\"")
+                .body(out -> gameNotationService.exportGames(from, end, out));
+    }
+
+    @PostMapping(value = "/import", consumes = {GameNotation.MEDIA_TYPE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ImportResponse> importGames(InputStream body) throws IOException {
+        return ResponseEntity.ok(gameNotationService.importGames(body));
+    }
+}
@@ -0,0 +1,30 @@
+package com.toguzkorgool.controller;
+
+import com.toguzkorgool.dto.response.BookStatusResponse;
+import com.toguzkorgool.service.OpeningBookService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/engine")
+public class EngineController {
+
+    private final OpeningBookService openingBookService;
+
+    public EngineController(OpeningBookService openingBookService) {
+        this.openingBookService = openingBookService;
+    }
+
+    @GetMapping("/book")
+    public ResponseEntity<BookStatusResponse> getBook() {
+        return ResponseEntity.ok(new BookStatusResponse(openingBookService.size()));
+    }
+
+    @PostMapping("/book/reload")
+    public ResponseEntity<BookStatusResponse> reloadBook() {
+        return ResponseEntity.ok(new BookStatusResponse(openingBookService.reload()));
+    }
+}
@@ -1,24 +1,39 @@
 package com.toguzkorgool.controller;
 
+import com.toguzkorgool.dto.request.BulkStateRequest;
+import com.toguzkorgool.dto.response.AnalysisResponse;
 import com.toguzkorgool.dto.response.GameStateResponse;
 import com.toguzkorgool.dto.response.MoveHistoryResponse;
+import com.toguzkorgool.service.AnalysisService;
 import com.toguzkorgool.service.GameService;
+import com.toguzkorgool.service.GameSummaryService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/games")
 public class GameController {
 
     private final GameService gameService;
+    private final AnalysisService analysisService;
+    private final GameSummaryService gameSummaryService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, AnalysisService analysisService,
+                          GameSummaryService gameSummaryService) {
         this.gameService = gameService;
+        this.analysisService = analysisService;
+        this.gameSummaryService = gameSummaryService;
     }
 
     @PostMapping("/{roomId}/start")
@@ -31,12 +46,25 @@ public class GameController {
         return ResponseEntity.ok(gameService.getState(roomId));
     }
 
+    @PostMapping("/states")
+    public ResponseEntity<StreamingResponseBody> getGameStates(@RequestBody BulkStateRequest request) {
+        List<String> roomIds = gameSummaryService.checkRoomIds(request.roomIds());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> gameSummaryService.writeSummaries(roomIds, out));
+    }
+
     @GetMapping("/{roomId}/history")
     public ResponseEntity<MoveHistoryResponse> getMoveHistory(@PathVariable String roomId,
                                                                @RequestParam(defaultValue = "0") int page) {
         return ResponseEntity.ok(gameService.getMoveHistory(roomId, page));
     }
 
+    @GetMapping("/{roomId}/analysis")
+    public CompletableFuture<ResponseEntity<AnalysisResponse>> getAnalysis(@PathVariable String roomId) {
+        return analysisService.analyze(roomId).thenApply(ResponseEntity::ok);
+    }
+
     @PostMapping("/{roomId}/resign")
     public ResponseEntity<GameStateResponse> resign(@PathVariable String roomId,
                                                      @RequestParam String playerId) {
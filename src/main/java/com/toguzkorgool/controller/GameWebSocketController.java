@@ -7,31 +7,65 @@ import com.toguzkorgool.dto.request.MoveMessage;
 import com.toguzkorgool.dto.request.NewGameMessage;
 import com.toguzkorgool.dto.request.NewGameResponseMessage;
 import com.toguzkorgool.dto.request.ResignMessage;
+import com.toguzkorgool.dto.request.UndoRequestMessage;
+import com.toguzkorgool.dto.request.UndoResponseMessage;
 import com.toguzkorgool.dto.response.DrawEventMessage;
 import com.toguzkorgool.dto.response.ErrorMessage;
 import com.toguzkorgool.dto.response.NewGameEventMessage;
+import com.toguzkorgool.metrics.GameMetrics;
+import com.toguzkorgool.service.ChatService;
+import com.toguzkorgool.service.ClusterService;
+import com.toguzkorgool.service.GameBroadcaster;
 import com.toguzkorgool.service.GameService;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
 
+/**
+ * STOMP commands. In cluster mode, commands that change a room run on the node that owns it and are
+ * forwarded there if they arrive elsewhere; announcements such as offers only broadcast, which reaches
+ * every node, so they run where they arrive. Chat goes to the owner, which keeps the room's history.
+ */
 @Controller
 public class GameWebSocketController {
 
     private final GameService gameService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GameBroadcaster broadcaster;
+    private final GameMetrics metrics;
+    private final ClusterService cluster;
+    private final ChatService chatService;
 
-    public GameWebSocketController(GameService gameService, SimpMessagingTemplate messagingTemplate) {
+    public GameWebSocketController(GameService gameService, GameBroadcaster broadcaster,
+                                   GameMetrics metrics, ClusterService cluster, ChatService chatService) {
         this.gameService = gameService;
-        this.messagingTemplate = messagingTemplate;
+        this.chatService = chatService;
+        this.broadcaster = broadcaster;
+        this.metrics = metrics;
+        this.cluster = cluster;
+        cluster.register("game.move", MoveMessage.class, this::move);
+        cluster.register("game.draw.response", DrawResponseMessage.class, this::drawResponse);
+        cluster.register("game.undo.request", UndoRequestMessage.class, this::undoRequest);
+        cluster.register("game.undo.response", UndoResponseMessage.class, this::undoResponse);
+        cluster.register("game.resign", ResignMessage.class, this::resign);
+        cluster.register("game.new.response", NewGameResponseMessage.class, this::newGameResponse);
+        cluster.register("game.chat", ChatMessage.class, this::chat);
     }
 
     @MessageMapping("/game.move")
     public void handleMove(MoveMessage message, Principal principal) {
+        metrics.inbound("game.move");
+        if (cluster.forward(message.roomId(), "game.move", message, principal)) return;
+        move(message, principal);
+    }
+
+    private void move(MoveMessage message, Principal principal) {
         try {
-            gameService.makeMove(message.roomId(), message.playerId(), message.holeIndex());
+            GameService.MoveResult result = gameService.submitMove(message.roomId(), message.playerId(),
+                    message.holeIndex(), message.expectedMoveNumber(), message.clientSeq());
+            if (result.isRejected()) {
+                sendErrorToUser(principal, ErrorMessage.of(result.error()));
+            }
         } catch (Exception e) {
             sendErrorToUser(principal, e.getMessage());
         }
@@ -39,8 +73,9 @@ public class GameWebSocketController {
 
     @MessageMapping("/game.draw.offer")
     public void handleDrawOffer(DrawOfferMessage message, Principal principal) {
+        metrics.inbound("game.draw.offer");
         try {
-            messagingTemplate.convertAndSend("/topic/game/" + message.roomId() + "/draw",
+            broadcaster.send("/topic/game/" + message.roomId() + "/draw",
                     DrawEventMessage.offer(message.playerId()));
         } catch (Exception e) {
             sendErrorToUser(principal, e.getMessage());
@@ -49,8 +84,14 @@ public class GameWebSocketController {
 
     @MessageMapping("/game.draw.response")
     public void handleDrawResponse(DrawResponseMessage message, Principal principal) {
+        metrics.inbound("game.draw.response");
+        if (cluster.forward(message.roomId(), "game.draw.response", message, principal)) return;
+        drawResponse(message, principal);
+    }
+
+    private void drawResponse(DrawResponseMessage message, Principal principal) {
         try {
-            messagingTemplate.convertAndSend("/topic/game/" + message.roomId() + "/draw",
+            broadcaster.send("/topic/game/" + message.roomId() + "/draw",
                     DrawEventMessage.response(message.playerId(), message.accept()));
 
             if (message.accept()) {
@@ -61,8 +102,44 @@ public class GameWebSocketController {
         }
     }
 
+    @MessageMapping("/game.undo.request")
+    public void handleUndoRequest(UndoRequestMessage message, Principal principal) {
+        metrics.inbound("game.undo.request");
+        if (cluster.forward(message.roomId(), "game.undo.request", message, principal)) return;
+        undoRequest(message, principal);
+    }
+
+    private void undoRequest(UndoRequestMessage message, Principal principal) {
+        try {
+            gameService.requestUndo(message.roomId(), message.playerId());
+        } catch (Exception e) {
+            sendErrorToUser(principal, e.getMessage());
+        }
+    }
+
+    @MessageMapping("/game.undo.response")
+    public void handleUndoResponse(UndoResponseMessage message, Principal principal) {
+        metrics.inbound("game.undo.response");
+        if (cluster.forward(message.roomId(), "game.undo.response", message, principal)) return;
+        undoResponse(message, principal);
+    }
+
+    private void undoResponse(UndoResponseMessage message, Principal principal) {
+        try {
+            gameService.respondUndo(message.roomId(), message.playerId(), message.accept());
+        } catch (Exception e) {
+            sendErrorToUser(principal, e.getMessage());
+        }
+    }
+
     @MessageMapping("/game.resign")
     public void handleResign(ResignMessage message, Principal principal) {
+        metrics.inbound("game.resign");
+        if (cluster.forward(message.roomId(), "game.resign", message, principal)) return;
+        resign(message, principal);
+    }
+
+    private void resign(ResignMessage message, Principal principal) {
         try {
             gameService.resign(message.roomId(), message.playerId());
         } catch (Exception e) {
@@ -72,8 +149,9 @@ public class GameWebSocketController {
 
     @MessageMapping("/game.new")
     public void handleNewGameRequest(NewGameMessage message, Principal principal) {
+        metrics.inbound("game.new");
         try {
-            messagingTemplate.convertAndSend("/topic/game/" + message.roomId() + "/new",
+            broadcaster.send("/topic/game/" + message.roomId() + "/new",
                     NewGameEventMessage.request(message.playerId()));
         } catch (Exception e) {
             sendErrorToUser(principal, e.getMessage());
@@ -82,8 +160,14 @@ public class GameWebSocketController {
 
     @MessageMapping("/game.new.response")
     public void handleNewGameResponse(NewGameResponseMessage message, Principal principal) {
+        metrics.inbound("game.new.response");
+        if (cluster.forward(message.roomId(), "game.new.response", message, principal)) return;
+        newGameResponse(message, principal);
+    }
+
+    private void newGameResponse(NewGameResponseMessage message, Principal principal) {
         try {
-            messagingTemplate.convertAndSend("/topic/game/" + message.roomId() + "/new",
+            broadcaster.send("/topic/game/" + message.roomId() + "/new",
                     NewGameEventMessage.response(message.playerId(), message.accept()));
 
             if (message.accept()) {
@@ -96,8 +180,14 @@ public class GameWebSocketController {
 
     @MessageMapping("/game.chat")
     public void handleChat(ChatMessage message, Principal principal) {
+        metrics.inbound("game.chat");
+        if (cluster.forward(message.roomId(), "game.chat", message, principal)) return;
+        chat(message, principal);
+    }
+
+    private void chat(ChatMessage message, Principal principal) {
         try {
-            messagingTemplate.convertAndSend("/topic/game/" + message.roomId() + "/chat", message);
+            chatService.post(message);
         } catch (Exception e) {
             sendErrorToUser(principal, e.getMessage());
         }
@@ -105,13 +195,17 @@ public class GameWebSocketController {
 
     @MessageMapping("/game.ready")
     public void handleReady(NewGameMessage message, Principal principal) {
+        metrics.inbound("game.ready");
         // Ready signal acknowledged - game start is handled via REST
     }
 
     private void sendErrorToUser(Principal principal, String errorMessage) {
+        sendErrorToUser(principal, new ErrorMessage(errorMessage));
+    }
+
+    private void sendErrorToUser(Principal principal, ErrorMessage errorMessage) {
         if (principal != null) {
-            messagingTemplate.convertAndSendToUser(
-                    principal.getName(), "/queue/errors", new ErrorMessage(errorMessage));
+            broadcaster.sendToUser(principal.getName(), "/queue/errors", errorMessage);
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.toguzkorgool.controller;
+
+import com.toguzkorgool.dto.response.PlayerGamesResponse;
+import com.toguzkorgool.service.GameArchiveService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/players")
+public class PlayerController {
+
+    private final GameArchiveService gameArchiveService;
+
+    public PlayerController(GameArchiveService gameArchiveService) {
+        this.gameArchiveService = gameArchiveService;
+    }
+
+    @GetMapping("/{playerId}/games")
+    public ResponseEntity<PlayerGamesResponse> getGames(@PathVariable String playerId,
+                                                        @RequestParam(required = false) Long before,
+                                                        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(gameArchiveService.getPlayerGames(playerId, before, limit));
+    }
+}
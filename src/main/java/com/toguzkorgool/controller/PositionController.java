@@ -0,0 +1,26 @@
+package com.toguzkorgool.controller;
+
+import com.toguzkorgool.dto.request.PositionSearchRequest;
+import com.toguzkorgool.dto.response.PositionSearchResponse;
+import com.toguzkorgool.service.PositionSearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/positions")
+public class PositionController {
+
+    private final PositionSearchService positionSearchService;
+
+    public PositionController(PositionSearchService positionSearchService) {
+        this.positionSearchService = positionSearchService;
+    }
+
+    @PostMapping("/search")
+    public ResponseEntity<PositionSearchResponse> search(@RequestBody PositionSearchRequest request) {
+        return ResponseEntity.ok(positionSearchService.search(request));
+    }
+}
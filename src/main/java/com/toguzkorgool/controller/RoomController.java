@@ -2,7 +2,9 @@ package com.toguzkorgool.controller;
 
 import com.toguzkorgool.dto.request.CreateRoomRequest;
 import com.toguzkorgool.dto.request.JoinRoomRequest;
+import com.toguzkorgool.dto.response.ChatHistoryResponse;
 import com.toguzkorgool.dto.response.RoomResponse;
+import com.toguzkorgool.service.ChatService;
 import com.toguzkorgool.service.RoomService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -17,22 +20,25 @@ import org.springframework.web.bind.annotation.RestController;
 public class RoomController {
 
     private final RoomService roomService;
+    private final ChatService chatService;
 
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, ChatService chatService) {
         this.roomService = roomService;
+        this.chatService = chatService;
     }
 
     @PostMapping("/create")
     public ResponseEntity<RoomResponse> createRoom(@RequestBody CreateRoomRequest request) {
         RoomResponse response = roomService.createRoom(
-                request.playerName(), request.roomId(), request.timerSetting(), request.undoEnabled());
+                request.playerName(), request.roomId(), request.timerSetting(), request.undoEnabled(),
+                request.playerId());
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/{roomId}/join")
     public ResponseEntity<RoomResponse> joinRoom(@PathVariable String roomId,
                                                   @RequestBody JoinRoomRequest request) {
-        RoomResponse response = roomService.joinRoom(roomId, request.playerName());
+        RoomResponse response = roomService.joinRoom(roomId, request.playerName(), request.playerId());
         return ResponseEntity.ok(response);
     }
 
@@ -46,4 +52,13 @@ public class RoomController {
     public ResponseEntity<RoomResponse> getRoom(@PathVariable String roomId) {
         return ResponseEntity.ok(roomService.getRoomResponse(roomId));
     }
+
+    /**
+     * Chat history, all of it on joining or the lines after {@code after} when reconnecting.
+     */
+    @GetMapping("/{roomId}/chat")
+    public ResponseEntity<ChatHistoryResponse> getChat(@PathVariable String roomId,
+                                                       @RequestParam(defaultValue = "0") long after) {
+        return ResponseEntity.ok(chatService.getHistory(roomId, after));
+    }
 }
@@ -0,0 +1,31 @@
+package com.toguzkorgool.controller;
+
+import com.toguzkorgool.dto.response.GameStatisticsResponse;
+import com.toguzkorgool.service.GameStatisticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/statistics")
+public class StatisticsController {
+
+    private final GameStatisticsService gameStatisticsService;
+
+    public StatisticsController(GameStatisticsService gameStatisticsService) {
+        this.gameStatisticsService = gameStatisticsService;
+    }
+
+    @GetMapping
+    public ResponseEntity<GameStatisticsResponse> getStatistics() {
+        return ResponseEntity.ok(gameStatisticsService.getStatistics());
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        gameStatisticsService.rebuild();
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.toguzkorgool.controller;
+
+import com.toguzkorgool.dto.request.CreateTournamentRequest;
+import com.toguzkorgool.dto.response.TournamentResponse;
+import com.toguzkorgool.service.TournamentService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tournaments")
+public class TournamentController {
+
+    private final TournamentService tournamentService;
+
+    public TournamentController(TournamentService tournamentService) {
+        this.tournamentService = tournamentService;
+    }
+
+    @PostMapping
+    public ResponseEntity<TournamentResponse> createTournament(@RequestBody CreateTournamentRequest request) {
+        return ResponseEntity.ok(tournamentService.create(request));
+    }
+
+    @PostMapping("/{tournamentId}/start")
+    public ResponseEntity<TournamentResponse> startTournament(@PathVariable String tournamentId) {
+        return ResponseEntity.ok(tournamentService.start(tournamentId));
+    }
+
+    @GetMapping("/{tournamentId}")
+    public ResponseEntity<TournamentResponse> getTournament(@PathVariable String tournamentId) {
+        return ResponseEntity.ok(tournamentService.getResponse(tournamentId));
+    }
+
+    @GetMapping("/{tournamentId}/states")
+    public ResponseEntity<StreamingResponseBody> getRoundStates(@PathVariable String tournamentId) {
+        List<String> roomIds = tournamentService.getRoundRoomIds(tournamentId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> tournamentService.writeRoundStates(roomIds, out));
+    }
+}
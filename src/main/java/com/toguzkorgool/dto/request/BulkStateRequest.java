@@ -0,0 +1,6 @@
+package com.toguzkorgool.dto.request;
+
+import java.util.List;
+
+public record BulkStateRequest(List<String> roomIds) {
+}
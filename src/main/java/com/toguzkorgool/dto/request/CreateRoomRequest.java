@@ -1,4 +1,9 @@
 package com.toguzkorgool.dto.request;
 
-public record CreateRoomRequest(String playerName, String roomId, int timerSetting, boolean undoEnabled) {
+/**
+ * @param playerId optional stable player identity that links this player's games across rooms;
+ *                 a random id is generated when absent
+ */
+public record CreateRoomRequest(String playerName, String roomId, int timerSetting, boolean undoEnabled,
+                                String playerId) {
 }
@@ -0,0 +1,13 @@
+package com.toguzkorgool.dto.request;
+
+import com.toguzkorgool.model.enums.TournamentFormat;
+
+import java.util.List;
+
+/**
+ * @param tournamentId optional; a random id is generated when absent
+ * @param rounds       number of Swiss rounds; a round robin always has one round per opponent
+ */
+public record CreateTournamentRequest(String tournamentId, String name, TournamentFormat format, Integer rounds,
+                                      int timerSetting, List<TournamentEntrant> players) {
+}
@@ -1,4 +1,7 @@
 package com.toguzkorgool.dto.request;
 
-public record JoinRoomRequest(String playerName) {
+/**
+ * @param playerId optional stable player identity, see {@link CreateRoomRequest}
+ */
+public record JoinRoomRequest(String playerName, String playerId) {
 }
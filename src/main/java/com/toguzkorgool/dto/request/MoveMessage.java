@@ -1,4 +1,12 @@
 package com.toguzkorgool.dto.request;
 
-public record MoveMessage(String roomId, String playerId, int holeIndex, long timestamp) {
+/**
+ * @param expectedMoveNumber the move number of the position the move was chosen in; if the game has
+ *                           moved on, the move is rejected instead of being played in another position.
+ *                           Optional.
+ * @param clientSeq          increasing per player; a retried frame with the sequence number of a move
+ *                           already applied is ignored. Optional.
+ */
+public record MoveMessage(String roomId, String playerId, int holeIndex, long timestamp, Integer expectedMoveNumber,
+                          Long clientSeq) {
 }
@@ -0,0 +1,4 @@
+package com.toguzkorgool.dto.request;
+
+public record PositionSearchRequest(int[] holes, int[] kazan, int[] tuz, int side, Integer limit) {
+}
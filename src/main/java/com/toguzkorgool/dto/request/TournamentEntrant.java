@@ -0,0 +1,7 @@
+package com.toguzkorgool.dto.request;
+
+/**
+ * @param bot true for a player whose moves the server's engine makes
+ */
+public record TournamentEntrant(String playerId, String playerName, boolean bot) {
+}
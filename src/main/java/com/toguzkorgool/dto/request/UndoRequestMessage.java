@@ -0,0 +1,4 @@
+package com.toguzkorgool.dto.request;
+
+public record UndoRequestMessage(String roomId, String playerId) {
+}
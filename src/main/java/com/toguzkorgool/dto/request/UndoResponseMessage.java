@@ -0,0 +1,4 @@
+package com.toguzkorgool.dto.request;
+
+public record UndoResponseMessage(String roomId, String playerId, boolean accept) {
+}
@@ -0,0 +1,9 @@
+package com.toguzkorgool.dto.response;
+
+/**
+ * Engine hint for the current position. {@code bestMove} is an absolute hole index (-1 when the game is over),
+ * {@code score} is in stones for the side to move (null for book moves), {@code source} is one of
+ * BOOK, TABLEBASE, SEARCH or GAME_OVER.
+ */
+public record AnalysisResponse(int bestMove, Integer score, int depth, String source) {
+}
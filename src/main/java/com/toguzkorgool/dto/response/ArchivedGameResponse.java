@@ -0,0 +1,13 @@
+package com.toguzkorgool.dto.response;
+
+public record ArchivedGameResponse(
+        long gameId,
+        String roomId,
+        PlayerResponse white,
+        PlayerResponse black,
+        String winner,
+        String reason,
+        int moveCount,
+        long finishedAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.toguzkorgool.dto.response;
+
+import com.toguzkorgool.model.ChatLine;
+
+import java.util.List;
+
+/**
+ * Chat lines sent to a room within one batching window, in order.
+ */
+public record ChatBatchMessage(String roomId, List<ChatLine> lines) {
+}
@@ -0,0 +1,11 @@
+package com.toguzkorgool.dto.response;
+
+import com.toguzkorgool.model.ChatLine;
+
+import java.util.List;
+
+/**
+ * {@code firstSeq} is the oldest line still kept; a client that last saw an earlier one has missed lines.
+ */
+public record ChatHistoryResponse(String roomId, long firstSeq, List<ChatLine> lines) {
+}
@@ -1,4 +1,25 @@
 package com.toguzkorgool.dto.response;
 
-public record ErrorMessage(String error) {
+import com.toguzkorgool.model.enums.MoveError;
+
+/**
+ * {@code code} is set for refused moves, so clients can react without parsing the text.
+ */
+public record ErrorMessage(String error, String code) {
+
+    private static final ErrorMessage[] MOVE_ERRORS = new ErrorMessage[MoveError.values().length];
+
+    static {
+        for (MoveError error : MoveError.values()) {
+            MOVE_ERRORS[error.ordinal()] = new ErrorMessage(error.getMessage(), error.name());
+        }
+    }
+
+    public ErrorMessage(String error) {
+        this(error, null);
+    }
+
+    public static ErrorMessage of(MoveError error) {
+        return MOVE_ERRORS[error.ordinal()];
+    }
 }
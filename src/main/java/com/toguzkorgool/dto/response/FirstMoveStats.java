@@ -0,0 +1,4 @@
+package com.toguzkorgool.dto.response;
+
+public record FirstMoveStats(int hole, long games, long whiteWins, long blackWins, long draws, double whiteWinRate) {
+}
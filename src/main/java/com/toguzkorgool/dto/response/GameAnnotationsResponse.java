@@ -0,0 +1,11 @@
+package com.toguzkorgool.dto.response;
+
+import com.toguzkorgool.model.MoveAnnotation;
+
+import java.util.List;
+
+/**
+ * {@code status} is DONE with the annotations, or PENDING while the game is still being analysed.
+ */
+public record GameAnnotationsResponse(long gameId, String status, List<MoveAnnotation> moves) {
+}
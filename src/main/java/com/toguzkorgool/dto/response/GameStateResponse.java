@@ -15,6 +15,7 @@ public record GameStateResponse(
         double blackTimeRemaining,
         boolean timerEnabled,
         boolean undoEnabled,
-        Long lastMoveTime
+        Long lastMoveTime,
+        Integer pausedBy
 ) {
 }
@@ -0,0 +1,9 @@
+package com.toguzkorgool.dto.response;
+
+import java.util.List;
+
+public record GameStatisticsResponse(long games, double averagePlies, double capturesPerGame,
+                                     double capturedStonesPerGame, double tuzPerGame, double tuzGameShare,
+                                     List<FirstMoveStats> firstMoves, List<TerminationStats> terminations,
+                                     List<LengthBucket> lengths, boolean rebuilding) {
+}
@@ -0,0 +1,6 @@
+package com.toguzkorgool.dto.response;
+
+import java.util.List;
+
+public record ImportResponse(long imported, long rejected, List<ImportError> errors) {
+}
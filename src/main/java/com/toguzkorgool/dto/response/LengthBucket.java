@@ -0,0 +1,4 @@
+package com.toguzkorgool.dto.response;
+
+public record LengthBucket(int fromPly, Integer toPly, long games) {
+}
@@ -0,0 +1,7 @@
+package com.toguzkorgool.dto.response;
+
+/**
+ * @param result {@code 1-0}, {@code 0-1}, {@code 1/2-1/2}, {@code *} while playing, or {@code BYE}
+ */
+public record PairingResponse(int board, String roomId, String whiteId, String blackId, String result) {
+}
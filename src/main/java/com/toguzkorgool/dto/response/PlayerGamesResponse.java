@@ -0,0 +1,9 @@
+package com.toguzkorgool.dto.response;
+
+import java.util.List;
+
+/**
+ * @param nextCursor value for {@code before} to fetch the next page, or null on the last page
+ */
+public record PlayerGamesResponse(List<ArchivedGameResponse> games, Long nextCursor) {
+}
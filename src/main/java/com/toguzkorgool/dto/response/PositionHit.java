@@ -0,0 +1,4 @@
+package com.toguzkorgool.dto.response;
+
+public record PositionHit(long gameId, int ply) {
+}
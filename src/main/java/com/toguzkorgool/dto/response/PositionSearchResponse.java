@@ -0,0 +1,6 @@
+package com.toguzkorgool.dto.response;
+
+import java.util.List;
+
+public record PositionSearchResponse(String hash, long total, List<PositionHit> games) {
+}
@@ -0,0 +1,16 @@
+package com.toguzkorgool.dto.response;
+
+/**
+ * {@code graceDeadline} is set when a player in a running game goes offline: the epoch milliseconds at
+ * which the game is forfeited or paused unless they are back.
+ */
+public record PresenceEventMessage(String type, String playerId, String status, Long graceDeadline) {
+
+    public static PresenceEventMessage online(String playerId) {
+        return new PresenceEventMessage("PRESENCE", playerId, "ONLINE", null);
+    }
+
+    public static PresenceEventMessage offline(String playerId, Long graceDeadline) {
+        return new PresenceEventMessage("PRESENCE", playerId, "OFFLINE", graceDeadline);
+    }
+}
@@ -0,0 +1,5 @@
+package com.toguzkorgool.dto.response;
+
+public record ReplayFrame(int moveNumber, int player, int holeIndex, String description,
+                          int[] holes, int[] kazan, int[] tuz) {
+}
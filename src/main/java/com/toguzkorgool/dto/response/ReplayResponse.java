@@ -0,0 +1,6 @@
+package com.toguzkorgool.dto.response;
+
+import java.util.List;
+
+public record ReplayResponse(ArchivedGameResponse game, List<ReplayFrame> frames) {
+}
@@ -0,0 +1,5 @@
+package com.toguzkorgool.dto.response;
+
+public record StandingResponse(int rank, String playerId, String playerName, boolean bot, double points,
+                               int wins, int draws, int losses) {
+}
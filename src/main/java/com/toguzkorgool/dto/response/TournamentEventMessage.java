@@ -0,0 +1,4 @@
+package com.toguzkorgool.dto.response;
+
+public record TournamentEventMessage(String type, int round, int boards) {
+}
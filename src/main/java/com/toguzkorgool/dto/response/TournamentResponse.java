@@ -0,0 +1,18 @@
+package com.toguzkorgool.dto.response;
+
+import java.util.List;
+
+/**
+ * @param pairings the boards of the current round
+ */
+public record TournamentResponse(
+        String tournamentId,
+        String name,
+        String format,
+        String status,
+        int round,
+        int totalRounds,
+        List<StandingResponse> standings,
+        List<PairingResponse> pairings
+) {
+}
@@ -0,0 +1,18 @@
+package com.toguzkorgool.dto.response;
+
+/**
+ * Payload of an {@code UNDO} game event: only what the takeback changed. {@code holes} and
+ * {@code counts} are parallel, giving the restored count of each hole the move had touched.
+ * Clock fields are null when the game is untimed.
+ */
+public record UndoDelta(
+        int moveNumber,
+        int currentPlayer,
+        int[] holes,
+        int[] counts,
+        int[] kazan,
+        int[] tuz,
+        Double whiteTimeRemaining,
+        Double blackTimeRemaining
+) {
+}
@@ -0,0 +1,12 @@
+package com.toguzkorgool.dto.response;
+
+public record UndoEventMessage(String type, String from, Integer moveNumber, Boolean accept) {
+
+    public static UndoEventMessage request(String from, int moveNumber) {
+        return new UndoEventMessage("UNDO_REQUEST", from, moveNumber, null);
+    }
+
+    public static UndoEventMessage response(String from, boolean accept) {
+        return new UndoEventMessage("UNDO_RESPONSE", from, null, accept);
+    }
+}
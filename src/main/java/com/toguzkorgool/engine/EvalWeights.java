@@ -0,0 +1,81 @@
+package com.toguzkorgool.engine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Weights of the handcrafted evaluation, in hundredths of a stone per feature unit.
+ * Features are differences between the side to move and the opponent:
+ * kazan margin, tuz owned, non-empty holes (mobility) and stones on own side (stones in hand).
+ * The defaults reproduce a plain kazan-difference evaluation.
+ */
+public record EvalWeights(int kazanMargin, int tuz, int mobility, int stonesInHand) {
+
+    public static final int FEATURES = 4;
+    public static final int SCALE = 100;
+
+    public static final EvalWeights DEFAULT = new EvalWeights(SCALE, 0, 0, 0);
+
+    public static EvalWeights of(int[] weights) {
+        return new EvalWeights(weights[0], weights[1], weights[2], weights[3]);
+    }
+
+    public int[] toArray() {
+        return new int[]{kazanMargin, tuz, mobility, stonesInHand};
+    }
+
+    /**
+     * Writes the feature values of {@code position}, from the side to move's point of view, into {@code out}.
+     */
+    public static void features(Position position, int[] out) {
+        int us = position.sideToMove();
+        int them = 1 - us;
+        out[0] = position.kazan(us) - position.kazan(them);
+        out[1] = (position.tuz(us) >= 0 ? 1 : 0) - (position.tuz(them) >= 0 ? 1 : 0);
+
+        int mobility = 0;
+        int stones = 0;
+        for (int i = 0; i < HOLES_PER_PLAYER; i++) {
+            int own = position.hole(us * HOLES_PER_PLAYER + i);
+            int opponent = position.hole(them * HOLES_PER_PLAYER + i);
+            mobility += (own > 0 ? 1 : 0) - (opponent > 0 ? 1 : 0);
+            stones += own - opponent;
+        }
+        out[2] = mobility;
+        out[3] = stones;
+    }
+
+    public static EvalWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return new EvalWeights(
+                read(properties, "kazanMargin", DEFAULT.kazanMargin()),
+                read(properties, "tuz", DEFAULT.tuz()),
+                read(properties, "mobility", DEFAULT.mobility()),
+                read(properties, "stonesInHand", DEFAULT.stonesInHand()));
+    }
+
+    public void write(Path file, String comment) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("kazanMargin", String.valueOf(kazanMargin));
+        properties.setProperty("tuz", String.valueOf(tuz));
+        properties.setProperty("mobility", String.valueOf(mobility));
+        properties.setProperty("stonesInHand", String.valueOf(stonesInHand));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    private static int read(Properties properties, String key, int fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : Integer.parseInt(value.trim());
+    }
+}
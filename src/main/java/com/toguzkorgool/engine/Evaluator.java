@@ -0,0 +1,26 @@
+package com.toguzkorgool.engine;
+
+/**
+ * Static evaluation used at search leaves, in stones, from the point of view of the side to move.
+ * Stateful evaluators can follow the search through the move hooks; stateless ones ignore them.
+ */
+@FunctionalInterface
+public interface Evaluator {
+
+    Evaluator KAZAN_DIFFERENCE = position ->
+            position.kazan(position.sideToMove()) - position.kazan(1 - position.sideToMove());
+
+    int evaluate(Position position);
+
+    /** Called when a search starts from {@code root}. */
+    default void reset(Position root) {
+    }
+
+    /** Called after {@link Position#make(int)}, with the position after the move. */
+    default void onMake(Position position) {
+    }
+
+    /** Called after {@link Position#unmake()}. */
+    default void onUnmake() {
+    }
+}
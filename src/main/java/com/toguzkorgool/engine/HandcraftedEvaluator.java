@@ -0,0 +1,25 @@
+package com.toguzkorgool.engine;
+
+/**
+ * Linear evaluation over the {@link EvalWeights} features. Weights are tuned offline by the Texel tuner.
+ * Not thread-safe: one instance per search.
+ */
+public final class HandcraftedEvaluator implements Evaluator {
+
+    private final int[] weights;
+    private final int[] features = new int[EvalWeights.FEATURES];
+
+    public HandcraftedEvaluator(EvalWeights weights) {
+        this.weights = weights.toArray();
+    }
+
+    @Override
+    public int evaluate(Position position) {
+        EvalWeights.features(position, features);
+        int score = 0;
+        for (int i = 0; i < EvalWeights.FEATURES; i++) {
+            score += weights[i] * features[i];
+        }
+        return score / EvalWeights.SCALE;
+    }
+}
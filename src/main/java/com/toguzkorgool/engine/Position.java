@@ -0,0 +1,157 @@
+package com.toguzkorgool.engine;
+
+import com.toguzkorgool.model.GameState;
+
+import java.util.Arrays;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.ONGOING;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+
+/**
+ * Mutable board for search-style code (tablebase, book, analysis).
+ * Moves are applied with {@link #make(int)} and taken back with {@link #unmake()};
+ * each make pushes a fixed-size snapshot, so unmake is a constant-size copy.
+ * Not thread-safe: every worker owns its own Position.
+ */
+public final class Position {
+
+    private static final int SNAPSHOT_SIZE = TOTAL_HOLES + 6;
+
+    private final int[] holes = new int[TOTAL_HOLES];
+    private final int[] kazan = new int[2];
+    private final int[] tuz = {-1, -1};
+    private int sideToMove;
+    private int result = ONGOING;
+
+    private int[] undoStack = new int[SNAPSHOT_SIZE * 64];
+    private int ply;
+
+    public static Position initial() {
+        Position position = new Position();
+        Arrays.fill(position.holes, 9);
+        return position;
+    }
+
+    public static Position of(GameState state) {
+        Position position = new Position();
+        position.set(state.getHoles(), state.getKazan(), state.getTuz(), state.getCurrentPlayer().getIndex());
+        return position;
+    }
+
+    public void set(int[] holes, int[] kazan, int[] tuz, int sideToMove) {
+        System.arraycopy(holes, 0, this.holes, 0, TOTAL_HOLES);
+        this.kazan[0] = kazan[0];
+        this.kazan[1] = kazan[1];
+        this.tuz[0] = tuz[0];
+        this.tuz[1] = tuz[1];
+        this.sideToMove = sideToMove;
+        this.result = ONGOING;
+        this.ply = 0;
+    }
+
+    public Position copy() {
+        Position copy = new Position();
+        copy.set(holes, kazan, tuz, sideToMove);
+        copy.result = result;
+        return copy;
+    }
+
+    /**
+     * Plays a legal move for the side to move.
+     *
+     * @return the sow summary from {@link ToguzKorgoolEngine#sow}
+     */
+    public int make(int holeIndex) {
+        push();
+        int summary = ToguzKorgoolEngine.sow(holes, kazan, tuz, sideToMove, holeIndex);
+        result = ToguzKorgoolEngine.settle(holes, kazan);
+        sideToMove = 1 - sideToMove;
+        return summary;
+    }
+
+    public void unmake() {
+        int base = --ply * SNAPSHOT_SIZE;
+        System.arraycopy(undoStack, base, holes, 0, TOTAL_HOLES);
+        kazan[0] = undoStack[base + TOTAL_HOLES];
+        kazan[1] = undoStack[base + TOTAL_HOLES + 1];
+        tuz[0] = undoStack[base + TOTAL_HOLES + 2];
+        tuz[1] = undoStack[base + TOTAL_HOLES + 3];
+        sideToMove = undoStack[base + TOTAL_HOLES + 4];
+        result = undoStack[base + TOTAL_HOLES + 5];
+    }
+
+    private void push() {
+        int base = ply++ * SNAPSHOT_SIZE;
+        if (base + SNAPSHOT_SIZE > undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+        }
+        System.arraycopy(holes, 0, undoStack, base, TOTAL_HOLES);
+        undoStack[base + TOTAL_HOLES] = kazan[0];
+        undoStack[base + TOTAL_HOLES + 1] = kazan[1];
+        undoStack[base + TOTAL_HOLES + 2] = tuz[0];
+        undoStack[base + TOTAL_HOLES + 3] = tuz[1];
+        undoStack[base + TOTAL_HOLES + 4] = sideToMove;
+        undoStack[base + TOTAL_HOLES + 5] = result;
+    }
+
+    /**
+     * Writes the legal moves of the side to move into {@code out} (at least 9 long).
+     *
+     * @return the number of moves written
+     */
+    public int generateMoves(int[] out) {
+        if (result != ONGOING) return 0;
+        int count = 0;
+        int start = sideToMove * HOLES_PER_PLAYER;
+        for (int i = start; i < start + HOLES_PER_PLAYER; i++) {
+            if (holes[i] > 0) {
+                out[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    public boolean isLegal(int holeIndex) {
+        return result == ONGOING && ToguzKorgoolEngine.isLegal(holes, sideToMove, holeIndex);
+    }
+
+    public int boardStones() {
+        int sum = 0;
+        for (int count : holes) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    public int hole(int index) {
+        return holes[index];
+    }
+
+    public int kazan(int sideIdx) {
+        return kazan[sideIdx];
+    }
+
+    public int tuz(int sideIdx) {
+        return tuz[sideIdx];
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * @return {@link ToguzKorgoolEngine#ONGOING} or the final result code
+     */
+    public int result() {
+        return result;
+    }
+
+    public boolean isTerminal() {
+        return result != ONGOING;
+    }
+
+    public long hash() {
+        return Zobrist.hash(holes, kazan, tuz, sideToMove);
+    }
+}
@@ -0,0 +1,171 @@
+package com.toguzkorgool.engine;
+
+import com.toguzkorgool.engine.tablebase.Tablebase;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Iterative-deepening alpha-beta search with a small transposition table.
+ * Leaves are scored by an {@link Evaluator}; positions covered by the tablebase are scored exactly.
+ * Not thread-safe: one instance per worker thread.
+ */
+public final class Search {
+
+    public static final int WIN_VALUE = 100_000;
+    private static final int TABLEBASE_WIN = WIN_VALUE - 200;
+    private static final int PROVEN_VALUE = WIN_VALUE - 400;
+    private static final int INFINITY = WIN_VALUE + 1;
+    private static final int MAX_PLY = 128;
+
+    private static final int TT_EXACT = 0;
+    private static final int TT_LOWER = 1;
+    private static final int TT_UPPER = 2;
+
+    private final Evaluator evaluator;
+    private final Tablebase tablebase;
+    private final long[] ttKeys;
+    private final long[] ttData;
+    private final int ttMask;
+    private final int[][] moveBuffers = new int[MAX_PLY][HOLES_PER_PLAYER];
+
+    private Position position;
+    private long nodes;
+    private long deadline;
+    private boolean canStop;
+    private boolean stopped;
+    private int rootBestMove;
+
+    public Search(Evaluator evaluator, Tablebase tablebase) {
+        this(evaluator, tablebase, 16);
+    }
+
+    public Search(Evaluator evaluator, Tablebase tablebase, int ttSizeLog2) {
+        this.evaluator = evaluator;
+        this.tablebase = tablebase;
+        this.ttKeys = new long[1 << ttSizeLog2];
+        this.ttData = new long[1 << ttSizeLog2];
+        this.ttMask = (1 << ttSizeLog2) - 1;
+    }
+
+    public static boolean isProven(int score) {
+        return Math.abs(score) >= PROVEN_VALUE;
+    }
+
+    /**
+     * Searches {@code root} (left unchanged) until {@code maxDepth} is completed or the time limit runs out.
+     * The first iteration always completes, so a legal move is returned whenever one exists.
+     */
+    public SearchResult search(Position root, int maxDepth, long timeLimitMillis) {
+        position = root.copy();
+        nodes = 0;
+        deadline = System.nanoTime() + timeLimitMillis * 1_000_000;
+        stopped = false;
+        canStop = false;
+
+        if (position.isTerminal()) {
+            return new SearchResult(-1, terminalScore(0), 0, 0);
+        }
+        evaluator.reset(position);
+
+        SearchResult result = null;
+        int depthLimit = Math.max(1, Math.min(maxDepth, MAX_PLY - 1));
+        for (int depth = 1; depth <= depthLimit; depth++) {
+            rootBestMove = -1;
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (stopped) break;
+
+            result = new SearchResult(rootBestMove, score, depth, nodes);
+            canStop = true;
+            if (isProven(score)) break;
+        }
+        return result;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if (canStop && (nodes & 1023) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        if (stopped) return 0;
+
+        if (position.isTerminal()) return terminalScore(ply);
+        if (ply > 0) {
+            int wdl = tablebase.probe(position);
+            if (wdl == Tablebase.WIN) return TABLEBASE_WIN - ply;
+            if (wdl == Tablebase.LOSS) return -(TABLEBASE_WIN - ply);
+            if (wdl == Tablebase.DRAW) return 0;
+        }
+        if (depth == 0 || ply >= MAX_PLY - 1) return evaluator.evaluate(position);
+
+        long key = position.hash();
+        int slot = (int) key & ttMask;
+        int ttMove = -1;
+        if (ttKeys[slot] == key) {
+            long data = ttData[slot];
+            ttMove = (int) (data & 0x1F);
+            int ttFlag = (int) (data >>> 5) & 0x3;
+            int ttDepth = (int) (data >>> 7) & 0xFF;
+            int ttScore = fromTable((int) (data >>> 32), ply);
+            if (ply > 0 && ttDepth >= depth) {
+                if (ttFlag == TT_EXACT) return ttScore;
+                if (ttFlag == TT_LOWER && ttScore >= beta) return ttScore;
+                if (ttFlag == TT_UPPER && ttScore <= alpha) return ttScore;
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = position.generateMoves(moves);
+        for (int i = 1; i < count; i++) {
+            if (moves[i] == ttMove) {
+                moves[i] = moves[0];
+                moves[0] = ttMove;
+                break;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            position.make(moves[i]);
+            evaluator.onMake(position);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            position.unmake();
+            evaluator.onUnmake();
+            if (stopped) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = moves[i];
+                if (ply == 0) rootBestMove = bestMove;
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) break;
+        }
+
+        int flag = best <= originalAlpha ? TT_UPPER : best >= beta ? TT_LOWER : TT_EXACT;
+        ttKeys[slot] = key;
+        ttData[slot] = ((long) toTable(best, ply) << 32) | ((long) depth << 7) | ((long) flag << 5) | bestMove;
+        return best;
+    }
+
+    private int terminalScore(int ply) {
+        int result = position.result();
+        if (result == ToguzKorgoolEngine.DRAW) return 0;
+        // The side to move is the one that did not make the final move
+        return result == position.sideToMove() ? WIN_VALUE - ply : -(WIN_VALUE - ply);
+    }
+
+    /** Proven scores are stored relative to the node so they stay valid at any ply. */
+    private static int toTable(int score, int ply) {
+        if (score >= PROVEN_VALUE) return score + ply;
+        if (score <= -PROVEN_VALUE) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= PROVEN_VALUE) return score - ply;
+        if (score <= -PROVEN_VALUE) return score + ply;
+        return score;
+    }
+}
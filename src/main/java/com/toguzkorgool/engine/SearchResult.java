@@ -0,0 +1,8 @@
+package com.toguzkorgool.engine;
+
+/**
+ * Outcome of a {@link Search}: the best root move, its score from the side to move's point of view,
+ * the deepest fully searched depth and the number of nodes visited.
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes) {
+}
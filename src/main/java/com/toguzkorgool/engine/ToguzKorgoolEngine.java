@@ -2,6 +2,7 @@ package com.toguzkorgool.engine;
 
 import com.toguzkorgool.exception.InvalidMoveException;
 import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.enums.MoveError;
 import com.toguzkorgool.model.enums.PlayerSide;
 
 /**
@@ -11,12 +12,23 @@ import com.toguzkorgool.model.enums.PlayerSide;
  */
 public class ToguzKorgoolEngine {
 
-    private static final int HOLES_PER_PLAYER = 9;
-    private static final int TOTAL_HOLES = 18;
-    private static final int WIN_SCORE = 82;
-    private static final int DRAW_SCORE = 81;
+    public static final int HOLES_PER_PLAYER = 9;
+    public static final int TOTAL_HOLES = 18;
+    public static final int TOTAL_STONES = 162;
+    public static final int WIN_SCORE = 82;
+    public static final int DRAW_SCORE = 81;
     private static final int TUZ_TRIGGER = 3;
 
+    /** Results returned by {@link #settle}; the win codes match {@link PlayerSide#getIndex()}. */
+    public static final int ONGOING = -1;
+    public static final int WHITE_WINS = 0;
+    public static final int BLACK_WINS = 1;
+    public static final int DRAW = 2;
+
+    private static final int SUMMARY_HOLE_MASK = 0x1F;
+    private static final int SUMMARY_TUZ_FLAG = 1 << 5;
+    private static final int SUMMARY_CAPTURE_SHIFT = 8;
+
     /**
      * Validates and executes a move.
      *
@@ -28,18 +40,45 @@ public class ToguzKorgoolEngine {
     public static String makeMove(GameState state, PlayerSide side, int holeIndex) {
         validateMove(state, side, holeIndex);
 
-        int[] holes = state.getHoles();
-        int[] kazan = state.getKazan();
-        int[] tuz = state.getTuz();
-        int sideIdx = side.getIndex();
-        int opponentIdx = side.opponent().getIndex();
-
-        int stones = holes[holeIndex];
-        holes[holeIndex] = 0;
+        int summary = sow(state.getHoles(), state.getKazan(), state.getTuz(), side.getIndex(), holeIndex);
 
         StringBuilder desc = new StringBuilder();
         desc.append(side == PlayerSide.WHITE ? "White" : "Black")
                 .append(" moves from hole ").append(relativeHoleNumber(side, holeIndex));
+        if (isTuzDeclared(summary)) {
+            desc.append(" [Tuz declared at hole ").append(lastHole(summary)).append("]");
+        }
+        if (captured(summary) > 0) {
+            desc.append(" [Captured ").append(captured(summary)).append(" stones]");
+        }
+
+        // Check atsyroo (opponent has no stones) and win condition
+        int result = settle(state.getHoles(), state.getKazan());
+        if (result != ONGOING) {
+            state.setGameOver(true);
+            state.setWinner(winnerOf(result));
+        }
+
+        // Switch turn if game not over
+        if (!state.isGameOver()) {
+            state.setCurrentPlayer(side.opponent());
+        }
+
+        state.setMoveNumber(state.getMoveNumber() + 1);
+
+        return desc.toString();
+    }
+
+    /**
+     * Sows the stones of one hole on raw board arrays, applying tuz declaration and capture.
+     * Does not check atsyroo or the win condition; call {@link #settle} afterwards.
+     * Used directly by search and tablebase code to avoid going through GameState.
+     *
+     * @return a packed summary, decoded with {@link #lastHole}, {@link #isTuzDeclared} and {@link #captured}
+     */
+    public static int sow(int[] holes, int[] kazan, int[] tuz, int sideIdx, int holeIndex) {
+        int stones = holes[holeIndex];
+        holes[holeIndex] = 0;
 
         int currentPos;
         if (stones == 1) {
@@ -58,47 +97,92 @@ public class ToguzKorgoolEngine {
         }
 
         // Check tuz declaration (automatic)
-        boolean tuzDeclared = checkAndDeclareTuz(state, side, currentPos);
-        if (tuzDeclared) {
-            desc.append(" [Tuz declared at hole ").append(currentPos).append("]");
-        }
+        boolean tuzDeclared = checkAndDeclareTuz(holes, kazan, tuz, sideIdx, currentPos);
 
         // Check capture: last stone lands in opponent's hole and makes even count
-        if (isOpponentHole(side, currentPos) && !isTuz(tuz, currentPos) && holes[currentPos] % 2 == 0) {
-            int captured = holes[currentPos];
+        int captured = 0;
+        if (!isOwnHole(sideIdx, currentPos) && !isTuz(tuz, currentPos) && holes[currentPos] % 2 == 0) {
+            captured = holes[currentPos];
             holes[currentPos] = 0;
             kazan[sideIdx] += captured;
-            desc.append(" [Captured ").append(captured).append(" stones]");
         }
 
-        // Check atsyroo (opponent has no stones)
-        checkAtsyroo(state);
+        return currentPos | (tuzDeclared ? SUMMARY_TUZ_FLAG : 0) | (captured << SUMMARY_CAPTURE_SHIFT);
+    }
 
-        // Check win condition
-        checkWinCondition(state);
+    /**
+     * Applies the end-of-move checks: atsyroo collection followed by the score thresholds.
+     *
+     * @return {@link #ONGOING}, {@link #WHITE_WINS}, {@link #BLACK_WINS} or {@link #DRAW}
+     */
+    public static int settle(int[] holes, int[] kazan) {
+        // Check if either player has no stones in their holes
+        for (int side = 0; side < 2; side++) {
+            if (sideStones(holes, side) == 0) {
+                // The player with no stones: opponent collects all remaining
+                int opponent = 1 - side;
+                int oppStart = opponent * HOLES_PER_PLAYER;
+                for (int i = oppStart; i < oppStart + HOLES_PER_PLAYER; i++) {
+                    kazan[opponent] += holes[i];
+                    holes[i] = 0;
+                }
+                return compareKazans(kazan);
+            }
+        }
 
-        // Switch turn if game not over
-        if (!state.isGameOver()) {
-            state.setCurrentPlayer(side.opponent());
+        if (kazan[0] >= WIN_SCORE) return WHITE_WINS;
+        if (kazan[1] >= WIN_SCORE) return BLACK_WINS;
+        if (kazan[0] == DRAW_SCORE && kazan[1] == DRAW_SCORE) return DRAW;
+        return ONGOING;
+    }
+
+    public static boolean isLegal(int[] holes, int sideIdx, int holeIndex) {
+        return isOwnHole(sideIdx, holeIndex) && holes[holeIndex] > 0;
+    }
+
+    public static int sideStones(int[] holes, int sideIdx) {
+        int start = sideIdx * HOLES_PER_PLAYER;
+        int sum = 0;
+        for (int i = start; i < start + HOLES_PER_PLAYER; i++) {
+            sum += holes[i];
         }
+        return sum;
+    }
 
-        state.setMoveNumber(state.getMoveNumber() + 1);
+    public static int lastHole(int summary) {
+        return summary & SUMMARY_HOLE_MASK;
+    }
 
-        return desc.toString();
+    public static boolean isTuzDeclared(int summary) {
+        return (summary & SUMMARY_TUZ_FLAG) != 0;
+    }
+
+    public static int captured(int summary) {
+        return summary >>> SUMMARY_CAPTURE_SHIFT;
+    }
+
+    /**
+     * Maps a {@link #settle} result to the winner string stored in GameState.
+     */
+    public static String winnerOf(int result) {
+        return result == DRAW ? "DRAW" : String.valueOf(result);
+    }
+
+    /**
+     * @return why the move is illegal, or null if it is legal
+     */
+    public static MoveError checkMove(GameState state, PlayerSide side, int holeIndex) {
+        if (state.isGameOver()) return MoveError.GAME_OVER;
+        if (state.getCurrentPlayer() != side) return MoveError.NOT_YOUR_TURN;
+        if (!isOwnHole(side.getIndex(), holeIndex)) return MoveError.NOT_YOUR_HOLE;
+        if (state.getHoles()[holeIndex] == 0) return MoveError.EMPTY_HOLE;
+        return null;
     }
 
     private static void validateMove(GameState state, PlayerSide side, int holeIndex) {
-        if (state.isGameOver()) {
-            throw new InvalidMoveException("Game is already over");
-        }
-        if (state.getCurrentPlayer() != side) {
-            throw new InvalidMoveException("It is not your turn");
-        }
-        if (!isOwnHole(side, holeIndex)) {
-            throw new InvalidMoveException("You can only move from your own holes");
-        }
-        if (state.getHoles()[holeIndex] == 0) {
-            throw new InvalidMoveException("Cannot move from an empty hole");
+        MoveError error = checkMove(state, side, holeIndex);
+        if (error != null) {
+            throw InvalidMoveException.of(error);
         }
     }
 
@@ -120,25 +204,20 @@ public class ToguzKorgoolEngine {
      * - The player doesn't already have a tuz
      * - It's not symmetric to the opponent's tuz
      */
-    private static boolean checkAndDeclareTuz(GameState state, PlayerSide side, int lastPos) {
-        int[] holes = state.getHoles();
-        int[] tuz = state.getTuz();
-        int[] kazan = state.getKazan();
-        int sideIdx = side.getIndex();
-
-        if (!isOpponentHole(side, lastPos)) return false;
+    private static boolean checkAndDeclareTuz(int[] holes, int[] kazan, int[] tuz, int sideIdx, int lastPos) {
+        if (isOwnHole(sideIdx, lastPos)) return false;
         if (holes[lastPos] != TUZ_TRIGGER) return false;
         if (tuz[sideIdx] != -1) return false; // already has a tuz
 
         // Cannot declare tuz on opponent's 9th hole (index 8 for white's side, 17 for black's side)
-        int opponentNinthHole = (side.opponent() == PlayerSide.WHITE) ? 8 : 17;
+        int opponentIdx = 1 - sideIdx;
+        int opponentNinthHole = opponentIdx * HOLES_PER_PLAYER + HOLES_PER_PLAYER - 1;
         if (lastPos == opponentNinthHole) return false;
 
         // Cannot be symmetric to opponent's tuz
-        int opponentIdx = side.opponent().getIndex();
         if (tuz[opponentIdx] != -1) {
-            int myRelative = relativeIndex(side.opponent(), lastPos);
-            int oppTuzRelative = relativeIndex(side, tuz[opponentIdx]);
+            int myRelative = lastPos - opponentIdx * HOLES_PER_PLAYER;
+            int oppTuzRelative = tuz[opponentIdx] - sideIdx * HOLES_PER_PLAYER;
             if (myRelative == oppTuzRelative) return false;
         }
 
@@ -149,71 +228,17 @@ public class ToguzKorgoolEngine {
         return true;
     }
 
-    private static void checkAtsyroo(GameState state) {
-        int[] holes = state.getHoles();
-        int[] kazan = state.getKazan();
-
-        // Check if either player has no stones in their holes
-        for (int side = 0; side < 2; side++) {
-            int start = side * HOLES_PER_PLAYER;
-            boolean hasStones = false;
-            for (int i = start; i < start + HOLES_PER_PLAYER; i++) {
-                if (holes[i] > 0) {
-                    hasStones = true;
-                    break;
-                }
-            }
-            if (!hasStones) {
-                // The player with no stones: opponent collects all remaining
-                int opponent = 1 - side;
-                int oppStart = opponent * HOLES_PER_PLAYER;
-                for (int i = oppStart; i < oppStart + HOLES_PER_PLAYER; i++) {
-                    kazan[opponent] += holes[i];
-                    holes[i] = 0;
-                }
-                state.setGameOver(true);
-                determineWinner(state);
-                return;
-            }
-        }
+    private static int compareKazans(int[] kazan) {
+        if (kazan[0] > kazan[1]) return WHITE_WINS;
+        if (kazan[1] > kazan[0]) return BLACK_WINS;
+        return DRAW;
     }
 
-    private static void checkWinCondition(GameState state) {
-        if (state.isGameOver()) return;
-        int[] kazan = state.getKazan();
-
-        if (kazan[0] >= WIN_SCORE) {
-            state.setGameOver(true);
-            state.setWinner(String.valueOf(PlayerSide.WHITE.getIndex()));
-        } else if (kazan[1] >= WIN_SCORE) {
-            state.setGameOver(true);
-            state.setWinner(String.valueOf(PlayerSide.BLACK.getIndex()));
-        } else if (kazan[0] == DRAW_SCORE && kazan[1] == DRAW_SCORE) {
-            state.setGameOver(true);
-            state.setWinner("DRAW");
-        }
-    }
-
-    private static void determineWinner(GameState state) {
-        int[] kazan = state.getKazan();
-        if (kazan[0] > kazan[1]) {
-            state.setWinner(String.valueOf(PlayerSide.WHITE.getIndex()));
-        } else if (kazan[1] > kazan[0]) {
-            state.setWinner(String.valueOf(PlayerSide.BLACK.getIndex()));
-        } else {
-            state.setWinner("DRAW");
-        }
-    }
-
-    private static boolean isOwnHole(PlayerSide side, int holeIndex) {
-        int start = side.getIndex() * HOLES_PER_PLAYER;
+    private static boolean isOwnHole(int sideIdx, int holeIndex) {
+        int start = sideIdx * HOLES_PER_PLAYER;
         return holeIndex >= start && holeIndex < start + HOLES_PER_PLAYER;
     }
 
-    private static boolean isOpponentHole(PlayerSide side, int holeIndex) {
-        return !isOwnHole(side, holeIndex);
-    }
-
     private static boolean isTuz(int[] tuz, int position) {
         return tuz[0] == position || tuz[1] == position;
     }
@@ -0,0 +1,53 @@
+package com.toguzkorgool.engine;
+
+import java.util.SplittableRandom;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_STONES;
+
+/**
+ * Zobrist keys for hashing positions over hole counts, kazans, tuz placement and side to move.
+ * The seed is fixed: hashes are written into book and index files and must stay stable across releases.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x546F67757A4B6FL;
+
+    private static final long[][] HOLE_KEYS = new long[TOTAL_HOLES][TOTAL_STONES + 1];
+    private static final long[][] KAZAN_KEYS = new long[2][TOTAL_STONES + 1];
+    private static final long[][] TUZ_KEYS = new long[2][TOTAL_HOLES + 1];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] keys : HOLE_KEYS) {
+            fill(keys, random);
+        }
+        for (long[] keys : KAZAN_KEYS) {
+            fill(keys, random);
+        }
+        for (long[] keys : TUZ_KEYS) {
+            fill(keys, random);
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    private static void fill(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    public static long hash(int[] holes, int[] kazan, int[] tuz, int sideToMove) {
+        long hash = sideToMove == 1 ? BLACK_TO_MOVE : 0;
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            hash ^= HOLE_KEYS[i][holes[i]];
+        }
+        hash ^= KAZAN_KEYS[0][kazan[0]] ^ KAZAN_KEYS[1][kazan[1]];
+        hash ^= TUZ_KEYS[0][tuz[0] + 1] ^ TUZ_KEYS[1][tuz[1] + 1];
+        return hash;
+    }
+}
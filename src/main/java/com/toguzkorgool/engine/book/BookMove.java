@@ -0,0 +1,11 @@
+package com.toguzkorgool.engine.book;
+
+/**
+ * Statistics for one move out of a book position; wins and draws are counted for the side that played it.
+ */
+public record BookMove(int hole, int games, int wins, int draws) {
+
+    public double score() {
+        return games == 0 ? 0 : (wins + draws * 0.5) / games;
+    }
+}
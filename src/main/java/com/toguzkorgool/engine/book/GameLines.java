@@ -0,0 +1,54 @@
+package com.toguzkorgool.engine.book;
+
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+
+/**
+ * Plain one-game-per-line format shared by self-play output and the book builder:
+ * {@code RESULT hole hole hole ...}, where RESULT is {@code 1-0}, {@code 0-1} or {@code 1/2}
+ * and each hole is the absolute index (0-17) played.
+ */
+public final class GameLines {
+
+    private GameLines() {
+    }
+
+    public static String format(int result, int[] moves, int count) {
+        StringBuilder line = new StringBuilder(count * 3 + 4);
+        line.append(switch (result) {
+            case ToguzKorgoolEngine.WHITE_WINS -> "1-0";
+            case ToguzKorgoolEngine.BLACK_WINS -> "0-1";
+            default -> "1/2";
+        });
+        for (int i = 0; i < count; i++) {
+            line.append(' ').append(moves[i]);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Parses a line into {@code moves}.
+     *
+     * @return the number of moves, or -1 if the line is blank or malformed
+     */
+    public static int parse(String line, int[] moves, int[] result) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length < 2) return -1;
+        switch (parts[0]) {
+            case "1-0" -> result[0] = ToguzKorgoolEngine.WHITE_WINS;
+            case "0-1" -> result[0] = ToguzKorgoolEngine.BLACK_WINS;
+            case "1/2" -> result[0] = ToguzKorgoolEngine.DRAW;
+            default -> {
+                return -1;
+            }
+        }
+        int count = Math.min(parts.length - 1, moves.length);
+        try {
+            for (int i = 0; i < count; i++) {
+                moves[i] = Integer.parseInt(parts[i + 1]);
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,108 @@
+package com.toguzkorgool.engine.book;
+
+import com.toguzkorgool.engine.Position;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only opening book produced by {@code OpeningBookBuilder} in the tools source set.
+ * <p>
+ * File format: a 16-byte header ({@code "TKOB"}, version, entry count, max ply) followed by fixed-size
+ * entries {@code (long hash, int hole, int games, int wins, int draws)} sorted by hash, then hole.
+ * The entries stay memory-mapped and are found by binary search, so the book never lives on-heap.
+ * Safe for concurrent lookups.
+ */
+public final class OpeningBook {
+
+    public static final int MAGIC = 0x544B4F42; // "TKOB"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int ENTRY_SIZE = 24;
+
+    private static final OpeningBook EMPTY = new OpeningBook(null, 0);
+
+    private final MappedByteBuffer data;
+    private final int entries;
+
+    private OpeningBook(MappedByteBuffer data, int entries) {
+        this.data = data;
+        this.entries = entries;
+    }
+
+    public static OpeningBook empty() {
+        return EMPTY;
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an opening book file: " + file);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported opening book version " + buffer.getInt(4) + " in " + file);
+            }
+            int entries = buffer.getInt(8);
+            if (channel.size() != HEADER_SIZE + (long) entries * ENTRY_SIZE) {
+                throw new IOException("Truncated opening book " + file);
+            }
+            return new OpeningBook(buffer, entries);
+        }
+    }
+
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * @return every book move for this position, or an empty list if it is out of book
+     */
+    public List<BookMove> lookup(Position position) {
+        if (entries == 0) return List.of();
+        long hash = position.hash();
+        List<BookMove> moves = new ArrayList<>();
+        for (int i = lowerBound(hash); i < entries && hashAt(i) == hash; i++) {
+            int offset = HEADER_SIZE + i * ENTRY_SIZE;
+            moves.add(new BookMove(data.getInt(offset + 8), data.getInt(offset + 12),
+                    data.getInt(offset + 16), data.getInt(offset + 20)));
+        }
+        return moves;
+    }
+
+    /**
+     * @return the best-scoring move played at least {@code minGames} times, or null if there is none
+     */
+    public BookMove best(Position position, int minGames) {
+        BookMove best = null;
+        for (BookMove move : lookup(position)) {
+            if (move.games() >= minGames && (best == null || move.score() > best.score())) {
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    private int lowerBound(long hash) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hashAt(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long hashAt(int index) {
+        return data.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+    }
+}
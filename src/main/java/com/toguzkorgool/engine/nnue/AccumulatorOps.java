@@ -0,0 +1,28 @@
+package com.toguzkorgool.engine.nnue;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lane-wise int16 arithmetic on accumulator rows. The Vector API implementation is used when the
+ * {@code jdk.incubator.vector} module is resolved ({@code --add-modules jdk.incubator.vector}),
+ * otherwise the scalar loops.
+ */
+interface AccumulatorOps {
+
+    /** acc[accOffset + i] += weights[weightOffset + i] for i in [0, length) */
+    void add(short[] acc, int accOffset, short[] weights, int weightOffset, int length);
+
+    /** acc[accOffset + i] -= weights[weightOffset + i] for i in [0, length) */
+    void sub(short[] acc, int accOffset, short[] weights, int weightOffset, int length);
+
+    static AccumulatorOps best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorAccumulatorOps();
+            } catch (LinkageError e) {
+                LoggerFactory.getLogger(AccumulatorOps.class).warn("Vector API unavailable, using scalar NNUE code", e);
+            }
+        }
+        return ScalarAccumulatorOps.INSTANCE;
+    }
+}
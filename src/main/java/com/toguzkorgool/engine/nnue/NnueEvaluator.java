@@ -0,0 +1,129 @@
+package com.toguzkorgool.engine.nnue;
+
+import com.toguzkorgool.engine.Evaluator;
+import com.toguzkorgool.engine.Position;
+
+import static com.toguzkorgool.engine.nnue.NnueNetwork.QA;
+import static com.toguzkorgool.engine.nnue.NnueNetwork.QB;
+import static com.toguzkorgool.engine.nnue.NnueNetwork.SLOTS;
+
+/**
+ * Network evaluator with one accumulator per ply. {@link #onMake} copies the parent accumulator and
+ * only subtracts and adds the weight rows of features that changed (holes the move sowed into,
+ * kazans, tuz), so a move costs a few row updates rather than a full forward pass. Beyond
+ * {@value #MAX_PLY} plies the moves are only counted and positions are evaluated from scratch, so make
+ * and unmake stay paired. Not thread-safe: one instance per search.
+ */
+public final class NnueEvaluator implements Evaluator {
+
+    private static final int MAX_PLY = 256;
+
+    private final NnueNetwork network;
+    private final AccumulatorOps ops;
+    private final int hidden;
+    private final short[][] accumulators;
+    private final int[][] features = new int[MAX_PLY][2 * SLOTS];
+    private final short[] scratch;
+    private final int[] scratchFeatures = new int[2 * SLOTS];
+    private int ply;
+    // Moves made past the last accumulator
+    private int overflow;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this(network, AccumulatorOps.best());
+    }
+
+    NnueEvaluator(NnueNetwork network, AccumulatorOps ops) {
+        this.network = network;
+        this.ops = ops;
+        this.hidden = network.hidden;
+        this.accumulators = new short[MAX_PLY][2 * hidden];
+        this.scratch = new short[2 * hidden];
+    }
+
+    public static NnueEvaluator scalar(NnueNetwork network) {
+        return new NnueEvaluator(network, ScalarAccumulatorOps.INSTANCE);
+    }
+
+    public boolean isVectorized() {
+        return !(ops instanceof ScalarAccumulatorOps);
+    }
+
+    @Override
+    public void reset(Position root) {
+        ply = 0;
+        overflow = 0;
+        refresh(root, accumulators[0], features[0]);
+    }
+
+    @Override
+    public void onMake(Position position) {
+        if (ply + 1 == MAX_PLY) {
+            overflow++;
+            return;
+        }
+        int[] parentFeatures = features[ply];
+        short[] parent = accumulators[ply];
+        ply++;
+        int[] current = features[ply];
+        short[] acc = accumulators[ply];
+        System.arraycopy(parent, 0, acc, 0, acc.length);
+
+        for (int perspective = 0; perspective < 2; perspective++) {
+            int accOffset = perspective * hidden;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                int index = perspective * SLOTS + slot;
+                int feature = NnueNetwork.feature(position, perspective, slot);
+                current[index] = feature;
+                if (feature != parentFeatures[index]) {
+                    ops.sub(acc, accOffset, network.inputWeights, parentFeatures[index] * hidden, hidden);
+                    ops.add(acc, accOffset, network.inputWeights, feature * hidden, hidden);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onUnmake() {
+        if (overflow > 0) {
+            overflow--;
+        } else if (ply > 0) {
+            ply--;
+        }
+    }
+
+    @Override
+    public int evaluate(Position position) {
+        short[] acc = accumulators[ply];
+        if (overflow > 0) {
+            acc = scratch;
+            refresh(position, acc, scratchFeatures);
+        }
+        int us = position.sideToMove() * hidden;
+        int them = (1 - position.sideToMove()) * hidden;
+        byte[] outputWeights = network.outputWeights;
+
+        long sum = network.outputBias;
+        for (int i = 0; i < hidden; i++) {
+            sum += clip(acc[us + i]) * outputWeights[i];
+            sum += clip(acc[them + i]) * outputWeights[hidden + i];
+        }
+        return (int) (sum / (QA * QB));
+    }
+
+    private void refresh(Position position, short[] acc, int[] current) {
+        for (int perspective = 0; perspective < 2; perspective++) {
+            int accOffset = perspective * hidden;
+            System.arraycopy(network.inputBias, 0, acc, accOffset, hidden);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                int feature = NnueNetwork.feature(position, perspective, slot);
+                current[perspective * SLOTS + slot] = feature;
+                ops.add(acc, accOffset, network.inputWeights, feature * hidden, hidden);
+            }
+        }
+    }
+
+    private static int clip(short value) {
+        return Math.max(0, Math.min(QA, value));
+    }
+}
@@ -0,0 +1,126 @@
+package com.toguzkorgool.engine.nnue;
+
+import com.toguzkorgool.engine.Position;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+
+/**
+ * Quantized weights of the evaluation network: a sparse one-hot input layer into an int16 accumulator
+ * per perspective, clipped ReLU, and an int8 output layer over both perspectives (side to move first).
+ * <p>
+ * Each perspective sees the board from its own side: holes are rotated by nine for black and the
+ * kazan and tuz features are ordered own-then-opponent. A perspective has exactly {@link #SLOTS}
+ * active features: one count bucket per hole, one per kazan and one per tuz slot.
+ * <p>
+ * File format (big-endian): {@code "TKNN"}, version, hidden size, int16 input weights
+ * ({@link #INPUTS} rows of hidden size), int16 input bias, int8 output weights (2 x hidden), int32 output bias.
+ */
+public final class NnueNetwork {
+
+    public static final int MAGIC = 0x544B4E4E; // "TKNN"
+    public static final int VERSION = 1;
+
+    static final int HOLE_BUCKETS = 32;
+    static final int KAZAN_BUCKETS = 82;
+    static final int TUZ_BUCKETS = TOTAL_HOLES + 1;
+    static final int KAZAN_BASE = TOTAL_HOLES * HOLE_BUCKETS;
+    static final int TUZ_BASE = KAZAN_BASE + 2 * KAZAN_BUCKETS;
+    public static final int INPUTS = TUZ_BASE + 2 * TUZ_BUCKETS;
+    static final int SLOTS = TOTAL_HOLES + 4;
+
+    /** Clipped ReLU ceiling of the quantized accumulator. */
+    static final int QA = 127;
+    /** Scale of the quantized output weights. */
+    static final int QB = 64;
+
+    final int hidden;
+    final short[] inputWeights;
+    final short[] inputBias;
+    final byte[] outputWeights;
+    final int outputBias;
+
+    NnueNetwork(int hidden, short[] inputWeights, short[] inputBias, byte[] outputWeights, int outputBias) {
+        this.hidden = hidden;
+        this.inputWeights = inputWeights;
+        this.inputBias = inputBias;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    public static NnueNetwork load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a network file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported network version " + version + " in " + file);
+            }
+            int hidden = in.readInt();
+            short[] inputWeights = new short[INPUTS * hidden];
+            for (int i = 0; i < inputWeights.length; i++) {
+                inputWeights[i] = in.readShort();
+            }
+            short[] inputBias = new short[hidden];
+            for (int i = 0; i < hidden; i++) {
+                inputBias[i] = in.readShort();
+            }
+            byte[] outputWeights = new byte[2 * hidden];
+            in.readFully(outputWeights);
+            return new NnueNetwork(hidden, inputWeights, inputBias, outputWeights, in.readInt());
+        }
+    }
+
+    /**
+     * Small random network for benchmarks; its evaluations are meaningless.
+     */
+    public static NnueNetwork random(int hidden, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        short[] inputWeights = new short[INPUTS * hidden];
+        for (int i = 0; i < inputWeights.length; i++) {
+            inputWeights[i] = (short) random.nextInt(-8, 9);
+        }
+        short[] inputBias = new short[hidden];
+        for (int i = 0; i < hidden; i++) {
+            inputBias[i] = (short) random.nextInt(0, 32);
+        }
+        byte[] outputWeights = new byte[2 * hidden];
+        for (int i = 0; i < outputWeights.length; i++) {
+            outputWeights[i] = (byte) random.nextInt(-64, 65);
+        }
+        return new NnueNetwork(hidden, inputWeights, inputBias, outputWeights, 0);
+    }
+
+    public int hidden() {
+        return hidden;
+    }
+
+    /**
+     * @return the active input feature of {@code slot} as seen from {@code perspective}
+     */
+    static int feature(Position position, int perspective, int slot) {
+        if (slot < TOTAL_HOLES) {
+            int hole = perspective == 0 ? slot : (slot + HOLES_PER_PLAYER) % TOTAL_HOLES;
+            return slot * HOLE_BUCKETS + Math.min(position.hole(hole), HOLE_BUCKETS - 1);
+        }
+        return switch (slot - TOTAL_HOLES) {
+            case 0 -> KAZAN_BASE + Math.min(position.kazan(perspective), KAZAN_BUCKETS - 1);
+            case 1 -> KAZAN_BASE + KAZAN_BUCKETS + Math.min(position.kazan(1 - perspective), KAZAN_BUCKETS - 1);
+            case 2 -> TUZ_BASE + relativeTuz(position.tuz(perspective), perspective);
+            default -> TUZ_BASE + TUZ_BUCKETS + relativeTuz(position.tuz(1 - perspective), perspective);
+        };
+    }
+
+    private static int relativeTuz(int tuz, int perspective) {
+        if (tuz < 0) return TOTAL_HOLES;
+        return perspective == 0 ? tuz : (tuz + HOLES_PER_PLAYER) % TOTAL_HOLES;
+    }
+}
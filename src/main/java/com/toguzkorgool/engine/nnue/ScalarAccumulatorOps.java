@@ -0,0 +1,23 @@
+package com.toguzkorgool.engine.nnue;
+
+final class ScalarAccumulatorOps implements AccumulatorOps {
+
+    static final ScalarAccumulatorOps INSTANCE = new ScalarAccumulatorOps();
+
+    private ScalarAccumulatorOps() {
+    }
+
+    @Override
+    public void add(short[] acc, int accOffset, short[] weights, int weightOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            acc[accOffset + i] += weights[weightOffset + i];
+        }
+    }
+
+    @Override
+    public void sub(short[] acc, int accOffset, short[] weights, int weightOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            acc[accOffset + i] -= weights[weightOffset + i];
+        }
+    }
+}
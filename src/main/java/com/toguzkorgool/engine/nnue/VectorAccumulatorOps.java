@@ -0,0 +1,35 @@
+package com.toguzkorgool.engine.nnue;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorAccumulatorOps implements AccumulatorOps {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(short[] acc, int accOffset, short[] weights, int weightOffset, int length) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            ShortVector.fromArray(SPECIES, acc, accOffset + i)
+                    .add(ShortVector.fromArray(SPECIES, weights, weightOffset + i))
+                    .intoArray(acc, accOffset + i);
+        }
+        for (; i < length; i++) {
+            acc[accOffset + i] += weights[weightOffset + i];
+        }
+    }
+
+    @Override
+    public void sub(short[] acc, int accOffset, short[] weights, int weightOffset, int length) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            ShortVector.fromArray(SPECIES, acc, accOffset + i)
+                    .sub(ShortVector.fromArray(SPECIES, weights, weightOffset + i))
+                    .intoArray(acc, accOffset + i);
+        }
+        for (; i < length; i++) {
+            acc[accOffset + i] -= weights[weightOffset + i];
+        }
+    }
+}
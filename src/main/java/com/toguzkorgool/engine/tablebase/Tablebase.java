@@ -0,0 +1,121 @@
+package com.toguzkorgool.engine.tablebase;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Read-only view of an endgame tablebase file produced by {@code TablebaseGenerator} in the tools source set.
+ * <p>
+ * File format: a 16-byte header ({@code "TKTB"}, version, maxStones, reserved) followed by one 2-bit
+ * win/draw/loss value per position in {@link TablebaseLayout} order, four positions per byte.
+ * The data stays memory-mapped; a probe is one index computation and one byte read, and is safe
+ * to call from any number of threads.
+ */
+public final class Tablebase {
+
+    public static final int MAGIC = 0x544B5442; // "TKTB"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+
+    /** Probe results, from the point of view of the side to move. */
+    public static final int UNKNOWN = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int DRAW = 3;
+
+    private static final Tablebase EMPTY = new Tablebase(null, null);
+
+    private final TablebaseLayout layout;
+    private final MappedByteBuffer data;
+
+    private Tablebase(TablebaseLayout layout, MappedByteBuffer data) {
+        this.layout = layout;
+        this.data = data;
+    }
+
+    public static Tablebase empty() {
+        return EMPTY;
+    }
+
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported tablebase version " + buffer.getInt(4) + " in " + file);
+            }
+            TablebaseLayout layout = new TablebaseLayout(buffer.getInt(8));
+            long expected = HEADER_SIZE + packedSize(layout.totalPositions());
+            if (channel.size() != expected) {
+                throw new IOException("Truncated tablebase " + file + ": expected " + expected
+                        + " bytes, found " + channel.size());
+            }
+            return new Tablebase(layout, buffer);
+        }
+    }
+
+    static long packedSize(long positions) {
+        return (positions + 3) / 4;
+    }
+
+    /**
+     * @return {@link #WIN}, {@link #LOSS} or {@link #DRAW} for the side to move, or {@link #UNKNOWN}
+     * if the position is terminal or has more stones on the board than this tablebase covers
+     */
+    public int probe(Position position) {
+        if (data == null || position.isTerminal()) return UNKNOWN;
+        long index = layout.indexOf(position);
+        if (index < 0) return UNKNOWN;
+        int packed = data.get(Math.toIntExact(HEADER_SIZE + (index >>> 2)));
+        return (packed >>> ((int) (index & 3) << 1)) & 3;
+    }
+
+    /**
+     * @return a move that keeps the probed result for the side to move, or -1 if the position is not covered
+     */
+    public int bestMove(Position position) {
+        int value = probe(position);
+        if (value == UNKNOWN) return -1;
+
+        Position work = position.copy();
+        int[] moves = new int[HOLES_PER_PLAYER];
+        int count = work.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            work.make(moves[i]);
+            int reached = work.isTerminal() ? fromResult(work.result(), position.sideToMove()) : flip(probe(work));
+            work.unmake();
+            if (reached == value) return moves[i];
+        }
+        return -1;
+    }
+
+    static int fromResult(int result, int side) {
+        if (result == ToguzKorgoolEngine.DRAW) return DRAW;
+        return result == side ? WIN : LOSS;
+    }
+
+    static int flip(int value) {
+        return switch (value) {
+            case WIN -> LOSS;
+            case LOSS -> WIN;
+            default -> value;
+        };
+    }
+
+    /**
+     * @return the largest number of board stones covered, or -1 for the empty tablebase
+     */
+    public int maxStones() {
+        return layout == null ? -1 : layout.maxStones();
+    }
+}
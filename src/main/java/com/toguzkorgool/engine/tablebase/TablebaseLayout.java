@@ -0,0 +1,210 @@
+package com.toguzkorgool.engine.tablebase;
+
+import com.toguzkorgool.engine.Position;
+
+import java.util.Arrays;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.DRAW_SCORE;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_STONES;
+
+/**
+ * Perfect index over endgame positions with at most {@code maxStones} stones left on the board.
+ * <p>
+ * Positions are grouped into blocks by (stones on board, tuz placement). Inside a block the index is
+ * {@code (rank * 2 + sideToMove) * (stones + 1) + kazanOffset}, where rank enumerates the distributions
+ * of the stones over the holes that are not tuz, and kazanOffset is white's kazan minus {@code 81 - stones}.
+ * Only kazans where neither side has reached the win score are indexed; everything else is already decided.
+ */
+public final class TablebaseLayout {
+
+    /**
+     * Largest layout whose file (2 bits per position, about 764 MiB at 9 stones) fits the single mapping
+     * and int offsets of {@link Tablebase}. At 10 stones the file would be about 2.2 GiB.
+     */
+    public static final int MAX_SUPPORTED_STONES = 9;
+
+    private final int maxStones;
+    private final int[][] tuzConfigs;
+    private final int[][] configIndex = new int[TOTAL_HOLES + 1][TOTAL_HOLES + 1];
+    private final int[][] freeHoles;
+    private final long[][] compositions;
+    private final long[] blockOffsets;
+    private final long totalPositions;
+
+    public TablebaseLayout(int maxStones) {
+        if (maxStones < 0 || maxStones > MAX_SUPPORTED_STONES) {
+            throw new IllegalArgumentException("maxStones must be between 0 and " + MAX_SUPPORTED_STONES);
+        }
+        this.maxStones = maxStones;
+        this.tuzConfigs = enumerateTuzConfigs();
+        this.freeHoles = new int[tuzConfigs.length][];
+
+        for (int[] row : configIndex) {
+            Arrays.fill(row, -1);
+        }
+        for (int cfg = 0; cfg < tuzConfigs.length; cfg++) {
+            int whiteTuz = tuzConfigs[cfg][0];
+            int blackTuz = tuzConfigs[cfg][1];
+            configIndex[whiteTuz + 1][blackTuz + 1] = cfg;
+
+            int[] free = new int[TOTAL_HOLES];
+            int count = 0;
+            for (int hole = 0; hole < TOTAL_HOLES; hole++) {
+                if (hole != whiteTuz && hole != blackTuz) {
+                    free[count++] = hole;
+                }
+            }
+            freeHoles[cfg] = Arrays.copyOf(free, count);
+        }
+
+        // compositions[n][k] = ways to distribute n stones over k holes
+        compositions = new long[maxStones + 1][TOTAL_HOLES + 1];
+        for (int n = 0; n <= maxStones; n++) {
+            compositions[n][1] = 1;
+            for (int k = 2; k <= TOTAL_HOLES; k++) {
+                long sum = 0;
+                for (int first = 0; first <= n; first++) {
+                    sum += compositions[n - first][k - 1];
+                }
+                compositions[n][k] = sum;
+            }
+        }
+
+        blockOffsets = new long[blockCount() + 1];
+        long offset = 0;
+        for (int n = 0; n <= maxStones; n++) {
+            for (int cfg = 0; cfg < tuzConfigs.length; cfg++) {
+                blockOffsets[blockId(n, cfg)] = offset;
+                offset += blockSize(n, cfg);
+            }
+        }
+        blockOffsets[blockCount()] = offset;
+        totalPositions = offset;
+    }
+
+    /**
+     * White's tuz can only sit on black holes 10-17 (indices 9-16), black's on white holes 1-8 (indices 0-7),
+     * and the two may not be symmetric.
+     */
+    private static int[][] enumerateTuzConfigs() {
+        int[][] configs = new int[HOLES_PER_PLAYER * HOLES_PER_PLAYER][];
+        int count = 0;
+        for (int whiteTuz = -1; whiteTuz < 2 * HOLES_PER_PLAYER - 1; whiteTuz++) {
+            if (whiteTuz >= 0 && whiteTuz < HOLES_PER_PLAYER) continue;
+            for (int blackTuz = -1; blackTuz < HOLES_PER_PLAYER - 1; blackTuz++) {
+                if (whiteTuz >= 0 && blackTuz >= 0 && whiteTuz - HOLES_PER_PLAYER == blackTuz) continue;
+                configs[count++] = new int[]{whiteTuz, blackTuz};
+            }
+        }
+        return Arrays.copyOf(configs, count);
+    }
+
+    public int maxStones() {
+        return maxStones;
+    }
+
+    public int configCount() {
+        return tuzConfigs.length;
+    }
+
+    public int blockCount() {
+        return (maxStones + 1) * tuzConfigs.length;
+    }
+
+    public int blockId(int stones, int cfg) {
+        return stones * tuzConfigs.length + cfg;
+    }
+
+    public int blockSize(int stones, int cfg) {
+        return Math.toIntExact(compositions[stones][freeHoles[cfg].length] * 2 * (stones + 1));
+    }
+
+    public long blockOffset(int block) {
+        return blockOffsets[block];
+    }
+
+    public long totalPositions() {
+        return totalPositions;
+    }
+
+    public int[] tuzConfig(int cfg) {
+        return tuzConfigs[cfg];
+    }
+
+    /**
+     * @return the block holding this position, or -1 if it has too many stones on the board
+     */
+    public int blockFor(Position position) {
+        int stones = position.boardStones();
+        if (stones > maxStones) return -1;
+        return blockId(stones, configIndex[position.tuz(0) + 1][position.tuz(1) + 1]);
+    }
+
+    /**
+     * @return the index inside {@code block}, or -1 if a kazan has already reached the win score
+     */
+    public int localIndex(int block, Position position) {
+        int stones = block / tuzConfigs.length;
+        int cfg = block % tuzConfigs.length;
+        int kazanOffset = position.kazan(0) - (DRAW_SCORE - stones);
+        if (kazanOffset < 0 || kazanOffset > stones) return -1;
+
+        int[] free = freeHoles[cfg];
+        long rank = 0;
+        int remaining = stones;
+        for (int i = 0; i < free.length - 1 && remaining > 0; i++) {
+            int count = position.hole(free[i]);
+            int holesAfter = free.length - i - 1;
+            for (int smaller = 0; smaller < count; smaller++) {
+                rank += compositions[remaining - smaller][holesAfter];
+            }
+            remaining -= count;
+        }
+        return Math.toIntExact((rank * 2 + position.sideToMove()) * (stones + 1) + kazanOffset);
+    }
+
+    /**
+     * @return the global index of this position, or -1 if it is not covered
+     */
+    public long indexOf(Position position) {
+        int block = blockFor(position);
+        if (block < 0) return -1;
+        int local = localIndex(block, position);
+        return local < 0 ? -1 : blockOffsets[block] + local;
+    }
+
+    /**
+     * Inverse of {@link #localIndex}: fills the board arrays and returns the side to move.
+     */
+    public int decode(int block, int local, int[] holes, int[] kazan, int[] tuz) {
+        int stones = block / tuzConfigs.length;
+        int cfg = block % tuzConfigs.length;
+        int kazanOffset = local % (stones + 1);
+        int rest = local / (stones + 1);
+        int side = rest & 1;
+        long rank = rest >>> 1;
+
+        Arrays.fill(holes, 0);
+        int[] free = freeHoles[cfg];
+        int remaining = stones;
+        for (int i = 0; i < free.length - 1; i++) {
+            int holesAfter = free.length - i - 1;
+            int count = 0;
+            while (rank >= compositions[remaining - count][holesAfter]) {
+                rank -= compositions[remaining - count][holesAfter];
+                count++;
+            }
+            holes[free[i]] = count;
+            remaining -= count;
+        }
+        holes[free[free.length - 1]] = remaining;
+
+        kazan[0] = DRAW_SCORE - stones + kazanOffset;
+        kazan[1] = TOTAL_STONES - stones - kazan[0];
+        tuz[0] = tuzConfigs[cfg][0];
+        tuz[1] = tuzConfigs[cfg][1];
+        return side;
+    }
+}
@@ -0,0 +1,120 @@
+package com.toguzkorgool.engine.tuning;
+
+import com.toguzkorgool.engine.EvalWeights;
+import com.toguzkorgool.engine.Position;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+
+/**
+ * Recorded positions reduced to their evaluation features, stored column-wise in off-heap memory:
+ * one int16 column per feature and one byte column for the result (0 loss, 1 draw, 2 win for the
+ * side to move). Tens of millions of rows cost a few hundred megabytes and nothing on the GC heap.
+ */
+final class TuningData implements AutoCloseable {
+
+    private final Arena arena = Arena.ofShared();
+    private final MemorySegment[] features = new MemorySegment[EvalWeights.FEATURES];
+    private final MemorySegment results;
+    private final long size;
+    private final long skipped;
+
+    private TuningData(long capacity, List<Path> files) throws IOException {
+        for (int f = 0; f < EvalWeights.FEATURES; f++) {
+            features[f] = arena.allocate(Math.max(1, capacity) * Short.BYTES, Short.BYTES);
+        }
+        results = arena.allocate(Math.max(1, capacity));
+
+        int[] holes = new int[TOTAL_HOLES];
+        int[] kazan = new int[2];
+        int[] tuz = new int[2];
+        int[] values = new int[EvalWeights.FEATURES];
+        Position position = new Position();
+        long row = 0;
+        long unreadable = 0;
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                String line;
+                while ((line = reader.readLine()) != null && row < capacity) {
+                    String[] cells = line.split(",");
+                    if (cells.length != TOTAL_HOLES + 6) {
+                        unreadable++;
+                        continue;
+                    }
+                    byte result;
+                    try {
+                        for (int i = 0; i < TOTAL_HOLES; i++) {
+                            holes[i] = Integer.parseInt(cells[i]);
+                        }
+                        kazan[0] = Integer.parseInt(cells[TOTAL_HOLES]);
+                        kazan[1] = Integer.parseInt(cells[TOTAL_HOLES + 1]);
+                        tuz[0] = Integer.parseInt(cells[TOTAL_HOLES + 2]);
+                        tuz[1] = Integer.parseInt(cells[TOTAL_HOLES + 3]);
+                        position.set(holes, kazan, tuz, Integer.parseInt(cells[TOTAL_HOLES + 4]));
+                        result = (byte) Math.round(Double.parseDouble(cells[TOTAL_HOLES + 5]) * 2);
+                    } catch (NumberFormatException e) {
+                        // A header line or a damaged row
+                        unreadable++;
+                        continue;
+                    }
+
+                    EvalWeights.features(position, values);
+                    for (int f = 0; f < EvalWeights.FEATURES; f++) {
+                        features[f].setAtIndex(ValueLayout.JAVA_SHORT, row, (short) values[f]);
+                    }
+                    results.set(ValueLayout.JAVA_BYTE, row, result);
+                    row++;
+                }
+            }
+        }
+        this.size = row;
+        this.skipped = unreadable;
+    }
+
+    /**
+     * Loads CSV rows written by the training data exporter. Files are counted first so the
+     * columns are allocated once at their final size. Rows that cannot be read are skipped and
+     * counted in {@link #skipped()}.
+     */
+    static TuningData load(List<Path> files) throws IOException {
+        long lines = 0;
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                while (reader.readLine() != null) {
+                    lines++;
+                }
+            }
+        }
+        return new TuningData(lines, files);
+    }
+
+    long size() {
+        return size;
+    }
+
+    long skipped() {
+        return skipped;
+    }
+
+    int feature(int feature, long row) {
+        return features[feature].getAtIndex(ValueLayout.JAVA_SHORT, row);
+    }
+
+    /** @return the result for the side to move: 0, 0.5 or 1 */
+    double result(long row) {
+        return results.get(ValueLayout.JAVA_BYTE, row) * 0.5;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,11 @@
+package com.toguzkorgool.event;
+
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.Player;
+
+/**
+ * Published once per game, under the game's lock, when it ends by any route (board, resign, draw, time).
+ * The state is not modified after it is over, so listeners may keep it and read it later.
+ */
+public record GameFinishedEvent(GameState state, Player white, Player black, long finishedAt) {
+}
@@ -0,0 +1,9 @@
+package com.toguzkorgool.event;
+
+import com.toguzkorgool.model.GameState;
+
+/**
+ * Published under the game's lock after every move that does not end the game.
+ */
+public record MovePlayedEvent(GameState state) {
+}
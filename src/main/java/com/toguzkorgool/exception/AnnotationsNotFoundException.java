@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class AnnotationsNotFoundException extends RuntimeException {
+    public AnnotationsNotFoundException(long gameId) {
+        super("No analysis for game: " + gameId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class ArchivedGameNotFoundException extends RuntimeException {
+    public ArchivedGameNotFoundException(long gameId) {
+        super("Archived game not found: " + gameId);
+    }
+}
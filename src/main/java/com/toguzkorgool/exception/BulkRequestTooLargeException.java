@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class BulkRequestTooLargeException extends RuntimeException {
+    public BulkRequestTooLargeException(int requested, int max) {
+        super("Too many rooms requested: " + requested + " (max " + max + ")");
+    }
+}
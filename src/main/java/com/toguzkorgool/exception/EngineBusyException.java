@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class EngineBusyException extends RuntimeException {
+    public EngineBusyException() {
+        super("Engine is busy, try again later");
+    }
+}
@@ -1,10 +1,13 @@
 package com.toguzkorgool.exception;
 
+import com.toguzkorgool.model.enums.MoveError;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.net.URI;
 import java.util.Map;
 
 @ControllerAdvice
@@ -30,8 +33,9 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidMoveException.class)
     public ResponseEntity<Map<String, String>> handleInvalidMove(InvalidMoveException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(Map.of("message", ex.getMessage()));
+        HttpStatus status = ex.getError() == MoveError.STALE_MOVE ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status)
+                .body(Map.of("message", ex.getMessage(), "code", ex.getError().name()));
     }
 
     @ExceptionHandler(GameNotStartedException.class)
@@ -40,15 +44,102 @@ public class GlobalExceptionHandler {
                 .body(Map.of("message", ex.getMessage()));
     }
 
-    @ExceptionHandler(NotPlayerTurnException.class)
-    public ResponseEntity<Map<String, String>> handleNotPlayerTurn(NotPlayerTurnException ex) {
+    @ExceptionHandler(PlayerNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handlePlayerNotFound(PlayerNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(EngineBusyException.class)
+    public ResponseEntity<Map<String, String>> handleEngineBusy(EngineBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(BulkRequestTooLargeException.class)
+    public ResponseEntity<Map<String, String>> handleBulkRequestTooLarge(BulkRequestTooLargeException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("message", ex.getMessage()));
     }
 
-    @ExceptionHandler(PlayerNotFoundException.class)
-    public ResponseEntity<Map<String, String>> handlePlayerNotFound(PlayerNotFoundException ex) {
+    @ExceptionHandler(ArchivedGameNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleArchivedGameNotFound(ArchivedGameNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(PlayerAlreadyInRoomException.class)
+    public ResponseEntity<Map<String, String>> handlePlayerAlreadyInRoom(PlayerAlreadyInRoomException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidPositionException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidPosition(InvalidPositionException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(StatisticsRebuildInProgressException.class)
+    public ResponseEntity<Map<String, String>> handleStatisticsRebuildInProgress(
+            StatisticsRebuildInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(AnnotationsNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleAnnotationsNotFound(AnnotationsNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("message", ex.getMessage()));
     }
+
+    @ExceptionHandler(UndoNotAllowedException.class)
+    public ResponseEntity<Map<String, String>> handleUndoNotAllowed(UndoNotAllowedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TournamentNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleTournamentNotFound(TournamentNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TournamentAlreadyExistsException.class)
+    public ResponseEntity<Map<String, String>> handleTournamentAlreadyExists(TournamentAlreadyExistsException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TournamentAlreadyStartedException.class)
+    public ResponseEntity<Map<String, String>> handleTournamentAlreadyStarted(
+            TournamentAlreadyStartedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidTournamentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidTournament(InvalidTournamentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    /**
+     * Redirects to the node that owns the room, keeping the method and body; without a known URL for
+     * that node the client is told it reached the wrong server.
+     */
+    @ExceptionHandler(RoomOwnedElsewhereException.class)
+    public ResponseEntity<Map<String, String>> handleRoomOwnedElsewhere(RoomOwnedElsewhereException ex,
+                                                                        HttpServletRequest request) {
+        if (ex.getNodeUrl() == null) {
+            // 421 Misdirected Request
+            return ResponseEntity.status(421)
+                    .body(Map.of("message", ex.getMessage()));
+        }
+        String query = request.getQueryString();
+        String location = ex.getNodeUrl() + request.getRequestURI() + (query != null ? "?" + query : "");
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .location(URI.create(location))
+                .body(Map.of("message", ex.getMessage()));
+    }
 }
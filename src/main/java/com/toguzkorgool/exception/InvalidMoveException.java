@@ -1,7 +1,33 @@
 package com.toguzkorgool.exception;
 
+import com.toguzkorgool.model.enums.MoveError;
+
+/**
+ * A refused move. Refusals are routine (double clicks, taps out of turn), so the exception records no
+ * stack trace and there is one shared instance per {@link MoveError}.
+ */
 public class InvalidMoveException extends RuntimeException {
-    public InvalidMoveException(String message) {
-        super(message);
+
+    private static final InvalidMoveException[] INSTANCES = new InvalidMoveException[MoveError.values().length];
+
+    static {
+        for (MoveError error : MoveError.values()) {
+            INSTANCES[error.ordinal()] = new InvalidMoveException(error);
+        }
+    }
+
+    private final MoveError error;
+
+    private InvalidMoveException(MoveError error) {
+        super(error.getMessage(), null, false, false);
+        this.error = error;
+    }
+
+    public static InvalidMoveException of(MoveError error) {
+        return INSTANCES[error.ordinal()];
+    }
+
+    public MoveError getError() {
+        return error;
     }
 }
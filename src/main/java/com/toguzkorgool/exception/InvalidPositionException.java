@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class InvalidPositionException extends RuntimeException {
+    public InvalidPositionException(String reason) {
+        super("Invalid position: " + reason);
+    }
+}
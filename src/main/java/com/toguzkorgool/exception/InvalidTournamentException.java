@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class InvalidTournamentException extends RuntimeException {
+    public InvalidTournamentException(String reason) {
+        super("Invalid tournament: " + reason);
+    }
+}
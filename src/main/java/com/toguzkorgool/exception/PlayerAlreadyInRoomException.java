@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class PlayerAlreadyInRoomException extends RuntimeException {
+    public PlayerAlreadyInRoomException(String playerId, String roomId) {
+        super("Player " + playerId + " is already in room " + roomId);
+    }
+}
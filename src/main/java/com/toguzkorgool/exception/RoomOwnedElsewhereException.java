@@ -0,0 +1,18 @@
+package com.toguzkorgool.exception;
+
+public class RoomOwnedElsewhereException extends RuntimeException {
+
+    private final String nodeUrl;
+
+    public RoomOwnedElsewhereException(String roomId, String nodeId, String nodeUrl) {
+        super("Room " + roomId + " is served by node " + nodeId);
+        this.nodeUrl = nodeUrl;
+    }
+
+    /**
+     * @return the owning node's base URL, or null if none is configured
+     */
+    public String getNodeUrl() {
+        return nodeUrl;
+    }
+}
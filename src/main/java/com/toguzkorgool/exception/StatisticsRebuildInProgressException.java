@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class StatisticsRebuildInProgressException extends RuntimeException {
+    public StatisticsRebuildInProgressException() {
+        super("A statistics rebuild is already running");
+    }
+}
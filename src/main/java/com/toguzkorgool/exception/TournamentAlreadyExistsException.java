@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class TournamentAlreadyExistsException extends RuntimeException {
+    public TournamentAlreadyExistsException(String tournamentId) {
+        super("Tournament already exists: " + tournamentId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class TournamentAlreadyStartedException extends RuntimeException {
+    public TournamentAlreadyStartedException(String tournamentId) {
+        super("Tournament already started: " + tournamentId);
+    }
+}
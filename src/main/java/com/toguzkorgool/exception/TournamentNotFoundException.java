@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class TournamentNotFoundException extends RuntimeException {
+    public TournamentNotFoundException(String tournamentId) {
+        super("Tournament not found: " + tournamentId);
+    }
+}
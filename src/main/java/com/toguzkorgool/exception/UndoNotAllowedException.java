@@ -0,0 +1,7 @@
+package com.toguzkorgool.exception;
+
+public class UndoNotAllowedException extends RuntimeException {
+    public UndoNotAllowedException(String reason) {
+        super("Cannot take back the move: " + reason);
+    }
+}
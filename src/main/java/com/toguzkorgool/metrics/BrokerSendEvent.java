@@ -0,0 +1,25 @@
+package com.toguzkorgool.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+/**
+ * One message handed to the broker: payload conversion plus dispatch onto the outbound channel.
+ */
+@Name("toguzkorgool.BrokerSend")
+@Label("Broker Send")
+@Category({"Toguz Korgool", "Broker"})
+@Description("Message converted and sent through SimpMessagingTemplate")
+@Registered(false)
+public class BrokerSendEvent extends Event {
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Payload Type")
+    public String payloadType;
+}
@@ -0,0 +1,30 @@
+package com.toguzkorgool.metrics;
+
+import jdk.jfr.FlightRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the application's JFR event types when {@code toguzkorgool.jfr.enabled} is set.
+ * <p>
+ * The event classes are not registered by default, so while the flag is off every
+ * {@code shouldCommit()} is false and the events cost no more than an allocation the JIT removes.
+ * When it is on they are recorded by any running recording, e.g. one started with
+ * {@code -XX:StartFlightRecording}.
+ */
+@Component
+public class FlightRecorderEvents {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderEvents.class);
+
+    public FlightRecorderEvents(@Value("${toguzkorgool.jfr.enabled:false}") boolean enabled) {
+        if (!enabled) return;
+        FlightRecorder.register(MoveEvent.class);
+        FlightRecorder.register(TimerTickEvent.class);
+        FlightRecorder.register(StateSerializationEvent.class);
+        FlightRecorder.register(BrokerSendEvent.class);
+        log.info("Registered JFR events");
+    }
+}
@@ -0,0 +1,139 @@
+package com.toguzkorgool.metrics;
+
+import com.toguzkorgool.model.enums.MoveError;
+import com.toguzkorgool.model.enums.RoomStatus;
+import com.toguzkorgool.storage.GameStore;
+import com.toguzkorgool.storage.RoomStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the game, timer and broker hot paths, scraped from {@code /actuator/prometheus}.
+ * <p>
+ * Hot-path recording is a single {@code System.nanoTime()} delta per phase into a histogram timer;
+ * room, game and queue gauges are computed only when scraped.
+ */
+@Component
+public class GameMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer moveLockWait;
+    private final Timer moveEngine;
+    private final Timer moveBroadcast;
+    private final Timer timerTickLag;
+    private final Counter duplicateMoves;
+    private final Counter archiveFailures;
+    private final Counter[] rejectedMoves = new Counter[MoveError.values().length];
+    private final Map<String, Counter> inboundCounters = new ConcurrentHashMap<>();
+
+    public GameMetrics(MeterRegistry registry, RoomStore roomStore, GameStore gameStore,
+                       @Qualifier("clientInboundChannelExecutor") Executor inboundExecutor,
+                       @Qualifier("clientOutboundChannelExecutor") Executor outboundExecutor) {
+        this.registry = registry;
+        this.moveLockWait = movePhase("lock");
+        this.moveEngine = movePhase("engine");
+        this.moveBroadcast = movePhase("broadcast");
+        this.timerTickLag = Timer.builder("toguzkorgool.timer.tick.lag")
+                .description("Delay between a timer tick's scheduled and actual start")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.duplicateMoves = Counter.builder("toguzkorgool.move.duplicates")
+                .description("Move submissions ignored as repeats of an applied move")
+                .register(registry);
+        this.archiveFailures = Counter.builder("toguzkorgool.archive.failures")
+                .description("Failed attempts to write a batch of finished games to the archive")
+                .register(registry);
+        for (MoveError error : MoveError.values()) {
+            rejectedMoves[error.ordinal()] = Counter.builder("toguzkorgool.move.rejected")
+                    .description("Move submissions refused, by reason")
+                    .tag("code", error.name())
+                    .register(registry);
+        }
+
+        for (RoomStatus status : RoomStatus.values()) {
+            Gauge.builder("toguzkorgool.rooms", roomStore, store -> store.countByStatus(status))
+                    .description("Rooms by status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+        Gauge.builder("toguzkorgool.games", gameStore, store -> store.countActive())
+                .description("Games by state")
+                .tag("state", "active")
+                .register(registry);
+        Gauge.builder("toguzkorgool.games", gameStore, store -> store.size() - store.countActive())
+                .description("Games by state")
+                .tag("state", "over")
+                .register(registry);
+
+        brokerQueue("inbound", inboundExecutor);
+        brokerQueue("outbound", outboundExecutor);
+    }
+
+    private Timer movePhase(String phase) {
+        return Timer.builder("toguzkorgool.move")
+                .description("Time spent in GameService.makeMove, by phase")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Only platform pools queue; with virtual threads every message starts at once.
+     */
+    private void brokerQueue(String channel, Executor executor) {
+        if (!(executor instanceof ThreadPoolTaskExecutor pool)) return;
+        Gauge.builder("toguzkorgool.broker.queue", pool, e -> e.getQueueSize())
+                .description("Messages waiting on the client channel executor")
+                .tag("channel", channel)
+                .register(registry);
+    }
+
+    public void recordMove(long lockWaitNanos, long engineNanos, long broadcastNanos) {
+        moveLockWait.record(lockWaitNanos, TimeUnit.NANOSECONDS);
+        moveEngine.record(engineNanos, TimeUnit.NANOSECONDS);
+        moveBroadcast.record(broadcastNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void duplicateMove() {
+        duplicateMoves.increment();
+    }
+
+    public void archiveFailure() {
+        archiveFailures.increment();
+    }
+
+    public void rejectedMove(MoveError error) {
+        rejectedMoves[error.ordinal()].increment();
+    }
+
+    public void recordTickLag(long lagNanos) {
+        timerTickLag.record(Math.max(0, lagNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts one inbound STOMP message of the given type; types are the controller's fixed mapping names.
+     */
+    public void inbound(String type) {
+        inboundCounters.computeIfAbsent(type, key -> Counter.builder("toguzkorgool.inbound")
+                .description("Inbound STOMP messages by type")
+                .tag("type", key)
+                .register(registry)).increment();
+    }
+
+    public void gauge(String name, String description, Supplier<Number> value) {
+        Gauge.builder(name, value)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.toguzkorgool.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code GameService.makeMove} call, from lock request to the end of the broadcast.
+ */
+@Name("toguzkorgool.Move")
+@Label("Move")
+@Category({"Toguz Korgool", "Game"})
+@Description("Move execution split into lock wait, engine and broadcast time")
+@Registered(false)
+public class MoveEvent extends Event {
+
+    @Label("Room")
+    public String roomId;
+
+    @Label("Move Number")
+    public int moveNumber;
+
+    @Label("Hole")
+    public int holeIndex;
+
+    @Label("Lock Wait")
+    @Timespan
+    public long lockWait;
+
+    @Label("Engine")
+    @Timespan
+    public long engine;
+
+    @Label("Broadcast")
+    @Timespan
+    public long broadcast;
+}
@@ -0,0 +1,28 @@
+package com.toguzkorgool.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+/**
+ * Copying a game state into its response snapshot while the game lock is held.
+ */
+@Name("toguzkorgool.StateSerialization")
+@Label("State Serialization")
+@Category({"Toguz Korgool", "Game"})
+@Description("Game state copied into a response snapshot")
+@Registered(false)
+public class StateSerializationEvent extends Event {
+
+    @Label("Room")
+    public String roomId;
+
+    @Label("Move Number")
+    public int moveNumber;
+
+    @Label("History Size")
+    public int historySize;
+}
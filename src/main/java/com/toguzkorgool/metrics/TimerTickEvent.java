@@ -0,0 +1,35 @@
+package com.toguzkorgool.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.Timespan;
+
+/**
+ * One run of a room's clock tick, including the wait for the game lock.
+ */
+@Name("toguzkorgool.TimerTick")
+@Label("Timer Tick")
+@Category({"Toguz Korgool", "Timer"})
+@Description("Clock tick for one room")
+@Registered(false)
+public class TimerTickEvent extends Event {
+
+    @Label("Room")
+    public String roomId;
+
+    @Label("Move Number")
+    public int moveNumber;
+
+    @Label("Lag")
+    @Description("Delay past the tick's scheduled start")
+    @Timespan
+    public long lag;
+
+    @Label("Lock Wait")
+    @Timespan
+    public long lockWait;
+}
@@ -0,0 +1,9 @@
+package com.toguzkorgool.model;
+
+/**
+ * A finished game as stored in the archive: who played, how it ended and the hole of every move.
+ * The initial position is always the standard one, so the moves are enough to replay it.
+ */
+public record ArchivedGame(long gameId, String roomId, Player white, Player black,
+                           String winner, String reason, long finishedAt, byte[] moves) {
+}
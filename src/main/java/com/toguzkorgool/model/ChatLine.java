@@ -0,0 +1,10 @@
+package com.toguzkorgool.model;
+
+/**
+ * One chat message as kept in a room's history.
+ *
+ * @param seq    position in the room's chat, from 1; clients resume from the last one they saw
+ * @param sentAt epoch milliseconds when the server accepted it
+ */
+public record ChatLine(long seq, String playerId, String playerName, String message, long sentAt) {
+}
@@ -0,0 +1,9 @@
+package com.toguzkorgool.model;
+
+import java.util.List;
+
+/**
+ * Post-game analysis of an archived game, one entry per move.
+ */
+public record GameAnnotations(long gameId, List<MoveAnnotation> moves) {
+}
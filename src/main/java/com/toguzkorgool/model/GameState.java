@@ -2,11 +2,15 @@ package com.toguzkorgool.model;
 
 import com.toguzkorgool.model.enums.PlayerSide;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 public class GameState {
 
+    private static final int RECENT_MOVES = 8;
+
     private final String roomId;
     private final int[] holes = new int[18];
     private final int[] kazan = new int[2];
@@ -14,14 +18,23 @@ public class GameState {
     private PlayerSide currentPlayer = PlayerSide.WHITE;
     private boolean gameOver;
     private String winner; // "0", "1", "DRAW", or null
-    private String gameOverReason; // "RESIGN", "TIME", or null
+    private String gameOverReason; // "RESIGN", "TIME", "ABANDONED", or null
     private int moveNumber = 1;
     private final List<MoveRecord> moveHistory = new ArrayList<>();
+    private final Deque<MoveDelta> undoLog = new ArrayDeque<>(); // one per move while undo is enabled
+    private PlayerSide undoRequestedBy;
+    private final long[] recentSeqs = new long[RECENT_MOVES]; // client sequence numbers of the last moves
+    private final PlayerSide[] recentSides = new PlayerSide[RECENT_MOVES];
+    private int recentNext;
+    private PlayerSide pausedBy; // set while the game waits for this player to reconnect
     private double whiteTimeRemaining;
     private double blackTimeRemaining;
     private boolean timerEnabled;
     private boolean undoEnabled;
     private long lastMoveTimestamp;
+    private long version;
+    private byte[] summary;
+    private long summaryVersion = -1;
 
     public GameState(String roomId, int timerSetting, boolean undoEnabled) {
         this.roomId = roomId;
@@ -59,6 +72,7 @@ public class GameState {
 
     public void setCurrentPlayer(PlayerSide currentPlayer) {
         this.currentPlayer = currentPlayer;
+        version++;
     }
 
     public boolean isGameOver() {
@@ -67,6 +81,7 @@ public class GameState {
 
     public void setGameOver(boolean gameOver) {
         this.gameOver = gameOver;
+        version++;
     }
 
     public String getWinner() {
@@ -75,6 +90,7 @@ public class GameState {
 
     public void setWinner(String winner) {
         this.winner = winner;
+        version++;
     }
 
     public String getGameOverReason() {
@@ -83,6 +99,7 @@ public class GameState {
 
     public void setGameOverReason(String gameOverReason) {
         this.gameOverReason = gameOverReason;
+        version++;
     }
 
     public int getMoveNumber() {
@@ -91,6 +108,7 @@ public class GameState {
 
     public void setMoveNumber(int moveNumber) {
         this.moveNumber = moveNumber;
+        version++;
     }
 
     public List<MoveRecord> getMoveHistory() {
@@ -103,6 +121,7 @@ public class GameState {
 
     public void setWhiteTimeRemaining(double whiteTimeRemaining) {
         this.whiteTimeRemaining = whiteTimeRemaining;
+        version++;
     }
 
     public double getBlackTimeRemaining() {
@@ -111,6 +130,7 @@ public class GameState {
 
     public void setBlackTimeRemaining(double blackTimeRemaining) {
         this.blackTimeRemaining = blackTimeRemaining;
+        version++;
     }
 
     public boolean isTimerEnabled() {
@@ -119,6 +139,7 @@ public class GameState {
 
     public void setTimerEnabled(boolean timerEnabled) {
         this.timerEnabled = timerEnabled;
+        version++;
     }
 
     public boolean isUndoEnabled() {
@@ -127,6 +148,55 @@ public class GameState {
 
     public void setUndoEnabled(boolean undoEnabled) {
         this.undoEnabled = undoEnabled;
+        version++;
+    }
+
+    /**
+     * Records what the last move changed, so it can be taken back in {@link #popUndo}.
+     */
+    public void pushUndo(MoveDelta delta) {
+        undoLog.push(delta);
+    }
+
+    /**
+     * @return the delta of the last move, or null if there is nothing to take back
+     */
+    public MoveDelta popUndo() {
+        return undoLog.poll();
+    }
+
+    public PlayerSide getUndoRequestedBy() {
+        return undoRequestedBy;
+    }
+
+    public void setUndoRequestedBy(PlayerSide undoRequestedBy) {
+        this.undoRequestedBy = undoRequestedBy;
+        version++;
+    }
+
+    /**
+     * @return whether one of the last moves was the player's submission with this client sequence number
+     */
+    public boolean isRecentMove(PlayerSide side, long clientSeq) {
+        for (int i = 0; i < RECENT_MOVES; i++) {
+            if (recentSides[i] == side && recentSeqs[i] == clientSeq) return true;
+        }
+        return false;
+    }
+
+    public void addRecentMove(PlayerSide side, long clientSeq) {
+        recentSides[recentNext] = side;
+        recentSeqs[recentNext] = clientSeq;
+        recentNext = (recentNext + 1) % RECENT_MOVES;
+    }
+
+    public PlayerSide getPausedBy() {
+        return pausedBy;
+    }
+
+    public void setPausedBy(PlayerSide pausedBy) {
+        this.pausedBy = pausedBy;
+        version++;
     }
 
     public long getLastMoveTimestamp() {
@@ -135,5 +205,26 @@ public class GameState {
 
     public void setLastMoveTimestamp(long lastMoveTimestamp) {
         this.lastMoveTimestamp = lastMoveTimestamp;
+        version++;
+    }
+
+    /**
+     * Incremented by every setter. The engine mutates the board arrays in place and then always sets the
+     * move number, so any change to the game is visible as a new version. Guarded by the state's lock.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the encoded summary cached for the current version, or null if the state changed since
+     */
+    public byte[] getSummary() {
+        return summaryVersion == version ? summary : null;
+    }
+
+    public void setSummary(byte[] summary) {
+        this.summary = summary;
+        this.summaryVersion = version;
     }
 }
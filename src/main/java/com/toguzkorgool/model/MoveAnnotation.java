@@ -0,0 +1,15 @@
+package com.toguzkorgool.model;
+
+import com.toguzkorgool.model.enums.AnnotationTag;
+
+/**
+ * Engine verdict on one move of a finished game. Scores are from the mover's point of view.
+ *
+ * @param score         value of the position before the move with best play
+ * @param loss          how much the played move gave up against {@code score}
+ * @param tag           null unless the loss crossed a threshold
+ * @param missedCapture the engine's move captured more stones than the played one
+ */
+public record MoveAnnotation(int ply, int hole, int bestMove, int score, int loss, int captured,
+                             int bestCaptured, AnnotationTag tag, boolean missedCapture) {
+}
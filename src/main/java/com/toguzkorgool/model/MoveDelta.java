@@ -0,0 +1,96 @@
+package com.toguzkorgool.model;
+
+/**
+ * What one move changed on a {@link GameState}, kept so the move can be taken back without replaying
+ * the game: a bit per hole the move touched with that hole's previous count, the previous kazans and
+ * tuz, and both clocks as they stood right after the move.
+ * <p>
+ * A hole never holds more than 162 stones, so previous counts are stored as unsigned bytes.
+ */
+public final class MoveDelta {
+
+    private static final int TOTAL_HOLES = 18;
+    private static final int SNAPSHOT_SIZE = TOTAL_HOLES + 4;
+
+    private final int changedHoles;
+    private final byte[] previousCounts;
+    private final short whiteKazan;
+    private final short blackKazan;
+    private final byte whiteTuz;
+    private final byte blackTuz;
+    private final double whiteTimeRemaining;
+    private final double blackTimeRemaining;
+
+    private MoveDelta(int changedHoles, byte[] previousCounts, int[] before, GameState after) {
+        this.changedHoles = changedHoles;
+        this.previousCounts = previousCounts;
+        this.whiteKazan = (short) before[TOTAL_HOLES];
+        this.blackKazan = (short) before[TOTAL_HOLES + 1];
+        this.whiteTuz = (byte) before[TOTAL_HOLES + 2];
+        this.blackTuz = (byte) before[TOTAL_HOLES + 3];
+        this.whiteTimeRemaining = after.getWhiteTimeRemaining();
+        this.blackTimeRemaining = after.getBlackTimeRemaining();
+    }
+
+    /**
+     * @return the board before a move, to be passed to {@link #between} once the move is made
+     */
+    public static int[] snapshot(GameState state) {
+        int[] snapshot = new int[SNAPSHOT_SIZE];
+        System.arraycopy(state.getHoles(), 0, snapshot, 0, TOTAL_HOLES);
+        snapshot[TOTAL_HOLES] = state.getKazan()[0];
+        snapshot[TOTAL_HOLES + 1] = state.getKazan()[1];
+        snapshot[TOTAL_HOLES + 2] = state.getTuz()[0];
+        snapshot[TOTAL_HOLES + 3] = state.getTuz()[1];
+        return snapshot;
+    }
+
+    /**
+     * @param before the {@link #snapshot} taken before the move
+     * @param after  the state after the move, with its clocks already switched
+     */
+    public static MoveDelta between(int[] before, GameState after) {
+        int[] holes = after.getHoles();
+        int changed = 0;
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            if (holes[i] != before[i]) changed |= 1 << i;
+        }
+        byte[] counts = new byte[Integer.bitCount(changed)];
+        int n = 0;
+        for (int bits = changed; bits != 0; bits &= bits - 1) {
+            counts[n++] = (byte) before[Integer.numberOfTrailingZeros(bits)];
+        }
+        return new MoveDelta(changed, counts, before, after);
+    }
+
+    /**
+     * Puts the holes, kazans and tuz back as they were before the move. The caller restores the
+     * side to move, the move number and the clocks.
+     */
+    public void restore(GameState state) {
+        int[] holes = state.getHoles();
+        int n = 0;
+        for (int bits = changedHoles; bits != 0; bits &= bits - 1) {
+            holes[Integer.numberOfTrailingZeros(bits)] = Byte.toUnsignedInt(previousCounts[n++]);
+        }
+        state.getKazan()[0] = whiteKazan;
+        state.getKazan()[1] = blackKazan;
+        state.getTuz()[0] = whiteTuz;
+        state.getTuz()[1] = blackTuz;
+    }
+
+    /**
+     * @return a bit per hole index the move changed
+     */
+    public int getChangedHoles() {
+        return changedHoles;
+    }
+
+    public double getWhiteTimeRemaining() {
+        return whiteTimeRemaining;
+    }
+
+    public double getBlackTimeRemaining() {
+        return blackTimeRemaining;
+    }
+}
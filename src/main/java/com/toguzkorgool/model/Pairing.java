@@ -0,0 +1,64 @@
+package com.toguzkorgool.model;
+
+/**
+ * One board of a tournament round, between player indices of the {@link Tournament}. A bye has no
+ * black player, room or game. The winner uses the same values as {@link GameState#getWinner()} and
+ * is guarded by the tournament's lock.
+ */
+public class Pairing {
+
+    public static final int BYE = -1;
+
+    private final int board;
+    private final int white;
+    private final int black;
+    private final String roomId;
+    private final GameState state;
+    private String winner;
+    private boolean finished;
+
+    public Pairing(int board, int white, int black, String roomId, GameState state) {
+        this.board = board;
+        this.white = white;
+        this.black = black;
+        this.roomId = roomId;
+        this.state = state;
+    }
+
+    public int getBoard() {
+        return board;
+    }
+
+    public int getWhite() {
+        return white;
+    }
+
+    public int getBlack() {
+        return black;
+    }
+
+    public boolean isBye() {
+        return black == BYE;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void finish(String winner) {
+        this.winner = winner;
+        this.finished = true;
+    }
+}
@@ -0,0 +1,177 @@
+package com.toguzkorgool.model;
+
+import com.toguzkorgool.model.enums.TournamentFormat;
+import com.toguzkorgool.model.enums.TournamentStatus;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A tournament and its standings. Players are referred to by their index in {@link #getPlayers()};
+ * scores are kept in half-points. Everything mutable is guarded by the tournament's lock.
+ */
+public class Tournament {
+
+    private final String tournamentId;
+    private final String name;
+    private final TournamentFormat format;
+    private final int totalRounds;
+    private final int timerSetting;
+    private final List<Player> players;
+    private final boolean[] bots;
+    private final int[] halfPoints;
+    private final int[] wins;
+    private final int[] draws;
+    private final int[] losses;
+    private final int[] colorBalance; // games as white minus games as black
+    private final boolean[] hadBye;
+    private final Set<Long> played = new HashSet<>();
+    private TournamentStatus status = TournamentStatus.WAITING;
+    private int round;
+    private List<Pairing> pairings = List.of();
+    private int unfinished;
+
+    public Tournament(String tournamentId, String name, TournamentFormat format, int totalRounds, int timerSetting,
+                      List<Player> players, boolean[] bots) {
+        this.tournamentId = tournamentId;
+        this.name = name;
+        this.format = format;
+        this.totalRounds = totalRounds;
+        this.timerSetting = timerSetting;
+        this.players = players;
+        this.bots = bots;
+        int n = players.size();
+        this.halfPoints = new int[n];
+        this.wins = new int[n];
+        this.draws = new int[n];
+        this.losses = new int[n];
+        this.colorBalance = new int[n];
+        this.hadBye = new boolean[n];
+    }
+
+    public String getTournamentId() {
+        return tournamentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TournamentFormat getFormat() {
+        return format;
+    }
+
+    public int getTotalRounds() {
+        return totalRounds;
+    }
+
+    public int getTimerSetting() {
+        return timerSetting;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public boolean isBot(int player) {
+        return bots[player];
+    }
+
+    public int getHalfPoints(int player) {
+        return halfPoints[player];
+    }
+
+    public int getWins(int player) {
+        return wins[player];
+    }
+
+    public int getDraws(int player) {
+        return draws[player];
+    }
+
+    public int getLosses(int player) {
+        return losses[player];
+    }
+
+    public int getColorBalance(int player) {
+        return colorBalance[player];
+    }
+
+    public boolean hadBye(int player) {
+        return hadBye[player];
+    }
+
+    public boolean havePlayed(int a, int b) {
+        return played.contains(pairKey(a, b));
+    }
+
+    public TournamentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TournamentStatus status) {
+        this.status = status;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public List<Pairing> getPairings() {
+        return pairings;
+    }
+
+    /**
+     * Makes {@code pairings} the next round. Byes score a win at once; the other boards count as
+     * unfinished until {@link #recordResult} is called for them.
+     */
+    public void startRound(List<Pairing> pairings) {
+        this.round++;
+        this.pairings = pairings;
+        this.unfinished = 0;
+        for (Pairing pairing : pairings) {
+            if (pairing.isBye()) {
+                hadBye[pairing.getWhite()] = true;
+                halfPoints[pairing.getWhite()] += 2;
+                pairing.finish(null);
+            } else {
+                played.add(pairKey(pairing.getWhite(), pairing.getBlack()));
+                colorBalance[pairing.getWhite()]++;
+                colorBalance[pairing.getBlack()]--;
+                unfinished++;
+            }
+        }
+    }
+
+    /**
+     * @return true if this was the last unfinished game of the round
+     */
+    public boolean recordResult(Pairing pairing, String winner) {
+        if (pairing.isFinished()) return false;
+        pairing.finish(winner);
+        int white = pairing.getWhite();
+        int black = pairing.getBlack();
+        if ("0".equals(winner)) {
+            score(white, black);
+        } else if ("1".equals(winner)) {
+            score(black, white);
+        } else {
+            halfPoints[white]++;
+            halfPoints[black]++;
+            draws[white]++;
+            draws[black]++;
+        }
+        return --unfinished == 0;
+    }
+
+    private void score(int winner, int loser) {
+        halfPoints[winner] += 2;
+        wins[winner]++;
+        losses[loser]++;
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
@@ -0,0 +1,9 @@
+package com.toguzkorgool.model.enums;
+
+/**
+ * Judgement attached to a move by post-game analysis, by how much it lost against the engine's choice.
+ */
+public enum AnnotationTag {
+    MISTAKE,
+    BLUNDER
+}
@@ -0,0 +1,24 @@
+package com.toguzkorgool.model.enums;
+
+/**
+ * Why a move was refused. The name is the code clients receive with the message.
+ */
+public enum MoveError {
+    GAME_OVER("Game is already over"),
+    GAME_PAUSED("Game is paused until the disconnected player returns"),
+    NOT_YOUR_TURN("It is not your turn"),
+    NOT_YOUR_HOLE("You can only move from your own holes"),
+    EMPTY_HOLE("Cannot move from an empty hole"),
+    /** The client chose the move in a position the game has since left. */
+    STALE_MOVE("The game has moved on since this move was chosen");
+
+    private final String message;
+
+    MoveError(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
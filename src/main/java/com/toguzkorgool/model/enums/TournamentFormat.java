@@ -0,0 +1,6 @@
+package com.toguzkorgool.model.enums;
+
+public enum TournamentFormat {
+    ROUND_ROBIN,
+    SWISS
+}
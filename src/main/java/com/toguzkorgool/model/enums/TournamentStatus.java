@@ -0,0 +1,7 @@
+package com.toguzkorgool.model.enums;
+
+public enum TournamentStatus {
+    WAITING,
+    RUNNING,
+    FINISHED
+}
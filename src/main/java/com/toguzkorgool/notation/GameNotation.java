@@ -0,0 +1,77 @@
+package com.toguzkorgool.notation;
+
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+
+/**
+ * Toguz korgool game notation, a PGN-style text format for exchanging games.
+ * <pre>
+ * [GameId "42"]
+ * [Room "a1b2c3"]
+ * [White "Aida"]
+ * [WhiteId "p-17"]
+ * [Black "Bolot"]
+ * [BlackId "p-23"]
+ * [Date "2026-03-01T18:20:00Z"]
+ * [Result "1-0"]
+ * [Termination "RESIGN"]
+ *
+ * 1. 75 73X 2. 96 12 ... 1-0
+ * </pre>
+ * Each move is the hole number (1-9, counted from the mover's side) it is played from, followed by
+ * the hole number the last stone lands in and {@code X} if that declares a tuz, as in over-the-board
+ * score sheets. Only the origin is needed to replay a game; the rest is checked on import. Results
+ * are {@code 1-0}, {@code 0-1}, {@code 1/2-1/2} and {@code *}; a game with no {@code Termination}
+ * tag ended on the board or by agreed draw. Games are separated by a blank line, {@code {...}} and
+ * {@code ;} comments are ignored, and unknown tags are skipped.
+ */
+public final class GameNotation {
+
+    public static final String MEDIA_TYPE = "application/x-toguz-notation";
+
+    /** Flag in {@link NotatedGame#marks()} for a move written with {@code X}. */
+    public static final int TUZ_MARK = 0x10;
+    public static final int LANDING_MASK = 0x0F;
+
+    /** Limit of the archive's move count field. */
+    public static final int MAX_MOVES = 0xFFFF;
+
+    static final String TAG_GAME_ID = "GameId";
+    static final String TAG_ROOM = "Room";
+    static final String TAG_WHITE = "White";
+    static final String TAG_WHITE_ID = "WhiteId";
+    static final String TAG_BLACK = "Black";
+    static final String TAG_BLACK_ID = "BlackId";
+    static final String TAG_DATE = "Date";
+    static final String TAG_RESULT = "Result";
+    static final String TAG_TERMINATION = "Termination";
+
+    private GameNotation() {
+    }
+
+    /**
+     * @return the result token for a winner string as stored in GameState
+     */
+    public static String resultOf(String winner) {
+        if (winner == null) return "*";
+        return switch (winner) {
+            case "0" -> "1-0";
+            case "1" -> "0-1";
+            case "DRAW" -> "1/2-1/2";
+            default -> "*";
+        };
+    }
+
+    /**
+     * @return the winner string for a result token, null for {@code *}
+     * @throws IllegalArgumentException if the token is not a result
+     */
+    public static String winnerOf(String result) {
+        return switch (result) {
+            case "1-0" -> ToguzKorgoolEngine.winnerOf(ToguzKorgoolEngine.WHITE_WINS);
+            case "0-1" -> ToguzKorgoolEngine.winnerOf(ToguzKorgoolEngine.BLACK_WINS);
+            case "1/2-1/2" -> ToguzKorgoolEngine.winnerOf(ToguzKorgoolEngine.DRAW);
+            case "*" -> null;
+            default -> throw new IllegalArgumentException("Unknown result " + result);
+        };
+    }
+}
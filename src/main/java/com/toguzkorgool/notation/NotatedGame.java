@@ -0,0 +1,13 @@
+package com.toguzkorgool.notation;
+
+import com.toguzkorgool.model.ArchivedGame;
+
+/**
+ * One parsed game. {@code game.gameId()} is the exported id, or -1 if the text had none.
+ *
+ * @param line  the line the game starts on
+ * @param marks per move, the landing hole number written after the origin (0 if omitted),
+ *              plus {@link GameNotation#TUZ_MARK} if the move was marked as declaring a tuz
+ */
+public record NotatedGame(int line, ArchivedGame game, byte[] marks) {
+}
@@ -0,0 +1,25 @@
+package com.toguzkorgool.notation;
+
+/**
+ * Malformed notation. The parser has already skipped to the next game when this is thrown,
+ * so callers may record the error and keep reading.
+ */
+public class NotationException extends RuntimeException {
+
+    private final int line;
+    private final String reason;
+
+    public NotationException(int line, String reason) {
+        super("Line " + line + ": " + reason);
+        this.line = line;
+        this.reason = reason;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
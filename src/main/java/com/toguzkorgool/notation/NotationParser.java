@@ -0,0 +1,333 @@
+package com.toguzkorgool.notation;
+
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.model.Player;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Reads games in {@link GameNotation} one at a time from a character stream.
+ * <p>
+ * The parser scans its own buffer instead of splitting lines, so per game it only allocates the
+ * tag values it keeps and the final move arrays. It checks syntax only; whether the moves are legal
+ * is for the caller to decide by replaying them. Not thread-safe.
+ */
+public final class NotationParser {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_TOKEN = 16;
+    private static final int MAX_TAG_VALUE = 1024;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int line = 1;
+
+    private final StringBuilder tagName = new StringBuilder(16);
+    private final StringBuilder tagValue = new StringBuilder(64);
+    private final char[] token = new char[MAX_TOKEN];
+    private byte[] moves = new byte[256];
+    private byte[] marks = new byte[256];
+
+    private long gameId;
+    private String roomId;
+    private String whiteName;
+    private String whiteId;
+    private String blackName;
+    private String blackId;
+    private String date;
+    private String result;
+    private String termination;
+
+    public NotationParser(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * @return the next game, or null at the end of the input
+     * @throws NotationException if the next game is malformed; the parser is then positioned after it
+     */
+    public NotatedGame next() throws IOException {
+        skipWhitespace();
+        if (peek() < 0) return null;
+        int startLine = line;
+        try {
+            clearTags();
+            while (peek() == '[') {
+                readTag();
+                skipWhitespace();
+            }
+            int count = readMoves();
+            return build(startLine, count);
+        } catch (NotationException e) {
+            skipGame();
+            throw e;
+        }
+    }
+
+    private void clearTags() {
+        gameId = -1;
+        roomId = null;
+        whiteName = null;
+        whiteId = null;
+        blackName = null;
+        blackId = null;
+        date = null;
+        result = null;
+        termination = null;
+    }
+
+    private void readTag() throws IOException {
+        read(); // '['
+        tagName.setLength(0);
+        while (isTagNameChar(peek())) {
+            tagName.append((char) read());
+        }
+        skipSpaces();
+        if (read() != '"') throw error("expected a quoted tag value");
+        tagValue.setLength(0);
+        while (true) {
+            int c = read();
+            if (c < 0 || c == '\n') throw error("unterminated tag value");
+            if (c == '"') break;
+            if (c == '\\') c = read();
+            if (tagValue.length() == MAX_TAG_VALUE) throw error("tag value too long");
+            tagValue.append((char) c);
+        }
+        skipSpaces();
+        if (read() != ']') throw error("expected ']' after tag value");
+        storeTag();
+    }
+
+    private void storeTag() {
+        if (is(GameNotation.TAG_GAME_ID)) {
+            try {
+                gameId = Long.parseLong(tagValue, 0, tagValue.length(), 10);
+            } catch (NumberFormatException e) {
+                throw error("invalid GameId");
+            }
+        } else if (is(GameNotation.TAG_ROOM)) {
+            roomId = tagValue.toString();
+        } else if (is(GameNotation.TAG_WHITE)) {
+            whiteName = tagValue.toString();
+        } else if (is(GameNotation.TAG_WHITE_ID)) {
+            whiteId = tagValue.toString();
+        } else if (is(GameNotation.TAG_BLACK)) {
+            blackName = tagValue.toString();
+        } else if (is(GameNotation.TAG_BLACK_ID)) {
+            blackId = tagValue.toString();
+        } else if (is(GameNotation.TAG_DATE)) {
+            date = tagValue.toString();
+        } else if (is(GameNotation.TAG_RESULT)) {
+            result = tagValue.toString();
+        } else if (is(GameNotation.TAG_TERMINATION)) {
+            termination = tagValue.toString();
+        }
+    }
+
+    private boolean is(String name) {
+        return tagName.length() == name.length() && name.contentEquals(tagName);
+    }
+
+    /**
+     * Reads move text up to and including the result token.
+     *
+     * @return the number of moves
+     */
+    private int readMoves() throws IOException {
+        int count = 0;
+        while (true) {
+            skipWhitespace();
+            int c = peek();
+            if (c < 0) throw error("missing result at end of game");
+            if (c == '{') {
+                skipComment();
+                continue;
+            }
+            if (c == ';') {
+                skipLine();
+                continue;
+            }
+
+            int length = readToken();
+            String tokenResult = resultToken(length);
+            if (tokenResult != null) {
+                if (result != null && !result.equals(tokenResult)) {
+                    throw error("result " + tokenResult + " does not match Result tag " + result);
+                }
+                result = tokenResult;
+                return count;
+            }
+            if (token[length - 1] == '.') {
+                checkMoveNumber(length, count);
+                continue;
+            }
+            if (count == GameNotation.MAX_MOVES) throw error("too many moves");
+            if (count == moves.length) {
+                moves = Arrays.copyOf(moves, count * 2);
+                marks = Arrays.copyOf(marks, count * 2);
+            }
+            readMove(length, count);
+            count++;
+        }
+    }
+
+    private int readToken() throws IOException {
+        int length = 0;
+        while (true) {
+            int c = peek();
+            if (c < 0 || Character.isWhitespace(c) || c == '{' || c == ';') break;
+            if (length == MAX_TOKEN) throw error("token too long");
+            token[length++] = (char) read();
+        }
+        return length;
+    }
+
+    private String resultToken(int length) {
+        if (length == 1 && token[0] == '*') return "*";
+        if (length == 3 && token[1] == '-') {
+            if (token[0] == '1' && token[2] == '0') return "1-0";
+            if (token[0] == '0' && token[2] == '1') return "0-1";
+        }
+        if (length == 7 && String.valueOf(token, 0, length).equals("1/2-1/2")) return "1/2-1/2";
+        return null;
+    }
+
+    /**
+     * Accepts {@code 12.} before White's move and {@code 12...} before a Black move.
+     */
+    private void checkMoveNumber(int length, int count) {
+        int digits = 0;
+        int number = 0;
+        while (digits < length && token[digits] >= '0' && token[digits] <= '9') {
+            number = number * 10 + token[digits++] - '0';
+        }
+        int dots = length - digits;
+        if (digits == 0 || (dots != 1 && dots != 3)) throw error("malformed move number");
+        if (number != count / 2 + 1 || (dots == 1) != (count % 2 == 0)) {
+            throw error("move number " + number + " out of sequence");
+        }
+    }
+
+    private void readMove(int length, int count) {
+        int from = holeNumber(token[0]);
+        int landing = length > 1 ? holeNumber(token[1]) : 0;
+        boolean tuz = length > 2 && (token[2] == 'X' || token[2] == 'x');
+        if (from == 0 || (length > 1 && landing == 0) || length > 3 || (length == 3 && !tuz)) {
+            throw error("malformed move " + String.valueOf(token, 0, length));
+        }
+        int side = count % 2;
+        moves[count] = (byte) (side * HOLES_PER_PLAYER + from - 1);
+        marks[count] = (byte) (landing | (tuz ? GameNotation.TUZ_MARK : 0));
+    }
+
+    private static int holeNumber(char c) {
+        return c >= '1' && c <= '9' ? c - '0' : 0;
+    }
+
+    private NotatedGame build(int startLine, int count) {
+        String winner;
+        try {
+            winner = GameNotation.winnerOf(result);
+        } catch (IllegalArgumentException e) {
+            throw error("unknown result " + result);
+        }
+        long finishedAt = -1;
+        if (date != null) {
+            try {
+                finishedAt = Instant.parse(date).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                throw error("invalid Date " + date);
+            }
+        }
+        ArchivedGame game = new ArchivedGame(gameId, roomId, player(whiteId, whiteName), player(blackId, blackName),
+                winner, termination, finishedAt, Arrays.copyOf(moves, count));
+        return new NotatedGame(startLine, game, Arrays.copyOf(marks, count));
+    }
+
+    /**
+     * A player with only a name gets the name as id, so imported games still land in a player index.
+     */
+    private static Player player(String id, String name) {
+        if (id == null && name == null) return null;
+        return new Player(id != null ? id : name, name != null ? name : id);
+    }
+
+    private NotationException error(String message) {
+        return new NotationException(line, message);
+    }
+
+    private void skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && Character.isWhitespace(c)) {
+            read();
+        }
+    }
+
+    private void skipSpaces() throws IOException {
+        while (peek() == ' ' || peek() == '\t') {
+            read();
+        }
+    }
+
+    private void skipComment() throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != '}') {
+            // comments may span lines
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != '\n') {
+            // rest of line
+        }
+    }
+
+    /**
+     * Skips to the blank line that ends the current game.
+     */
+    private void skipGame() throws IOException {
+        boolean blank = false;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '\n') {
+                if (blank) return;
+                blank = true;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                blank = false;
+            }
+        }
+    }
+
+    private static boolean isTagNameChar(int c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) return -1;
+        char c = buffer[position++];
+        if (c == '\n') line++;
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) return false;
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
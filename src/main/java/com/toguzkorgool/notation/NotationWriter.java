@@ -0,0 +1,124 @@
+package com.toguzkorgool.notation;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.model.Player;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Writes games in {@link GameNotation} one at a time, so an export never holds more than one game.
+ * The landing holes and tuz marks are recomputed by replaying each game. Not thread-safe.
+ */
+public final class NotationWriter implements Flushable {
+
+    private static final int LINE_WIDTH = 80;
+
+    private final Writer out;
+    private int column;
+
+    /**
+     * @param out destination; should be buffered, the writer emits one character at a time
+     */
+    public NotationWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void write(ArchivedGame game) throws IOException {
+        tag(GameNotation.TAG_GAME_ID, Long.toString(game.gameId()));
+        tag(GameNotation.TAG_ROOM, game.roomId());
+        player(GameNotation.TAG_WHITE, GameNotation.TAG_WHITE_ID, game.white());
+        player(GameNotation.TAG_BLACK, GameNotation.TAG_BLACK_ID, game.black());
+        tag(GameNotation.TAG_DATE, Instant.ofEpochMilli(game.finishedAt()).toString());
+        String result = GameNotation.resultOf(game.winner());
+        tag(GameNotation.TAG_RESULT, result);
+        tag(GameNotation.TAG_TERMINATION, game.reason());
+        out.write('\n');
+
+        column = 0;
+        Position position = Position.initial();
+        byte[] moves = game.moves();
+        for (int i = 0; i < moves.length; i++) {
+            int hole = moves[i];
+            if (i % 2 == 0) {
+                // Keep the move number on the same line as the move
+                separate(digits(i / 2 + 1) + 5);
+                writeNumber(i / 2 + 1);
+                out.write('.');
+                column++;
+            }
+            int summary = position.make(hole);
+            boolean tuz = ToguzKorgoolEngine.isTuzDeclared(summary);
+            separate(tuz ? 3 : 2);
+            out.write('1' + hole % HOLES_PER_PLAYER);
+            out.write('1' + ToguzKorgoolEngine.lastHole(summary) % HOLES_PER_PLAYER);
+            column += 2;
+            if (tuz) {
+                out.write('X');
+                column++;
+            }
+        }
+        separate(result.length());
+        out.write(result);
+        out.write("\n\n");
+    }
+
+    private void player(String nameTag, String idTag, Player player) throws IOException {
+        if (player == null) return;
+        tag(nameTag, player.name());
+        tag(idTag, player.id());
+    }
+
+    private void tag(String name, String value) throws IOException {
+        if (value == null) return;
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') out.write('\\');
+            out.write(c);
+        }
+        out.write("\"]\n");
+    }
+
+    /**
+     * Writes the space or line break before a token of {@code width} characters.
+     */
+    private void separate(int width) throws IOException {
+        if (column == 0) return;
+        if (column + 1 + width > LINE_WIDTH) {
+            out.write('\n');
+            column = 0;
+        } else {
+            out.write(' ');
+            column++;
+        }
+    }
+
+    private void writeNumber(int number) throws IOException {
+        if (number >= 10) writeNumber(number / 10);
+        out.write('0' + number % 10);
+        column++;
+    }
+
+    private static int digits(int number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
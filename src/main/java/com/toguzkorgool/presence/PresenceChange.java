@@ -0,0 +1,7 @@
+package com.toguzkorgool.presence;
+
+/**
+ * A player's first session started or last session stopped watching a room, sent to the room's owner.
+ */
+public record PresenceChange(String roomId, String playerId, boolean online) {
+}
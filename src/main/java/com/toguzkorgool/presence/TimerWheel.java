@@ -0,0 +1,114 @@
+package com.toguzkorgool.presence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: one thread and one periodic task for any number of pending deadlines.
+ * <p>
+ * A key scheduled to expire at tick {@code t} sits in slot {@code t mod slots}; each tick visits one
+ * slot and fires the keys whose deadline has come, leaving those due in a later rotation. Scheduling
+ * and cancelling are map operations with no task objects, and rescheduling a key replaces its
+ * deadline. Deadlines fire up to two ticks late. Expiry handlers run on the wheel thread and should be
+ * short.
+ */
+public final class TimerWheel<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final Set<K>[] slots;
+    private final int mask;
+    private final Map<K, Long> deadlines = new ConcurrentHashMap<>();
+    private final Consumer<K> onExpiry;
+    private final ScheduledExecutorService ticker;
+    private final long origin = System.nanoTime();
+    // The tick being or last processed; written only by the wheel thread
+    private volatile long current;
+
+    /**
+     * @param slots a power of two; deadlines further than {@code slots} ticks away take extra rotations
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String name, long tickMillis, int slots, Consumer<K> onExpiry) {
+        if (Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Timer wheel slots must be a power of two");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.slots = new Set[slots];
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.mask = slots - 1;
+        this.onExpiry = onExpiry;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fires {@code key} after {@code delayMillis}, replacing any deadline it already has.
+     */
+    public void schedule(K key, long delayMillis) {
+        // Two ticks ahead at least, so the key never lands in the slot the wheel thread is visiting
+        long deadline = current + 2 + Math.ceilDiv(TimeUnit.MILLISECONDS.toNanos(delayMillis), tickNanos);
+        deadlines.put(key, deadline);
+        slots[(int) (deadline & mask)].add(key);
+    }
+
+    /**
+     * @return whether the key had a pending deadline
+     */
+    public boolean cancel(K key) {
+        // The slot entry is left behind and dropped when its slot is next visited
+        return deadlines.remove(key) != null;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    private void advance() {
+        long target = (System.nanoTime() - origin) / tickNanos;
+        // Catch up on ticks missed while the thread was delayed
+        for (long tick = current + 1; tick <= target; tick++) {
+            current = tick;
+            int slot = (int) (tick & mask);
+            for (Iterator<K> it = slots[slot].iterator(); it.hasNext(); ) {
+                K key = it.next();
+                Long deadline = deadlines.get(key);
+                if (deadline == null || (deadline & mask) != slot) {
+                    it.remove();
+                } else if (deadline <= tick) {
+                    it.remove();
+                    if (deadlines.remove(key, deadline)) fire(key);
+                }
+            }
+        }
+    }
+
+    private void fire(K key) {
+        try {
+            onExpiry.accept(key);
+        } catch (RuntimeException e) {
+            // An exception would cancel the wheel's task and every pending deadline with it
+            log.error("Timer wheel expiry failed for {}", key, e);
+        }
+    }
+
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,255 @@
+package com.toguzkorgool.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drops client messages over the rate limits before they reach a controller.
+ * <p>
+ * Every message a session sends takes a token from the session's bucket. Announcements that are only
+ * rebroadcast to the room (chat, draw offers, new-game requests) also take one from the room's bucket,
+ * so a room cannot be flooded by spreading the messages over many sessions; an announcement whose room
+ * cannot be read from the payload counts as over the limit. Over-limit messages are dropped silently
+ * and counted in {@code toguzkorgool.ratelimit.dropped}; answering each one would cost the outbound
+ * channel what the limit saves on the inbound one.
+ * <p>
+ * Meters are registered directly rather than through {@code GameMetrics}, which depends on the channel
+ * executors this interceptor is configured into.
+ */
+@Component
+public class InboundRateLimiter implements ChannelInterceptor {
+
+    private static final Set<String> ROOM_ANNOUNCEMENTS = Set.of("/app/game.chat", "/app/game.draw.offer",
+            "/app/game.new");
+    private static final String ROOM_ID_FIELD = "roomId";
+    private static final int MAX_ROOM_ID = 128;
+
+    private final boolean enabled;
+    private final TokenBuckets sessions;
+    private final TokenBuckets rooms;
+    private final Counter sessionDrops;
+    private final Counter roomDrops;
+    private final ScheduledExecutorService sweeper;
+
+    public InboundRateLimiter(MeterRegistry registry,
+                              @Value("${toguzkorgool.rate-limit.enabled:true}") boolean enabled,
+                              @Value("${toguzkorgool.rate-limit.session.capacity:40}") int sessionCapacity,
+                              @Value("${toguzkorgool.rate-limit.session.per-second:20}") double sessionPerSecond,
+                              @Value("${toguzkorgool.rate-limit.room.capacity:20}") int roomCapacity,
+                              @Value("${toguzkorgool.rate-limit.room.per-second:5}") double roomPerSecond,
+                              @Value("${toguzkorgool.rate-limit.sweep-interval-ms:30000}") long sweepIntervalMillis) {
+        this.enabled = enabled;
+        this.sessions = new TokenBuckets(sessionCapacity, sessionPerSecond);
+        this.rooms = new TokenBuckets(roomCapacity, roomPerSecond);
+        this.sessionDrops = dropCounter(registry, "session");
+        this.roomDrops = dropCounter(registry, "room");
+        Gauge.builder("toguzkorgool.ratelimit.buckets", sessions, TokenBuckets::size)
+                .description("Token buckets in use")
+                .tag("scope", "session")
+                .register(registry);
+        Gauge.builder("toguzkorgool.ratelimit.buckets", rooms, TokenBuckets::size)
+                .description("Token buckets in use")
+                .tag("scope", "room")
+                .register(registry);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            // Disconnected sessions are removed at once; idle room buckets wait for the sweep
+            sweeper.scheduleWithFixedDelay(rooms::sweep, sweepIntervalMillis, sweepIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Counter dropCounter(MeterRegistry registry, String scope) {
+        return Counter.builder("toguzkorgool.ratelimit.dropped")
+                .description("Inbound STOMP messages dropped by the rate limiter")
+                .tag("scope", scope)
+                .register(registry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!enabled) return message;
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) return message;
+
+        if (type == SimpMessageType.DISCONNECT) {
+            sessions.remove(sessionId);
+            return message;
+        }
+        if (type != SimpMessageType.MESSAGE) return message;
+
+        if (!sessions.tryTake(sessionId)) {
+            sessionDrops.increment();
+            return null;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null && ROOM_ANNOUNCEMENTS.contains(destination)
+                && message.getPayload() instanceof byte[] payload) {
+            // A message whose room cannot be determined is dropped too, or it would escape the room limit
+            String roomId = roomIdOf(payload);
+            if (roomId == null || !rooms.tryTake(roomId)) {
+                roomDrops.increment();
+                return null;
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Finds the top-level {@code roomId} string in a JSON object without building a tree. Keys and the
+     * value are unescaped, and a repeated key yields its last value, as when the payload is bound to a
+     * message record, so the bucket charged is the room the controller acts on.
+     *
+     * @return the room id, or null if the payload is not an object with a string {@code roomId} of at most
+     * {@value #MAX_ROOM_ID} characters
+     */
+    static String roomIdOf(byte[] json) {
+        JsonScanner scanner = new JsonScanner(json);
+        String roomId = null;
+        try {
+            if (!scanner.consume('{')) return null;
+            if (scanner.consume('}')) return null;
+            do {
+                String key = scanner.readString();
+                if (!scanner.consume(':')) return null;
+                if (key.equals(ROOM_ID_FIELD)) {
+                    if (scanner.peek() != '"') return null;
+                    roomId = scanner.readString();
+                } else {
+                    scanner.skipValue();
+                }
+            } while (scanner.consume(','));
+            if (!scanner.consume('}')) return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return roomId != null && roomId.length() <= MAX_ROOM_ID ? roomId : null;
+    }
+
+    /**
+     * Just enough of a JSON tokenizer to walk the fields of one object. Malformed input throws
+     * {@link IllegalArgumentException}.
+     */
+    private static final class JsonScanner {
+
+        private final byte[] data;
+        private int position;
+
+        JsonScanner(byte[] data) {
+            this.data = data;
+        }
+
+        int peek() {
+            skipSpaces();
+            return position < data.length ? data[position] : -1;
+        }
+
+        boolean consume(char c) {
+            if (peek() != c) return false;
+            position++;
+            return true;
+        }
+
+        String readString() {
+            if (!consume('"')) throw new IllegalArgumentException("expected a string");
+            StringBuilder value = new StringBuilder();
+            int run = position;
+            while (true) {
+                if (position == data.length) throw new IllegalArgumentException("unterminated string");
+                byte b = data[position];
+                if (b == '"') {
+                    value.append(new String(data, run, position - run, StandardCharsets.UTF_8));
+                    position++;
+                    return value.toString();
+                }
+                if (b != '\\') {
+                    position++;
+                    continue;
+                }
+                value.append(new String(data, run, position - run, StandardCharsets.UTF_8));
+                if (position + 1 == data.length) throw new IllegalArgumentException("unterminated escape");
+                byte escape = data[position + 1];
+                position += 2;
+                switch (escape) {
+                    case '"', '\\', '/' -> value.append((char) escape);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > data.length) throw new IllegalArgumentException("short unicode escape");
+                        String hex = new String(data, position, 4, StandardCharsets.US_ASCII);
+                        value.append((char) Integer.parseInt(hex, 16));
+                        position += 4;
+                    }
+                    default -> throw new IllegalArgumentException("invalid escape");
+                }
+                run = position;
+            }
+        }
+
+        void skipValue() {
+            int c = peek();
+            if (c == '"') {
+                readString();
+            } else if (c == '{' || c == '[') {
+                char close = c == '{' ? '}' : ']';
+                position++;
+                if (consume(close)) return;
+                do {
+                    if (close == '}') {
+                        readString();
+                        if (!consume(':')) throw new IllegalArgumentException("expected ':'");
+                    }
+                    skipValue();
+                } while (consume(','));
+                if (!consume(close)) throw new IllegalArgumentException("unterminated " + (char) c);
+            } else {
+                // Number or literal
+                int start = position;
+                while (position < data.length && data[position] != ',' && data[position] != '}'
+                        && data[position] != ']' && !isSpace(data[position])) {
+                    position++;
+                }
+                if (position == start) throw new IllegalArgumentException("expected a value");
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < data.length && isSpace(data[position])) {
+                position++;
+            }
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,97 @@
+package com.toguzkorgool.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by string, all with the same capacity and refill rate.
+ * <p>
+ * Each bucket is a single {@code long} updated by compare-and-set: the upper bits hold the time of the
+ * last take in milliseconds since this table was created, the low {@value #TOKEN_BITS} bits the tokens
+ * left in thousandths. Refill is computed from the elapsed time on the next take, so an empty bucket is
+ * rejected without any write. A bucket that has refilled to capacity is the same as no bucket, which is
+ * what {@link #sweep()} relies on to keep the table small.
+ */
+public final class TokenBuckets {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    /** Largest capacity whose thousandths fit in the token bits. */
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLI);
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long capacityMilli;
+    private final double refillMilliPerMilli;
+    private final long fullAfterMillis;
+    private final long origin = System.currentTimeMillis();
+
+    /**
+     * @param capacity        the burst size, at most {@link #MAX_CAPACITY}
+     * @param refillPerSecond tokens added per second
+     */
+    public TokenBuckets(int capacity, double refillPerSecond) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Token bucket capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Token bucket refill rate must be positive");
+        }
+        this.capacityMilli = capacity * MILLI;
+        // thousandths of a token per millisecond is tokens per second
+        this.refillMilliPerMilli = refillPerSecond;
+        this.fullAfterMillis = (long) Math.ceil(capacityMilli / refillMilliPerMilli);
+    }
+
+    /**
+     * Takes one token from the key's bucket, creating a full bucket for an unknown key.
+     *
+     * @return false if the bucket is empty
+     */
+    public boolean tryTake(String key) {
+        long now = System.currentTimeMillis() - origin;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacityMilli)));
+        }
+        while (true) {
+            long state = bucket.get();
+            long tokens = available(state, now);
+            if (tokens < MILLI) return false;
+            if (bucket.compareAndSet(state, pack(Math.max(now, state >>> TOKEN_BITS), tokens - MILLI))) {
+                return true;
+            }
+        }
+    }
+
+    public void remove(String key) {
+        buckets.remove(key);
+    }
+
+    /**
+     * Drops buckets that have refilled to capacity. A take racing with its bucket's removal may go
+     * uncounted, which only ever errs towards letting a message through.
+     */
+    public void sweep() {
+        long now = System.currentTimeMillis() - origin;
+        buckets.entrySet().removeIf(entry -> available(entry.getValue().get(), now) >= capacityMilli);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private long available(long state, long now) {
+        long last = state >>> TOKEN_BITS;
+        long tokens = state & TOKEN_MASK;
+        long elapsed = now - last;
+        if (elapsed <= 0) return tokens;
+        if (elapsed >= fullAfterMillis) return capacityMilli;
+        return Math.min(capacityMilli, tokens + (long) (elapsed * refillMilliPerMilli));
+    }
+
+    private static long pack(long millis, long tokensMilli) {
+        return millis << TOKEN_BITS | tokensMilli;
+    }
+}
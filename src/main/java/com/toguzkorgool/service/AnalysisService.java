@@ -0,0 +1,114 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.response.AnalysisResponse;
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.Search;
+import com.toguzkorgool.engine.SearchResult;
+import com.toguzkorgool.engine.book.BookMove;
+import com.toguzkorgool.engine.tablebase.Tablebase;
+import com.toguzkorgool.exception.EngineBusyException;
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.storage.AnalysisCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Computes move hints on the {@link EnginePool} ahead of background work. Results are cached by position
+ * hash across rooms, and concurrent requests for a position that is already being analysed share that
+ * computation. Both are keyed by the opening book generation too, so reloading the book retires hints
+ * taken from the old one.
+ */
+@Service
+public class AnalysisService {
+
+    private final GameService gameService;
+    private final OpeningBookService openingBookService;
+    private final Tablebase tablebase;
+    private final AnalysisCache cache;
+    private final int depth;
+    private final long timeLimitMillis;
+    private final EnginePool enginePool;
+    private final Map<InFlightKey, CompletableFuture<AnalysisResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public AnalysisService(GameService gameService, OpeningBookService openingBookService,
+                           Tablebase tablebase, AnalysisCache cache, EnginePool enginePool,
+                           @Value("${toguzkorgool.analysis.depth:12}") int depth,
+                           @Value("${toguzkorgool.analysis.time-limit-ms:500}") long timeLimitMillis) {
+        this.gameService = gameService;
+        this.openingBookService = openingBookService;
+        this.tablebase = tablebase;
+        this.cache = cache;
+        this.depth = depth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.enginePool = enginePool;
+    }
+
+    public CompletableFuture<AnalysisResponse> analyze(String roomId) {
+        GameState state = gameService.getGameState(roomId);
+        Position position;
+        synchronized (state) {
+            if (state.isGameOver()) {
+                return CompletableFuture.completedFuture(new AnalysisResponse(-1, null, 0, "GAME_OVER"));
+            }
+            position = Position.of(state);
+        }
+
+        long hash = position.hash();
+        // Read before probing the book, so a reload during the search leaves the result under an older generation
+        int bookGeneration = openingBookService.generation();
+        AnalysisResponse cached = cache.get(hash, bookGeneration);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        InFlightKey key = new InFlightKey(hash, bookGeneration);
+        CompletableFuture<AnalysisResponse> created = new CompletableFuture<>();
+        CompletableFuture<AnalysisResponse> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            enginePool.execute(EnginePool.Priority.LIVE, search -> {
+                try {
+                    AnalysisResponse response = compute(search, position);
+                    cache.put(hash, bookGeneration, response);
+                    created.complete(response);
+                } catch (RuntimeException e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(new EngineBusyException());
+        }
+        return created;
+    }
+
+    private record InFlightKey(long hash, int bookGeneration) {
+    }
+
+    private AnalysisResponse compute(Search search, Position position) {
+        BookMove bookMove = openingBookService.probe(position);
+        if (bookMove != null) {
+            return new AnalysisResponse(bookMove.hole(), null, 0, "BOOK");
+        }
+
+        int tablebaseMove = tablebase.bestMove(position);
+        if (tablebaseMove >= 0) {
+            int wdl = tablebase.probe(position);
+            int score = wdl == Tablebase.WIN ? Search.WIN_VALUE : wdl == Tablebase.LOSS ? -Search.WIN_VALUE : 0;
+            return new AnalysisResponse(tablebaseMove, score, 0, "TABLEBASE");
+        }
+
+        SearchResult result = search.search(position, depth, timeLimitMillis);
+        return new AnalysisResponse(result.bestMove(), result.score(), result.depth(), "SEARCH");
+    }
+}
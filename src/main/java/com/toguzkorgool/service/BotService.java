@@ -0,0 +1,156 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.SearchResult;
+import com.toguzkorgool.event.MovePlayedEvent;
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.enums.MoveError;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the moves of engine players. A seated bot gets a search on the {@link EnginePool} whenever it
+ * is its turn, so any number of bot boards share the pool's workers and no room has a thread or
+ * scheduled task of its own. Bot searches queue behind live hints but ahead of post-game review.
+ * A move that cannot be queued or played is retried with backoff, and the bot resigns if it keeps
+ * failing.
+ */
+@Service
+public class BotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BotService.class);
+
+    private final GameService gameService;
+    private final EnginePool enginePool;
+    private final int depth;
+    private final long timeLimitMillis;
+    private final int maxRetries;
+    private final long retryDelayMillis;
+    private final ScheduledExecutorService retries;
+    // Room id to the bot player id for each side, null for a human
+    private final Map<String, String[]> seats = new ConcurrentHashMap<>();
+
+    public BotService(GameService gameService, EnginePool enginePool,
+                      @Value("${toguzkorgool.tournament.bot-depth:8}") int depth,
+                      @Value("${toguzkorgool.tournament.bot-time-limit-ms:100}") long timeLimitMillis,
+                      @Value("${toguzkorgool.tournament.bot-retries:5}") int maxRetries,
+                      @Value("${toguzkorgool.tournament.bot-retry-delay-ms:200}") long retryDelayMillis) {
+        this.gameService = gameService;
+        this.enginePool = enginePool;
+        this.depth = depth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxRetries = maxRetries;
+        this.retryDelayMillis = retryDelayMillis;
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bot-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Seats bots in a room; either player id may be null for a human.
+     */
+    public void seat(String roomId, String whiteBot, String blackBot) {
+        if (whiteBot == null && blackBot == null) return;
+        seats.put(roomId, new String[]{whiteBot, blackBot});
+    }
+
+    public void unseat(String roomId) {
+        seats.remove(roomId);
+    }
+
+    @EventListener
+    public void onMovePlayed(MovePlayedEvent event) {
+        play(event.state());
+    }
+
+    /**
+     * Queues a move if it is a bot's turn in the game.
+     */
+    public void play(GameState state) {
+        play(state, 0);
+    }
+
+    private void play(GameState state, int failures) {
+        String[] bots = seats.get(state.getRoomId());
+        if (bots == null) return;
+
+        String roomId = state.getRoomId();
+        String botId;
+        Position position;
+        int moveNumber;
+        synchronized (state) {
+            if (state.isGameOver()) return;
+            botId = bots[state.getCurrentPlayer().getIndex()];
+            if (botId == null) return;
+            position = Position.of(state);
+            moveNumber = state.getMoveNumber();
+        }
+
+        try {
+            enginePool.execute(EnginePool.Priority.BOT, search -> {
+                try {
+                    SearchResult result = search.search(position, depth, timeLimitMillis);
+                    GameService.MoveResult move = gameService.submitMove(roomId, botId, result.bestMove(),
+                            moveNumber, null);
+                    if (move.error() == MoveError.GAME_PAUSED) {
+                        // Resuming publishes no move, so keep trying until the game goes on
+                        retry(state, failures, retryDelayMillis << maxRetries);
+                    } else if (move.isRejected() && move.error() != MoveError.STALE_MOVE
+                            && move.error() != MoveError.GAME_OVER) {
+                        failed(state, botId, failures, move.error().getMessage());
+                    }
+                } catch (RuntimeException e) {
+                    failed(state, botId, failures, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            failed(state, botId, failures, "engine queue full");
+        }
+    }
+
+    /**
+     * Tries the move again with exponential backoff; a bot that keeps failing resigns, so that an
+     * untimed game, such as a tournament game without a clock, still ends.
+     */
+    private void failed(GameState state, String botId, int failures, String reason) {
+        String roomId = state.getRoomId();
+        if (failures < maxRetries) {
+            log.warn("Bot {} could not move in room {} ({}), retrying", botId, roomId, reason);
+            retry(state, failures + 1, retryDelayMillis << failures);
+            return;
+        }
+        log.error("Bot {} could not move in room {} after {} retries ({}), resigning", botId, roomId,
+                maxRetries, reason);
+        try {
+            gameService.resign(roomId, botId);
+        } catch (RuntimeException e) {
+            log.warn("Bot {} could not resign in room {}: {}", botId, roomId, e.getMessage());
+        }
+    }
+
+    private void retry(GameState state, int failures, long delayMillis) {
+        try {
+            retries.schedule(() -> play(state, failures), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+    }
+}
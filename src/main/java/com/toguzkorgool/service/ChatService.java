@@ -0,0 +1,108 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.request.ChatMessage;
+import com.toguzkorgool.dto.response.ChatBatchMessage;
+import com.toguzkorgool.dto.response.ChatHistoryResponse;
+import com.toguzkorgool.metrics.GameMetrics;
+import com.toguzkorgool.model.ChatLine;
+import com.toguzkorgool.storage.ChatStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room chat with history and batched delivery.
+ * <p>
+ * Each line is added to the room's {@link ChatStore} history and to the room's pending batch. The
+ * first line of a batch schedules its flush {@code batch-window-ms} later, so a burst of lines reaches
+ * subscribers as one {@link ChatBatchMessage} instead of one frame per line. Clients fetch the history
+ * when they join and, after reconnecting, the lines since the last sequence number they saw.
+ */
+@Service
+public class ChatService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatService.class);
+
+    private final ChatStore store;
+    private final GameBroadcaster broadcaster;
+    private final ClusterService cluster;
+    private final long batchWindowMillis;
+    private final int maxLength;
+    private final ConcurrentHashMap<String, List<ChatLine>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public ChatService(ChatStore store, GameBroadcaster broadcaster, ClusterService cluster, GameMetrics metrics,
+                       @Value("${toguzkorgool.chat.batch-window-ms:5}") long batchWindowMillis,
+                       @Value("${toguzkorgool.chat.max-length:500}") int maxLength) {
+        this.store = store;
+        this.broadcaster = broadcaster;
+        this.cluster = cluster;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxLength = maxLength;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.gauge("toguzkorgool.chat.bytes", "Estimated heap held by chat histories", store::bytes);
+        metrics.gauge("toguzkorgool.chat.rooms", "Rooms with chat history", store::rooms);
+    }
+
+    /**
+     * Records a line and queues it for the room's next batch. Blank messages are ignored and long ones
+     * cut to {@code max-length}.
+     */
+    public void post(ChatMessage message) {
+        String text = message.message();
+        if (text == null || text.isBlank()) return;
+        if (text.length() > maxLength) {
+            text = text.substring(0, maxLength);
+        }
+        String body = text;
+        long now = System.currentTimeMillis();
+        // Appending inside compute keeps each batch in sequence order
+        pending.compute(message.roomId(), (roomId, batch) -> {
+            if (batch == null) {
+                batch = new ArrayList<>();
+                flusher.schedule(() -> flush(roomId), batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+            batch.add(store.append(roomId, message.playerId(), message.playerName(), body, now));
+            return batch;
+        });
+    }
+
+    private void flush(String roomId) {
+        List<ChatLine> batch = pending.remove(roomId);
+        if (batch == null) return;
+        try {
+            broadcaster.send("/topic/game/" + roomId + "/chat", new ChatBatchMessage(roomId, batch));
+        } catch (RuntimeException e) {
+            log.warn("Failed to deliver {} chat lines to room {}", batch.size(), roomId, e);
+        }
+    }
+
+    public ChatHistoryResponse getHistory(String roomId, long afterSeq) {
+        cluster.checkOwner(roomId);
+        List<ChatLine> lines = store.history(roomId, afterSeq);
+        // Read after the lines, so a line dropped in between shows up as a gap rather than going unnoticed
+        return new ChatHistoryResponse(roomId, store.firstSeq(roomId), lines);
+    }
+
+    public void clear(String roomId) {
+        store.remove(roomId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+}
@@ -0,0 +1,215 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.cluster.ClusterMessage;
+import com.toguzkorgool.cluster.ClusterNodes;
+import com.toguzkorgool.cluster.ClusterTransport;
+import com.toguzkorgool.cluster.HashRing;
+import com.toguzkorgool.config.StompPrincipal;
+import com.toguzkorgool.config.WebSocketConfig;
+import com.toguzkorgool.exception.RoomOwnedElsewhereException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Room ownership across nodes.
+ * <p>
+ * In cluster mode each room belongs to the node the {@link HashRing} maps its id to; that node alone
+ * holds the room's state, clock and game. Client commands that change a room are forwarded to its
+ * owner, and every message sent to STOMP clients is also published to the other nodes, so subscribers
+ * see a room's events whichever node they are connected to. REST requests for a room owned elsewhere
+ * are redirected to the owner. With the broker relay every node already shares one external broker, so
+ * only commands are forwarded. Disabled, every room is local and nothing leaves the process.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+
+    private final boolean enabled;
+    private final boolean fanOut;
+    private final String nodeId;
+    private final List<String> peers;
+    private final Map<String, String> nodeUrls;
+    private final HashRing ring;
+    private final ClusterTransport transport;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Map<String, Command<?>> commands = new ConcurrentHashMap<>();
+
+    private record Command<T>(Class<T> type, BiConsumer<T, Principal> handler) {
+    }
+
+    public ClusterService(ClusterTransport transport, SimpMessagingTemplate messagingTemplate,
+                          @Value("${toguzkorgool.cluster.enabled:false}") boolean enabled,
+                          @Value("${toguzkorgool.cluster.node-id:node-1}") String nodeId,
+                          @Value("${toguzkorgool.cluster.nodes:}") String nodes,
+                          @Value("${toguzkorgool.cluster.node-urls:}") String nodeUrls,
+                          @Value("${toguzkorgool.cluster.virtual-nodes:128}") int virtualNodes,
+                          @Value("${toguzkorgool.broker.mode:simple}") String brokerMode) {
+        this.transport = transport;
+        this.messagingTemplate = messagingTemplate;
+        this.enabled = enabled;
+        this.fanOut = enabled && !WebSocketConfig.BROKER_RELAY.equals(brokerMode);
+        this.nodeId = nodeId;
+        this.nodeUrls = ClusterNodes.parse(nodeUrls);
+
+        List<String> members = new ArrayList<>(ClusterNodes.parse(nodes).keySet());
+        if (!members.contains(nodeId)) members.add(nodeId);
+        this.ring = new HashRing(members, virtualNodes);
+        members.remove(nodeId);
+        this.peers = List.copyOf(members);
+
+        if (enabled) {
+            try {
+                transport.start(nodeId, this::receive);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("Cluster node {} started with peers {}", nodeId, peers);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return whether messages to STOMP clients must be published to the other nodes, i.e. cluster mode
+     * with each node running its own in-memory broker
+     */
+    public boolean isFanOut() {
+        return fanOut;
+    }
+
+    public boolean isLocal(String roomId) {
+        return !enabled || ring.ownerOf(roomId).equals(nodeId);
+    }
+
+    /**
+     * @throws RoomOwnedElsewhereException if another node owns the room
+     */
+    public void checkOwner(String roomId) {
+        if (isLocal(roomId)) return;
+        String owner = ring.ownerOf(roomId);
+        throw new RoomOwnedElsewhereException(roomId, owner, nodeUrls.get(owner));
+    }
+
+    /**
+     * @return {@code base}, or {@code base} with the first numeric suffix that makes the room local, for
+     * rooms the server creates itself and must own, such as tournament boards
+     */
+    public String localRoomId(String base) {
+        if (isLocal(base)) return base;
+        for (int suffix = 1; ; suffix++) {
+            String candidate = base + "~" + suffix;
+            if (isLocal(candidate)) return candidate;
+        }
+    }
+
+    /**
+     * Registers the handler that runs commands of one type forwarded by other nodes.
+     */
+    public <T> void register(String type, Class<T> payloadType, BiConsumer<T, Principal> handler) {
+        commands.put(type, new Command<>(payloadType, handler));
+    }
+
+    /**
+     * Sends a command to the room's owner if that is another node.
+     *
+     * @return true if the command was forwarded and must not run here
+     */
+    public boolean forward(String roomId, String type, Object payload, Principal principal) {
+        if (isLocal(roomId)) return false;
+        transport.send(ring.ownerOf(roomId), new ClusterMessage(ClusterMessage.Kind.COMMAND, nodeId, type,
+                principal != null ? principal.getName() : null, serialize(payload)));
+        return true;
+    }
+
+    /**
+     * Publishes a topic message to the subscribers of all other nodes.
+     */
+    public void publish(String destination, Object payload) {
+        publish(destination, null, payload);
+    }
+
+    /**
+     * Publishes a user message to all other nodes, one of which may hold the user's session.
+     */
+    public void publishToUser(String user, String destination, Object payload) {
+        publish(destination, user, payload);
+    }
+
+    private void publish(String destination, String user, Object payload) {
+        if (peers.isEmpty()) return;
+        ClusterMessage message = new ClusterMessage(ClusterMessage.Kind.EVENT, nodeId, destination, user,
+                serialize(payload));
+        for (String peer : peers) {
+            transport.send(peer, message);
+        }
+    }
+
+    private void receive(ClusterMessage message) {
+        try {
+            switch (message.kind()) {
+                case EVENT -> deliver(message);
+                case COMMAND -> execute(message);
+            }
+        } catch (RuntimeException e) {
+            log.error("Handling {} {} from node {} failed", message.kind(), message.target(), message.origin(), e);
+        }
+    }
+
+    private void deliver(ClusterMessage message) {
+        String destination = message.user() == null ? message.target()
+                : messagingTemplate.getUserDestinationPrefix() + message.user().replace("/", "%2F") + message.target();
+        messagingTemplate.send(destination, jsonMessage(message.body()));
+    }
+
+    private <T> void execute(ClusterMessage message) {
+        @SuppressWarnings("unchecked")
+        Command<T> command = (Command<T>) commands.get(message.target());
+        if (command == null) {
+            log.warn("No handler for command {} forwarded by node {}", message.target(), message.origin());
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        T payload = (T) converter().fromMessage(jsonMessage(message.body()), command.type());
+        command.handler().accept(payload, message.user() != null ? new StompPrincipal(message.user()) : null);
+    }
+
+    private byte[] serialize(Object payload) {
+        Message<?> message = converter().toMessage(payload, null);
+        if (message == null || !(message.getPayload() instanceof byte[] bytes)) {
+            throw new IllegalStateException("Cannot serialize " + payload.getClass().getSimpleName()
+                    + " for the cluster");
+        }
+        return bytes;
+    }
+
+    private static Message<byte[]> jsonMessage(byte[] body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    private MessageConverter converter() {
+        return messagingTemplate.getMessageConverter();
+    }
+}
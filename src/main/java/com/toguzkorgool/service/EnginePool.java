@@ -0,0 +1,120 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.engine.Evaluator;
+import com.toguzkorgool.engine.Search;
+import com.toguzkorgool.engine.tablebase.Tablebase;
+import com.toguzkorgool.metrics.GameMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Engine worker threads shared by everything that searches positions.
+ * <p>
+ * Queued tasks run in {@link Priority} order, then in submission order, so requests for a game that is
+ * still being played never wait behind background work for longer than the tasks already running.
+ * Each priority has its own queue limit. Every worker owns one {@link Search}, whose transposition
+ * table persists across tasks.
+ */
+@Component
+public class EnginePool {
+
+    public enum Priority {
+        /** Hints for games in progress. */
+        LIVE,
+        /** Moves of engine players in tournaments. */
+        BOT,
+        /** Post-game review. */
+        BACKGROUND
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<Search> searches;
+    private final int[] capacities = new int[Priority.values().length];
+    private final AtomicInteger[] queued = new AtomicInteger[Priority.values().length];
+    private final AtomicLong sequence = new AtomicLong();
+
+    public EnginePool(Tablebase tablebase, Supplier<Evaluator> evaluatorFactory, GameMetrics metrics,
+                      @Value("${toguzkorgool.engine.threads:0}") int threads,
+                      @Value("${toguzkorgool.analysis.queue-size:256}") int liveQueueSize,
+                      @Value("${toguzkorgool.tournament.bot-queue-size:16384}") int botQueueSize,
+                      @Value("${toguzkorgool.postgame.queue-size:65536}") int backgroundQueueSize) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.searches = ThreadLocal.withInitial(() -> new Search(evaluatorFactory.get(), tablebase));
+        this.capacities[Priority.LIVE.ordinal()] = liveQueueSize;
+        this.capacities[Priority.BOT.ordinal()] = botQueueSize;
+        this.capacities[Priority.BACKGROUND.ordinal()] = backgroundQueueSize;
+        for (Priority priority : Priority.values()) {
+            AtomicInteger count = new AtomicInteger();
+            queued[priority.ordinal()] = count;
+            metrics.gauge("toguzkorgool.engine.queue." + priority.name().toLowerCase(),
+                    "Engine tasks waiting at " + priority + " priority", count::get);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "engine-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues a task that runs with the worker's search.
+     *
+     * @throws RejectedExecutionException if the queue for this priority is full
+     */
+    public void execute(Priority priority, Consumer<Search> task) {
+        AtomicInteger count = queued[priority.ordinal()];
+        if (count.incrementAndGet() > capacities[priority.ordinal()]) {
+            count.decrementAndGet();
+            throw new RejectedExecutionException("Engine queue full for " + priority);
+        }
+        try {
+            executor.execute(new Task(priority, sequence.getAndIncrement(), task));
+        } catch (RejectedExecutionException e) {
+            count.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+
+        private final Priority priority;
+        private final long sequence;
+        private final Consumer<Search> work;
+
+        Task(Priority priority, long sequence, Consumer<Search> work) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            queued[priority.ordinal()].decrementAndGet();
+            work.accept(searches.get());
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
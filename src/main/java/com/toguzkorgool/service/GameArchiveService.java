@@ -0,0 +1,268 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.response.ArchivedGameResponse;
+import com.toguzkorgool.dto.response.PlayerGamesResponse;
+import com.toguzkorgool.dto.response.PlayerResponse;
+import com.toguzkorgool.dto.response.ReplayFrame;
+import com.toguzkorgool.dto.response.ReplayResponse;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.event.GameFinishedEvent;
+import com.toguzkorgool.metrics.GameMetrics;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.Player;
+import com.toguzkorgool.model.enums.PlayerSide;
+import com.toguzkorgool.storage.GameArchive;
+import com.toguzkorgool.storage.GameStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind archiving of finished games.
+ * <p>
+ * The finishing thread only offers the game to a bounded queue; a single writer thread drains it in
+ * batches into the {@link GameArchive}. Once a game is durable its in-memory state is dropped from the
+ * {@link GameStore} after a grace period, unless a new game has replaced it in the room by then.
+ * If the queue is full the game is simply kept in memory. A batch that fails to write, say on a full
+ * disk, is kept and retried with a doubling delay up to {@code max-retry-delay-ms}; each failure is
+ * counted in {@code toguzkorgool.archive.failures}, and games stay in memory until they are written.
+ * Imported games share the same id sequence.
+ */
+@Service
+public class GameArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameArchiveService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final GameArchive archive;
+    private final GameStore gameStore;
+    private final PositionSearchService positionSearchService;
+    private final GameStatisticsService gameStatisticsService;
+    private final PostGameAnalysisService postGameAnalysisService;
+    private final BlockingQueue<GameFinishedEvent> queue;
+    private final int batchSize;
+    private final long releaseDelaySeconds;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final GameMetrics metrics;
+    private final Thread writer;
+    // Held while assigning ids and appending, shared by the writer thread and imports
+    private final Object appendLock = new Object();
+    private final ScheduledExecutorService releaser;
+    private volatile boolean running = true;
+
+    public GameArchiveService(GameArchive archive, GameStore gameStore, PositionSearchService positionSearchService,
+                              GameStatisticsService gameStatisticsService,
+                              PostGameAnalysisService postGameAnalysisService, GameMetrics metrics,
+                              @Value("${toguzkorgool.archive.queue-size:4096}") int queueSize,
+                              @Value("${toguzkorgool.archive.batch-size:256}") int batchSize,
+                              @Value("${toguzkorgool.archive.release-delay-seconds:600}") long releaseDelaySeconds,
+                              @Value("${toguzkorgool.archive.retry-delay-ms:1000}") long retryDelayMillis,
+                              @Value("${toguzkorgool.archive.max-retry-delay-ms:60000}") long maxRetryDelayMillis) {
+        this.archive = archive;
+        this.gameStore = gameStore;
+        this.positionSearchService = positionSearchService;
+        this.gameStatisticsService = gameStatisticsService;
+        this.postGameAnalysisService = postGameAnalysisService;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.releaseDelaySeconds = releaseDelaySeconds;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        this.metrics = metrics;
+        this.releaser = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-release");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer = new Thread(this::writeLoop, "game-archive");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        metrics.gauge("toguzkorgool.archive.queue", "Finished games waiting to be archived", queue::size);
+    }
+
+    @EventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        if (!queue.offer(event)) {
+            log.warn("Archive queue full, keeping game in room {} in memory only", event.state().getRoomId());
+        }
+    }
+
+    private void writeLoop() {
+        List<GameFinishedEvent> batch = new ArrayList<>(batchSize);
+        long delayMillis = retryDelayMillis;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    GameFinishedEvent first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                write(batch);
+                batch.clear();
+                delayMillis = retryDelayMillis;
+            } catch (IOException e) {
+                metrics.archiveFailure();
+                if (!running) {
+                    log.error("Failed to write {} games to the archive at shutdown; {} more were queued",
+                            batch.size(), queue.size(), e);
+                    return;
+                }
+                // The archive only advances after a successful write, so the same batch can be retried as is
+                log.error("Failed to write {} games to the archive, retrying in {} ms", batch.size(), delayMillis, e);
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delayMillis = Math.min(delayMillis * 2, maxRetryDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                metrics.archiveFailure();
+                log.error("Archiving {} games failed, keeping them in memory only", batch.size(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<GameFinishedEvent> batch) throws IOException {
+        List<ArchivedGame> games;
+        synchronized (appendLock) {
+            games = new ArrayList<>(batch.size());
+            long gameId = archive.size();
+            for (GameFinishedEvent event : batch) {
+                games.add(toArchived(gameId++, event));
+            }
+            append(games);
+        }
+        postGameAnalysisService.submit(games);
+
+        for (GameFinishedEvent event : batch) {
+            GameState state = event.state();
+            releaser.schedule(() -> gameStore.remove(state.getRoomId(), state), releaseDelaySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Appends games from outside the server, such as an import, assigning them the next ids in order.
+     * Room and player histories order games by end time, so older imported games take their place there.
+     */
+    public void importGames(List<ArchivedGame> games) throws IOException {
+        synchronized (appendLock) {
+            long first = archive.size();
+            List<ArchivedGame> numbered = new ArrayList<>(games.size());
+            for (ArchivedGame game : games) {
+                numbered.add(new ArchivedGame(first + numbered.size(), game.roomId(), game.white(), game.black(),
+                        game.winner(), game.reason(), game.finishedAt(), game.moves()));
+            }
+            append(numbered);
+        }
+    }
+
+    private void append(List<ArchivedGame> games) throws IOException {
+        archive.append(games);
+        gameStatisticsService.record(games);
+        try {
+            positionSearchService.index(games);
+        } catch (IOException e) {
+            log.error("Failed to index positions of {} games", games.size(), e);
+        }
+    }
+
+    private static ArchivedGame toArchived(long gameId, GameFinishedEvent event) {
+        GameState state = event.state();
+        synchronized (state) {
+            List<GameState.MoveRecord> history = state.getMoveHistory();
+            byte[] moves = new byte[history.size()];
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = (byte) history.get(i).holeIndex();
+            }
+            return new ArchivedGame(gameId, state.getRoomId(), event.white(), event.black(),
+                    state.getWinner(), state.getGameOverReason(), event.finishedAt(), moves);
+        }
+    }
+
+    public List<ArchivedGameResponse> getRoomGames(String roomId) {
+        return readAll(archive.roomGameIds(roomId));
+    }
+
+    /**
+     * Keyset page of a player's games, newest first. Pass the previous page's cursor as {@code before}.
+     */
+    public PlayerGamesResponse getPlayerGames(String playerId, Long before, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        long[] ids = archive.playerGameIds(playerId, before == null ? Long.MAX_VALUE : before, pageSize);
+        Long next = ids.length == pageSize ? ids[ids.length - 1] : null;
+        return new PlayerGamesResponse(readAll(ids), next);
+    }
+
+    private List<ArchivedGameResponse> readAll(long[] gameIds) {
+        List<ArchivedGameResponse> games = new ArrayList<>(gameIds.length);
+        for (long gameId : gameIds) {
+            games.add(toResponse(read(gameId)));
+        }
+        return games;
+    }
+
+    /**
+     * Replays an archived game through the engine from the initial position.
+     */
+    public ReplayResponse replay(long gameId) {
+        ArchivedGame game = read(gameId);
+        GameState state = new GameState(game.roomId(), 0, false);
+        List<ReplayFrame> frames = new ArrayList<>(game.moves().length);
+        for (byte hole : game.moves()) {
+            int moveNumber = state.getMoveNumber();
+            PlayerSide side = state.getCurrentPlayer();
+            String description = ToguzKorgoolEngine.makeMove(state, side, hole);
+            frames.add(new ReplayFrame(moveNumber, side.getIndex(), hole, description,
+                    Arrays.copyOf(state.getHoles(), state.getHoles().length),
+                    Arrays.copyOf(state.getKazan(), state.getKazan().length),
+                    Arrays.copyOf(state.getTuz(), state.getTuz().length)));
+        }
+        return new ReplayResponse(toResponse(game), frames);
+    }
+
+    private ArchivedGame read(long gameId) {
+        try {
+            return archive.read(gameId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ArchivedGameResponse toResponse(ArchivedGame game) {
+        return new ArchivedGameResponse(game.gameId(), game.roomId(), toPlayer(game.white(), true),
+                toPlayer(game.black(), false), game.winner(), game.reason(), game.moves().length, game.finishedAt());
+    }
+
+    private static PlayerResponse toPlayer(Player player, boolean isHost) {
+        return player == null ? null : new PlayerResponse(player.id(), player.name(), isHost);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        releaser.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.metrics.BrokerSendEvent;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single entry point for messages sent to STOMP clients; each send is recorded as a {@link BrokerSendEvent}.
+ * In cluster mode with the simple broker every message is also published to the clients of the other
+ * nodes through the {@link ClusterService}; with the broker relay the external broker reaches them.
+ */
+@Service
+public class GameBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterService cluster;
+
+    public GameBroadcaster(SimpMessagingTemplate messagingTemplate, ClusterService cluster) {
+        this.messagingTemplate = messagingTemplate;
+        this.cluster = cluster;
+    }
+
+    public void send(String destination, Object payload) {
+        BrokerSendEvent event = new BrokerSendEvent();
+        event.begin();
+        messagingTemplate.convertAndSend(destination, payload);
+        if (cluster.isFanOut()) {
+            cluster.publish(destination, payload);
+        }
+        if (event.shouldCommit()) {
+            event.destination = destination;
+            event.payloadType = payload.getClass().getSimpleName();
+            event.commit();
+        }
+    }
+
+    public void sendToUser(String user, String destination, Object payload) {
+        BrokerSendEvent event = new BrokerSendEvent();
+        event.begin();
+        messagingTemplate.convertAndSendToUser(user, destination, payload);
+        if (cluster.isFanOut()) {
+            cluster.publishToUser(user, destination, payload);
+        }
+        if (event.shouldCommit()) {
+            event.destination = "/user/" + user + destination;
+            event.payloadType = payload.getClass().getSimpleName();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.response.ImportError;
+import com.toguzkorgool.dto.response.ImportResponse;
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.notation.GameNotation;
+import com.toguzkorgool.notation.NotatedGame;
+import com.toguzkorgool.notation.NotationException;
+import com.toguzkorgool.notation.NotationParser;
+import com.toguzkorgool.notation.NotationWriter;
+import com.toguzkorgool.storage.GameArchive;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Imports and exports archived games in {@link GameNotation}.
+ * <p>
+ * An import is a pipeline: the request thread parses batches and hands each to a validation pool
+ * that replays the games through the engine, then appends the batches to the archive in input order
+ * as they complete. At most two batches per validator are in flight, so an import of any size runs in
+ * bounded memory. Invalid games are skipped and reported by line. Exports stream straight from the
+ * archive one game at a time.
+ */
+@Service
+public class GameNotationService {
+
+    private static final String IMPORT_ROOM = "import";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final GameArchive archive;
+    private final GameArchiveService gameArchiveService;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final ExecutorService validators;
+
+    public GameNotationService(GameArchive archive, GameArchiveService gameArchiveService,
+                               @Value("${toguzkorgool.notation.import-batch-size:1024}") int batchSize,
+                               @Value("${toguzkorgool.notation.import-threads:0}") int threads) {
+        this.archive = archive;
+        this.gameArchiveService = gameArchiveService;
+        this.batchSize = batchSize;
+        int validatorCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = validatorCount * 2;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.validators = Executors.newFixedThreadPool(validatorCount, runnable -> {
+            Thread thread = new Thread(runnable, "notation-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ImportResponse importGames(InputStream body) throws IOException {
+        NotationParser parser = new NotationParser(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ImportReport report = new ImportReport();
+        Deque<Future<ValidatedBatch>> pending = new ArrayDeque<>();
+        List<NotatedGame> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                NotatedGame game;
+                try {
+                    game = parser.next();
+                } catch (NotationException e) {
+                    report.reject(e.getLine(), e.getReason());
+                    continue;
+                }
+                if (game == null) break;
+                batch.add(game);
+                if (batch.size() == batchSize) {
+                    submit(batch, pending, report);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, pending, report);
+            }
+            while (!pending.isEmpty()) {
+                store(pending.poll(), report);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+        return report.toResponse();
+    }
+
+    private void submit(List<NotatedGame> batch, Deque<Future<ValidatedBatch>> pending, ImportReport report)
+            throws IOException {
+        if (pending.size() == maxInFlight) {
+            store(pending.poll(), report);
+        }
+        pending.add(validators.submit(() -> validate(batch)));
+    }
+
+    private void store(Future<ValidatedBatch> future, ImportReport report) throws IOException {
+        ValidatedBatch batch;
+        try {
+            batch = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import validation failed", e.getCause());
+        }
+        batch.errors().forEach(error -> report.reject(error.line(), error.message()));
+        if (!batch.games().isEmpty()) {
+            gameArchiveService.importGames(batch.games());
+            report.imported(batch.games().size());
+        }
+    }
+
+    private static ValidatedBatch validate(List<NotatedGame> batch) {
+        List<ArchivedGame> games = new ArrayList<>(batch.size());
+        List<ImportError> errors = new ArrayList<>();
+        for (NotatedGame notated : batch) {
+            String error = check(notated);
+            if (error != null) {
+                errors.add(new ImportError(notated.line(), error));
+                continue;
+            }
+            ArchivedGame game = notated.game();
+            games.add(new ArchivedGame(-1, game.roomId() != null ? game.roomId() : IMPORT_ROOM, game.white(),
+                    game.black(), game.winner(), game.reason(),
+                    game.finishedAt() >= 0 ? game.finishedAt() : System.currentTimeMillis(), game.moves()));
+        }
+        return new ValidatedBatch(games, errors);
+    }
+
+    /**
+     * Replays a game and checks every move, the written landing holes and tuz marks, and the result.
+     *
+     * @return why the game is invalid, or null
+     */
+    private static String check(NotatedGame notated) {
+        ArchivedGame game = notated.game();
+        if (game.winner() == null) {
+            return "unfinished games cannot be imported";
+        }
+        byte[] moves = game.moves();
+        byte[] marks = notated.marks();
+        Position position = Position.initial();
+        for (int i = 0; i < moves.length; i++) {
+            if (!position.isLegal(moves[i])) {
+                return (position.isTerminal() ? "moves after the end of the game at " : "illegal move at ")
+                        + moveName(i);
+            }
+            int summary = position.make(moves[i]);
+            int landing = marks[i] & GameNotation.LANDING_MASK;
+            if (landing != 0 && landing != ToguzKorgoolEngine.lastHole(summary) % HOLES_PER_PLAYER + 1) {
+                return "wrong landing hole at " + moveName(i);
+            }
+            if (((marks[i] & GameNotation.TUZ_MARK) != 0) != ToguzKorgoolEngine.isTuzDeclared(summary)) {
+                return "wrong tuz mark at " + moveName(i);
+            }
+        }
+        if (position.isTerminal()) {
+            if (!ToguzKorgoolEngine.winnerOf(position.result()).equals(game.winner())) {
+                return "result does not match the final position";
+            }
+        } else if (game.reason() == null && !"DRAW".equals(game.winner())) {
+            return "game ends before a decisive position without a Termination tag";
+        }
+        return null;
+    }
+
+    private static String moveName(int ply) {
+        return (ply / 2 + 1) + (ply % 2 == 0 ? "." : "...");
+    }
+
+    /**
+     * Writes archived games with ids in {@code [from, to)} as notation.
+     */
+    public void exportGames(long from, long to, OutputStream out) throws IOException {
+        NotationWriter writer = new NotationWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16));
+        long end = Math.min(to, archive.size());
+        for (long gameId = Math.max(0, from); gameId < end; gameId++) {
+            writer.write(archive.read(gameId));
+        }
+        writer.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validators.shutdownNow();
+    }
+
+    private record ValidatedBatch(List<ArchivedGame> games, List<ImportError> errors) {
+    }
+
+    /**
+     * Totals of one import; only touched by the request thread.
+     */
+    private static final class ImportReport {
+
+        private final List<ImportError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, message));
+            }
+        }
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        ImportResponse toResponse() {
+            errors.sort(Comparator.comparingInt(ImportError::line));
+            return new ImportResponse(imported, rejected, errors);
+        }
+    }
+}
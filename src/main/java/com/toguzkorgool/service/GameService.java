@@ -4,17 +4,26 @@ import com.toguzkorgool.dto.response.GameEventMessage;
 import com.toguzkorgool.dto.response.GameStateResponse;
 import com.toguzkorgool.dto.response.MoveHistoryResponse;
 import com.toguzkorgool.dto.response.MoveRecord;
+import com.toguzkorgool.dto.response.UndoDelta;
+import com.toguzkorgool.dto.response.UndoEventMessage;
 import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.event.GameFinishedEvent;
+import com.toguzkorgool.event.MovePlayedEvent;
 import com.toguzkorgool.exception.GameNotStartedException;
 import com.toguzkorgool.exception.InvalidMoveException;
-import com.toguzkorgool.exception.NotPlayerTurnException;
 import com.toguzkorgool.exception.PlayerNotFoundException;
+import com.toguzkorgool.exception.UndoNotAllowedException;
+import com.toguzkorgool.metrics.GameMetrics;
+import com.toguzkorgool.metrics.MoveEvent;
+import com.toguzkorgool.metrics.StateSerializationEvent;
 import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.MoveDelta;
 import com.toguzkorgool.model.Room;
+import com.toguzkorgool.model.enums.MoveError;
 import com.toguzkorgool.model.enums.PlayerSide;
 import com.toguzkorgool.model.enums.RoomStatus;
 import com.toguzkorgool.storage.GameStore;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
@@ -28,14 +37,21 @@ public class GameService {
     private final GameStore gameStore;
     private final RoomService roomService;
     private final TimerService timerService;
-    private final SimpMessagingTemplate messagingTemplate;
-
-    public GameService(GameStore gameStore, RoomService roomService,
-                       TimerService timerService, SimpMessagingTemplate messagingTemplate) {
+    private final GameBroadcaster broadcaster;
+    private final GameMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterService cluster;
+
+    public GameService(GameStore gameStore, RoomService roomService, TimerService timerService,
+                       GameBroadcaster broadcaster, GameMetrics metrics, ApplicationEventPublisher eventPublisher,
+                       ClusterService cluster) {
         this.gameStore = gameStore;
         this.roomService = roomService;
         this.timerService = timerService;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcaster = broadcaster;
+        this.metrics = metrics;
+        this.eventPublisher = eventPublisher;
+        this.cluster = cluster;
     }
 
     public GameStateResponse startGame(String roomId) {
@@ -54,7 +70,7 @@ public class GameService {
 
             GameStateResponse response = toGameStateResponse(state);
 
-            messagingTemplate.convertAndSend("/topic/game/" + roomId,
+            broadcaster.send("/topic/game/" + roomId,
                     new GameEventMessage("GAME_STARTED", response));
 
             if (state.isTimerEnabled()) {
@@ -65,51 +81,142 @@ public class GameService {
         }
     }
 
+    /**
+     * Outcome of {@link #submitMove}: the new state, or why the move was refused.
+     *
+     * @param state     the state after the move, or the unchanged state for a repeated submission; null if
+     *                  refused
+     * @param duplicate the submission repeated a move that was already applied
+     */
+    public record MoveResult(GameStateResponse state, MoveError error, boolean duplicate) {
+
+        private static final MoveResult[] REJECTIONS = new MoveResult[MoveError.values().length];
+
+        static {
+            for (MoveError error : MoveError.values()) {
+                REJECTIONS[error.ordinal()] = new MoveResult(null, error, false);
+            }
+        }
+
+        static MoveResult rejected(MoveError error) {
+            return REJECTIONS[error.ordinal()];
+        }
+
+        public boolean isRejected() {
+            return error != null;
+        }
+    }
+
+    /**
+     * @throws InvalidMoveException if the move is refused
+     */
     public GameStateResponse makeMove(String roomId, String playerId, int holeIndex) {
+        MoveResult result = submitMove(roomId, playerId, holeIndex, null, null);
+        if (result.isRejected()) {
+            throw InvalidMoveException.of(result.error());
+        }
+        return result.state();
+    }
+
+    /**
+     * Plays a move unless it is a repeat: a submission whose client sequence number was among the
+     * room's last moves is answered with the current state and changes nothing. An illegal move is
+     * reported in the result rather than thrown, since clients send them routinely.
+     *
+     * @param expectedMoveNumber if set, the move is refused as {@link MoveError#STALE_MOVE} when the game is
+     *                           no longer at this move
+     * @param clientSeq          the client's sequence number for this submission, or null
+     */
+    public MoveResult submitMove(String roomId, String playerId, int holeIndex, Integer expectedMoveNumber,
+                                 Long clientSeq) {
         GameState state = getGameState(roomId);
         Room room = roomService.getRoom(roomId);
 
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        long requested = System.nanoTime();
         synchronized (state) {
-            if (state.isGameOver()) {
-                throw new InvalidMoveException("Game is already over");
-            }
-
+            long locked = System.nanoTime();
             PlayerSide side = getPlayerSide(room, playerId);
-            if (state.getCurrentPlayer() != side) {
-                throw new NotPlayerTurnException();
+            if (clientSeq != null && state.isRecentMove(side, clientSeq)) {
+                metrics.duplicateMove();
+                return new MoveResult(toGameStateResponse(state), null, true);
+            }
+            MoveError error = state.getPausedBy() != null && !state.isGameOver() ? MoveError.GAME_PAUSED
+                    : expectedMoveNumber != null && expectedMoveNumber != state.getMoveNumber()
+                    && !state.isGameOver() ? MoveError.STALE_MOVE
+                    : ToguzKorgoolEngine.checkMove(state, side, holeIndex);
+            if (error != null) {
+                metrics.rejectedMove(error);
+                return MoveResult.rejected(error);
             }
 
             int moveNum = state.getMoveNumber();
+            int[] before = state.isUndoEnabled() ? MoveDelta.snapshot(state) : null;
             String description = ToguzKorgoolEngine.makeMove(state, side, holeIndex);
 
             // Record move in history
             state.getMoveHistory().add(new GameState.MoveRecord(
                     moveNum, side.getIndex(), holeIndex, description));
+            if (clientSeq != null) {
+                state.addRecentMove(side, clientSeq);
+            }
 
             // Handle timer
             if (state.isTimerEnabled() && !state.isGameOver()) {
                 timerService.switchTimer(roomId);
             }
+            if (state.getUndoRequestedBy() != null) {
+                state.setUndoRequestedBy(null);
+            }
+            if (before != null && !state.isGameOver()) {
+                state.pushUndo(MoveDelta.between(before, state));
+            }
             if (state.isGameOver()) {
                 timerService.cancelTimer(roomId);
                 room.setStatus(RoomStatus.FINISHED);
+                publishFinished(room, state);
             }
 
             GameStateResponse response = toGameStateResponse(state);
+            long moved = System.nanoTime();
 
             if (state.isGameOver()) {
-                messagingTemplate.convertAndSend("/topic/game/" + roomId,
+                broadcaster.send("/topic/game/" + roomId,
                         new GameEventMessage("GAME_OVER", response, state.getGameOverReason()));
             } else {
-                messagingTemplate.convertAndSend("/topic/game/" + roomId,
+                broadcaster.send("/topic/game/" + roomId,
                         new GameEventMessage("MOVE", response));
+                eventPublisher.publishEvent(new MovePlayedEvent(state));
             }
 
-            return response;
+            long broadcast = System.nanoTime() - moved;
+            metrics.recordMove(locked - requested, moved - locked, broadcast);
+            if (event.shouldCommit()) {
+                event.roomId = roomId;
+                event.moveNumber = moveNum;
+                event.holeIndex = holeIndex;
+                event.lockWait = locked - requested;
+                event.engine = moved - locked;
+                event.broadcast = broadcast;
+                event.commit();
+            }
+            return new MoveResult(response, null, false);
         }
     }
 
     public GameStateResponse resign(String roomId, String playerId) {
+        return concede(roomId, playerId, "RESIGN");
+    }
+
+    /**
+     * Ends the game in the opponent's favour after the player stayed disconnected past the grace period.
+     */
+    public GameStateResponse abandon(String roomId, String playerId) {
+        return concede(roomId, playerId, "ABANDONED");
+    }
+
+    private GameStateResponse concede(String roomId, String playerId, String reason) {
         GameState state = getGameState(roomId);
         Room room = roomService.getRoom(roomId);
 
@@ -123,19 +230,59 @@ public class GameService {
 
             state.setGameOver(true);
             state.setWinner(String.valueOf(winner.getIndex()));
-            state.setGameOverReason("RESIGN");
+            state.setGameOverReason(reason);
+            state.setPausedBy(null);
+            state.setUndoRequestedBy(null);
 
             timerService.cancelTimer(roomId);
             room.setStatus(RoomStatus.FINISHED);
+            publishFinished(room, state);
 
             GameStateResponse response = toGameStateResponse(state);
-            messagingTemplate.convertAndSend("/topic/game/" + roomId,
-                    new GameEventMessage("GAME_OVER", response, "RESIGN"));
+            broadcaster.send("/topic/game/" + roomId,
+                    new GameEventMessage("GAME_OVER", response, reason));
 
             return response;
         }
     }
 
+    /**
+     * Stops the clocks and refuses moves until the disconnected player returns.
+     */
+    public void pause(String roomId, String playerId) {
+        GameState state = getGameState(roomId);
+        Room room = roomService.getRoom(roomId);
+
+        synchronized (state) {
+            if (state.isGameOver() || state.getPausedBy() != null) return;
+
+            PlayerSide side = getPlayerSide(room, playerId);
+            timerService.pauseTimer(roomId);
+            state.setPausedBy(side);
+            state.setUndoRequestedBy(null);
+            broadcaster.send("/topic/game/" + roomId,
+                    new GameEventMessage("PAUSED", toGameStateResponse(state), "DISCONNECTED"));
+        }
+    }
+
+    /**
+     * Restarts a game paused for this player.
+     */
+    public void resume(String roomId, String playerId) {
+        GameState state = getGameState(roomId);
+        Room room = roomService.getRoom(roomId);
+
+        synchronized (state) {
+            PlayerSide side = getPlayerSide(room, playerId);
+            if (state.isGameOver() || state.getPausedBy() != side) return;
+
+            state.setPausedBy(null);
+            timerService.startTimer(roomId);
+            broadcaster.send("/topic/game/" + roomId,
+                    new GameEventMessage("RESUMED", toGameStateResponse(state)));
+        }
+    }
+
     public void handleDrawAccepted(String roomId) {
         GameState state = getGameState(roomId);
         Room room = roomService.getRoom(roomId);
@@ -145,16 +292,125 @@ public class GameService {
 
             state.setGameOver(true);
             state.setWinner("DRAW");
+            state.setUndoRequestedBy(null);
 
             timerService.cancelTimer(roomId);
             room.setStatus(RoomStatus.FINISHED);
+            publishFinished(room, state);
 
             GameStateResponse response = toGameStateResponse(state);
-            messagingTemplate.convertAndSend("/topic/game/" + roomId,
+            broadcaster.send("/topic/game/" + roomId,
                     new GameEventMessage("GAME_OVER", response, "DRAW"));
         }
     }
 
+    /**
+     * Asks the opponent to allow taking back the requesting player's last move.
+     */
+    public void requestUndo(String roomId, String playerId) {
+        GameState state = getGameState(roomId);
+        Room room = roomService.getRoom(roomId);
+
+        synchronized (state) {
+            PlayerSide side = getPlayerSide(room, playerId);
+            checkUndoable(state, side);
+
+            state.setUndoRequestedBy(side);
+            broadcaster.send("/topic/game/" + roomId + "/undo",
+                    UndoEventMessage.request(playerId, state.getMoveNumber() - 1));
+        }
+    }
+
+    /**
+     * Answers a pending takeback request; on acceptance the last move is undone.
+     */
+    public void respondUndo(String roomId, String playerId, boolean accept) {
+        GameState state = getGameState(roomId);
+        Room room = roomService.getRoom(roomId);
+
+        synchronized (state) {
+            PlayerSide side = getPlayerSide(room, playerId);
+            PlayerSide requester = state.getUndoRequestedBy();
+            if (requester == null || requester == side) {
+                throw new UndoNotAllowedException("there is no takeback request to answer");
+            }
+            state.setUndoRequestedBy(null);
+            if (accept) {
+                // The game may have ended or been paused since the request was made
+                checkUndoable(state, requester);
+            }
+            broadcaster.send("/topic/game/" + roomId + "/undo", UndoEventMessage.response(playerId, accept));
+
+            if (accept) {
+                undoLastMove(state, requester);
+            }
+        }
+    }
+
+    private static void checkUndoable(GameState state, PlayerSide side) {
+        if (!state.isUndoEnabled()) {
+            throw new UndoNotAllowedException("undo is disabled in this room");
+        }
+        if (state.isGameOver()) {
+            throw new UndoNotAllowedException("the game is over");
+        }
+        if (state.getPausedBy() != null) {
+            throw new UndoNotAllowedException("the game is paused");
+        }
+        List<GameState.MoveRecord> history = state.getMoveHistory();
+        if (history.isEmpty() || history.get(history.size() - 1).player() != side.getIndex()) {
+            throw new UndoNotAllowedException("only the player who made the last move can take it back");
+        }
+    }
+
+    /**
+     * Restores the position before the last move from its delta, without replaying the game. The
+     * clocks go back to where they stood right after the move: the opponent gets back the time spent
+     * since, while the mover's thinking time for the undone move stays spent.
+     */
+    private void undoLastMove(GameState state, PlayerSide mover) {
+        MoveDelta delta = state.popUndo();
+        if (delta == null) {
+            throw new UndoNotAllowedException("there is no move to take back");
+        }
+        delta.restore(state);
+        List<GameState.MoveRecord> history = state.getMoveHistory();
+        history.remove(history.size() - 1);
+        state.setCurrentPlayer(mover);
+        state.setMoveNumber(state.getMoveNumber() - 1);
+
+        if (state.isTimerEnabled()) {
+            timerService.restoreClocks(state.getRoomId(), delta.getWhiteTimeRemaining(),
+                    delta.getBlackTimeRemaining());
+        }
+
+        broadcaster.send("/topic/game/" + state.getRoomId(),
+                new GameEventMessage("UNDO", toUndoDelta(state, delta)));
+    }
+
+    private static UndoDelta toUndoDelta(GameState state, MoveDelta delta) {
+        int changed = delta.getChangedHoles();
+        int[] holes = new int[Integer.bitCount(changed)];
+        int[] counts = new int[holes.length];
+        int n = 0;
+        for (int bits = changed; bits != 0; bits &= bits - 1) {
+            holes[n] = Integer.numberOfTrailingZeros(bits);
+            counts[n] = state.getHoles()[holes[n]];
+            n++;
+        }
+        boolean timed = state.isTimerEnabled();
+        return new UndoDelta(
+                state.getMoveNumber(),
+                state.getCurrentPlayer().getIndex(),
+                holes,
+                counts,
+                Arrays.copyOf(state.getKazan(), state.getKazan().length),
+                Arrays.copyOf(state.getTuz(), state.getTuz().length),
+                timed ? state.getWhiteTimeRemaining() : null,
+                timed ? state.getBlackTimeRemaining() : null
+        );
+    }
+
     public GameStateResponse startNewGame(String roomId) {
         Room room = roomService.getRoom(roomId);
 
@@ -165,7 +421,7 @@ public class GameService {
 
             GameStateResponse response = toGameStateResponse(state);
 
-            messagingTemplate.convertAndSend("/topic/game/" + roomId,
+            broadcaster.send("/topic/game/" + roomId,
                     new GameEventMessage("GAME_STARTED", response));
 
             if (state.isTimerEnabled()) {
@@ -197,7 +453,13 @@ public class GameService {
         return new MoveHistoryResponse(pageRecords, page, totalPages);
     }
 
+    private void publishFinished(Room room, GameState state) {
+        eventPublisher.publishEvent(new GameFinishedEvent(state, room.getPlayer1(), room.getPlayer2(),
+                System.currentTimeMillis()));
+    }
+
     public GameState getGameState(String roomId) {
+        cluster.checkOwner(roomId);
         GameState state = gameStore.get(roomId);
         if (state == null) {
             throw new GameNotStartedException(roomId);
@@ -215,11 +477,13 @@ public class GameService {
     }
 
     public static GameStateResponse toGameStateResponse(GameState state) {
+        StateSerializationEvent event = new StateSerializationEvent();
+        event.begin();
         List<MoveRecord> history = state.getMoveHistory().stream()
                 .map(r -> new MoveRecord(r.moveNumber(), r.player(), r.holeIndex(), r.description()))
                 .toList();
 
-        return new GameStateResponse(
+        GameStateResponse response = new GameStateResponse(
                 Arrays.copyOf(state.getHoles(), state.getHoles().length),
                 Arrays.copyOf(state.getKazan(), state.getKazan().length),
                 Arrays.copyOf(state.getTuz(), state.getTuz().length),
@@ -232,7 +496,16 @@ public class GameService {
                 state.getBlackTimeRemaining(),
                 state.isTimerEnabled(),
                 state.isUndoEnabled(),
-                state.getLastMoveTimestamp() == 0 ? null : state.getLastMoveTimestamp()
+                state.getLastMoveTimestamp() == 0 ? null : state.getLastMoveTimestamp(),
+                state.getPausedBy() == null ? null : state.getPausedBy().getIndex()
         );
+
+        if (event.shouldCommit()) {
+            event.roomId = state.getRoomId();
+            event.moveNumber = state.getMoveNumber();
+            event.historySize = history.size();
+            event.commit();
+        }
+        return response;
     }
 }
@@ -0,0 +1,177 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.analytics.GameAggregates;
+import com.toguzkorgool.analytics.Termination;
+import com.toguzkorgool.dto.response.FirstMoveStats;
+import com.toguzkorgool.dto.response.GameStatisticsResponse;
+import com.toguzkorgool.dto.response.LengthBucket;
+import com.toguzkorgool.dto.response.TerminationStats;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.exception.StatisticsRebuildInProgressException;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.storage.GameArchive;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Opening and outcome statistics over all archived games.
+ * <p>
+ * The archive writer adds each game to the live {@link GameAggregates} once it is durable. The
+ * aggregates are not persisted: at startup, and on demand, a fresh set is rebuilt from the archive
+ * by a pool of workers adding disjoint id ranges concurrently, then swapped in. Games archived while
+ * a rebuild runs are caught up at the swap, so none is counted twice or missed.
+ */
+@Service
+public class GameStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameStatisticsService.class);
+    private static final int REBUILD_CHUNK = 4096;
+
+    private final GameArchive archive;
+    private final int threads;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile GameAggregates aggregates = new GameAggregates();
+    // Every game below this id is in the live aggregates; guarded by this
+    private long recordedUntil;
+
+    public GameStatisticsService(GameArchive archive,
+                                 @Value("${toguzkorgool.statistics.rebuild-threads:0}") int threads) {
+        this.archive = archive;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.rebuilder = Executors.newFixedThreadPool(this.threads + 1, runnable -> {
+            Thread thread = new Thread(runnable, "statistics-rebuild-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuild();
+    }
+
+    /**
+     * Adds newly archived games. Called by the archive writer in id order.
+     */
+    public synchronized void record(List<ArchivedGame> games) {
+        GameAggregates live = aggregates;
+        for (ArchivedGame game : games) {
+            if (game.gameId() < recordedUntil) continue;
+            live.add(game);
+            recordedUntil = game.gameId() + 1;
+        }
+    }
+
+    /**
+     * Starts recomputing the statistics from the archive in the background. The current figures stay
+     * available until the new ones replace them.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new StatisticsRebuildInProgressException();
+        }
+        rebuilder.execute(() -> {
+            try {
+                long started = System.nanoTime();
+                GameAggregates rebuilt = new GameAggregates();
+                long end = archive.size();
+                addParallel(rebuilt, end);
+                synchronized (this) {
+                    long now = archive.size();
+                    for (long gameId = end; gameId < now; gameId++) {
+                        rebuilt.add(read(gameId));
+                    }
+                    aggregates = rebuilt;
+                    recordedUntil = now;
+                }
+                log.info("Rebuilt game statistics over {} games in {} ms", rebuilt.games(),
+                        (System.nanoTime() - started) / 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | ExecutionException e) {
+                log.error("Rebuilding game statistics failed", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    private void addParallel(GameAggregates target, long end) throws InterruptedException, ExecutionException {
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 0; from < end; from += REBUILD_CHUNK) {
+            long start = from;
+            long stop = Math.min(end, from + REBUILD_CHUNK);
+            chunks.add(rebuilder.submit(() -> {
+                for (long gameId = start; gameId < stop; gameId++) {
+                    target.add(read(gameId));
+                }
+            }));
+        }
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+    }
+
+    private ArchivedGame read(long gameId) {
+        try {
+            return archive.read(gameId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public GameStatisticsResponse getStatistics() {
+        GameAggregates current = aggregates;
+        long games = current.games();
+
+        List<FirstMoveStats> firstMoves = new ArrayList<>(HOLES_PER_PLAYER);
+        for (int hole = 0; hole < HOLES_PER_PLAYER; hole++) {
+            long whiteWins = current.firstMove(hole, ToguzKorgoolEngine.WHITE_WINS);
+            long blackWins = current.firstMove(hole, ToguzKorgoolEngine.BLACK_WINS);
+            long draws = current.firstMove(hole, ToguzKorgoolEngine.DRAW);
+            long total = whiteWins + blackWins + draws;
+            firstMoves.add(new FirstMoveStats(hole + 1, total, whiteWins, blackWins, draws, ratio(whiteWins, total)));
+        }
+
+        List<TerminationStats> terminations = new ArrayList<>();
+        for (Termination termination : Termination.values()) {
+            long count = current.terminations(termination);
+            terminations.add(new TerminationStats(termination.name(), count, ratio(count, games)));
+        }
+
+        List<LengthBucket> lengths = new ArrayList<>(GameAggregates.LENGTH_BUCKETS);
+        for (int bucket = 0; bucket < GameAggregates.LENGTH_BUCKETS; bucket++) {
+            int from = bucket * GameAggregates.LENGTH_BUCKET_PLIES;
+            Integer to = bucket == GameAggregates.LENGTH_BUCKETS - 1 ? null : from + GameAggregates.LENGTH_BUCKET_PLIES;
+            lengths.add(new LengthBucket(from, to, current.lengthBucket(bucket)));
+        }
+
+        return new GameStatisticsResponse(games, ratio(current.plies(), games), ratio(current.captures(), games),
+                ratio(current.capturedStones(), games), ratio(current.tuzDeclarations(), games),
+                ratio(current.gamesWithTuz(), games), firstMoves, terminations, lengths, rebuilding.get());
+    }
+
+    private static double ratio(long count, long total) {
+        return total == 0 ? 0 : (double) count / total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.exception.BulkRequestTooLargeException;
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.Room;
+import com.toguzkorgool.storage.GameStore;
+import com.toguzkorgool.storage.RoomStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact JSON summaries of many rooms for dashboards. Each summary is encoded once per game state
+ * version and cached on the state, and summaries are written to the response one at a time, so a bulk
+ * request never holds more than one encoding beyond the cached ones.
+ */
+@Service
+public class GameSummaryService {
+
+    private final RoomStore roomStore;
+    private final GameStore gameStore;
+    private final int maxRooms;
+
+    public GameSummaryService(RoomStore roomStore, GameStore gameStore,
+                              @Value("${toguzkorgool.bulk.max-rooms:1000}") int maxRooms) {
+        this.roomStore = roomStore;
+        this.gameStore = gameStore;
+        this.maxRooms = maxRooms;
+    }
+
+    public List<String> checkRoomIds(List<String> roomIds) {
+        if (roomIds == null) return List.of();
+        if (roomIds.size() > maxRooms) {
+            throw new BulkRequestTooLargeException(roomIds.size(), maxRooms);
+        }
+        return roomIds;
+    }
+
+    public void writeSummaries(List<String> roomIds, OutputStream out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < roomIds.size(); i++) {
+            if (i > 0) out.write(',');
+            out.write(summary(roomIds.get(i)));
+        }
+        out.write(']');
+    }
+
+    private byte[] summary(String roomId) {
+        GameState state = gameStore.get(roomId);
+        if (state != null) {
+            synchronized (state) {
+                byte[] encoded = state.getSummary();
+                if (encoded == null) {
+                    encoded = encode(state);
+                    state.setSummary(encoded);
+                }
+                return encoded;
+            }
+        }
+
+        Room room = roomStore.get(roomId);
+        StringBuilder json = new StringBuilder(64);
+        json.append("{\"roomId\":");
+        appendString(json, roomId);
+        json.append(",\"status\":\"").append(room == null ? "NOT_FOUND" : room.getStatus().name()).append("\"}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(GameState state) {
+        StringBuilder json = new StringBuilder(320);
+        json.append("{\"roomId\":");
+        appendString(json, state.getRoomId());
+        json.append(",\"status\":\"").append(state.isGameOver() ? "FINISHED" : "PLAYING").append('"');
+        json.append(",\"version\":").append(state.getVersion());
+        json.append(",\"holes\":");
+        appendArray(json, state.getHoles());
+        json.append(",\"kazan\":");
+        appendArray(json, state.getKazan());
+        json.append(",\"tuz\":");
+        appendArray(json, state.getTuz());
+        json.append(",\"currentPlayer\":").append(state.getCurrentPlayer().getIndex());
+        json.append(",\"moveNumber\":").append(state.getMoveNumber());
+        json.append(",\"winner\":");
+        appendString(json, state.getWinner());
+        json.append(",\"whiteTimeRemaining\":").append(state.getWhiteTimeRemaining());
+        json.append(",\"blackTimeRemaining\":").append(state.getBlackTimeRemaining());
+        json.append(",\"lastMoveTime\":");
+        if (state.getLastMoveTimestamp() == 0) {
+            json.append("null");
+        } else {
+            json.append(state.getLastMoveTimestamp());
+        }
+        json.append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendArray(StringBuilder json, int[] values) {
+        json.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) json.append(',');
+            json.append(values[i]);
+        }
+        json.append(']');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
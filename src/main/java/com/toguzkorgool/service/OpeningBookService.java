@@ -0,0 +1,82 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.book.BookMove;
+import com.toguzkorgool.engine.book.OpeningBook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current opening book and swaps it for a rebuilt file without a restart.
+ * Lookups in flight keep using the book they started with; the old mapping is released once unreferenced.
+ */
+@Service
+public class OpeningBookService {
+
+    private static final Logger log = LoggerFactory.getLogger(OpeningBookService.class);
+
+    private final Path path;
+    private final int minGames;
+    private final AtomicReference<OpeningBook> book = new AtomicReference<>(OpeningBook.empty());
+    // Bumped after each swap, so a reader that sees the new generation also sees the new book
+    private volatile int generation;
+
+    public OpeningBookService(@Value("${toguzkorgool.engine.book-path:}") String path,
+                              @Value("${toguzkorgool.engine.book-min-games:10}") int minGames) {
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.minGames = minGames;
+        if (this.path != null && Files.exists(this.path)) {
+            reload();
+        }
+    }
+
+    /**
+     * @return the best book move with enough games behind it, or null when out of book
+     */
+    public BookMove probe(Position position) {
+        return book.get().best(position, minGames);
+    }
+
+    public List<BookMove> lookup(Position position) {
+        return book.get().lookup(position);
+    }
+
+    public int size() {
+        return book.get().size();
+    }
+
+    /**
+     * @return a number that changes whenever the book is replaced, for keying results derived from it
+     */
+    public int generation() {
+        return generation;
+    }
+
+    /**
+     * Re-opens the configured book file and atomically replaces the current book.
+     *
+     * @return the number of entries in the new book
+     */
+    public synchronized int reload() {
+        if (path == null) {
+            throw new IllegalStateException("No opening book path configured");
+        }
+        try {
+            OpeningBook loaded = OpeningBook.open(path);
+            book.set(loaded);
+            generation++;
+            log.info("Loaded opening book {} with {} entries", path, loaded.size());
+            return loaded.size();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load opening book " + path, e);
+        }
+    }
+}
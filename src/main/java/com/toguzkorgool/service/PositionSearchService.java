@@ -0,0 +1,131 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.request.PositionSearchRequest;
+import com.toguzkorgool.dto.response.PositionHit;
+import com.toguzkorgool.dto.response.PositionSearchResponse;
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.Zobrist;
+import com.toguzkorgool.exception.InvalidPositionException;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.storage.GameArchive;
+import com.toguzkorgool.storage.PositionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_STONES;
+
+/**
+ * Finds archived games that reached a given position.
+ * <p>
+ * Every archived game is replayed once and the hash after each of its moves goes into the
+ * {@link PositionIndex}. The archive writer feeds new games in as it persists them; at startup any games
+ * the index has not yet persisted are replayed from the archive, so the index never needs its own log.
+ * The initial position is not indexed since every game reaches it.
+ */
+@Service
+public class PositionSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionSearchService.class);
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    private final PositionIndex index;
+    private final GameArchive archive;
+    private long[] hashes = new long[256];
+
+    public PositionSearchService(PositionIndex index, GameArchive archive) throws IOException {
+        this.index = index;
+        this.archive = archive;
+        long from = index.nextGameId();
+        catchUp(archive.size());
+        if (index.nextGameId() > from) {
+            log.info("Indexed positions of {} archived games", index.nextGameId() - from);
+        }
+    }
+
+    /**
+     * Indexes newly archived games. Called by the archive writer after the games are durable.
+     */
+    public synchronized void index(List<ArchivedGame> games) throws IOException {
+        for (ArchivedGame game : games) {
+            if (game.gameId() < index.nextGameId()) continue;
+            catchUp(game.gameId());
+            add(game);
+        }
+    }
+
+    private synchronized void catchUp(long untilGameId) throws IOException {
+        for (long gameId = index.nextGameId(); gameId < untilGameId; gameId++) {
+            add(archive.read(gameId));
+        }
+    }
+
+    private void add(ArchivedGame game) throws IOException {
+        byte[] moves = game.moves();
+        if (hashes.length < moves.length) {
+            hashes = new long[Math.max(moves.length, hashes.length * 2)];
+        }
+        Position position = Position.initial();
+        for (int i = 0; i < moves.length; i++) {
+            position.make(moves[i]);
+            hashes[i] = position.hash();
+        }
+        index.add(game.gameId(), hashes, moves.length);
+    }
+
+    public PositionSearchResponse search(PositionSearchRequest request) {
+        validate(request);
+        long hash = Zobrist.hash(request.holes(), request.kazan(), request.tuz(), request.side());
+        int limit = request.limit() == null ? DEFAULT_LIMIT : Math.clamp(request.limit(), 1, MAX_LIMIT);
+
+        long[] found = index.find(hash, limit);
+        List<PositionHit> hits = new ArrayList<>(found.length);
+        for (long value : found) {
+            hits.add(new PositionHit(value >>> 16, (int) (value & 0xFFFF)));
+        }
+        return new PositionSearchResponse(Long.toHexString(hash), index.count(hash), hits);
+    }
+
+    private static void validate(PositionSearchRequest request) {
+        if (request.holes() == null || request.holes().length != TOTAL_HOLES) {
+            throw new InvalidPositionException("holes must have " + TOTAL_HOLES + " entries");
+        }
+        if (request.kazan() == null || request.kazan().length != 2) {
+            throw new InvalidPositionException("kazan must have 2 entries");
+        }
+        if (request.tuz() == null || request.tuz().length != 2) {
+            throw new InvalidPositionException("tuz must have 2 entries");
+        }
+        if (request.side() != 0 && request.side() != 1) {
+            throw new InvalidPositionException("side must be 0 or 1");
+        }
+        int stones = 0;
+        for (int count : request.holes()) {
+            if (count < 0 || count > TOTAL_STONES) {
+                throw new InvalidPositionException("hole counts must be between 0 and " + TOTAL_STONES);
+            }
+            stones += count;
+        }
+        for (int count : request.kazan()) {
+            if (count < 0 || count > TOTAL_STONES) {
+                throw new InvalidPositionException("kazan counts must be between 0 and " + TOTAL_STONES);
+            }
+            stones += count;
+        }
+        if (stones != TOTAL_STONES) {
+            throw new InvalidPositionException("stones must add up to " + TOTAL_STONES);
+        }
+        for (int tuz : request.tuz()) {
+            if (tuz < -1 || tuz >= TOTAL_HOLES) {
+                throw new InvalidPositionException("tuz must be -1 or a hole index");
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.response.GameAnnotationsResponse;
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.Search;
+import com.toguzkorgool.engine.SearchResult;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.exception.AnnotationsNotFoundException;
+import com.toguzkorgool.metrics.GameMetrics;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.model.GameAnnotations;
+import com.toguzkorgool.model.MoveAnnotation;
+import com.toguzkorgool.model.enums.AnnotationTag;
+import com.toguzkorgool.storage.AnnotationStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+
+/**
+ * Reviews finished games on the {@link EnginePool} at background priority.
+ * <p>
+ * Every position of a game is a separate engine task, so one game's review spreads over all workers
+ * and a hint request for a live game waits for at most the positions already being searched. Each
+ * move is scored against the engine's choice at a fixed depth and time budget and tagged when it
+ * loses more than the mistake or blunder threshold or misses a bigger capture. At most
+ * {@code max-pending-games} games are under review at once; beyond that, finished games are not reviewed.
+ */
+@Service
+public class PostGameAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostGameAnalysisService.class);
+
+    private final EnginePool enginePool;
+    private final AnnotationStore store;
+    private final int depth;
+    private final long timeLimitMillis;
+    private final int mistakeThreshold;
+    private final int blunderThreshold;
+    private final Semaphore pendingGames;
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    public PostGameAnalysisService(EnginePool enginePool, AnnotationStore store, GameMetrics metrics,
+                                   @Value("${toguzkorgool.postgame.depth:10}") int depth,
+                                   @Value("${toguzkorgool.postgame.time-limit-ms:200}") long timeLimitMillis,
+                                   @Value("${toguzkorgool.postgame.mistake-threshold:3}") int mistakeThreshold,
+                                   @Value("${toguzkorgool.postgame.blunder-threshold:8}") int blunderThreshold,
+                                   @Value("${toguzkorgool.postgame.max-pending-games:256}") int maxPendingGames) {
+        this.enginePool = enginePool;
+        this.store = store;
+        this.depth = depth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.mistakeThreshold = mistakeThreshold;
+        this.blunderThreshold = blunderThreshold;
+        this.pendingGames = new Semaphore(maxPendingGames);
+        metrics.gauge("toguzkorgool.postgame.pending", "Finished games under post-game review", inProgress::size);
+    }
+
+    /**
+     * Queues newly archived games for review.
+     */
+    public void submit(List<ArchivedGame> games) {
+        for (ArchivedGame game : games) {
+            if (game.moves().length == 0) continue;
+            if (!pendingGames.tryAcquire()) {
+                log.warn("Post-game analysis backlog full, skipping game {}", game.gameId());
+                continue;
+            }
+            new Review(game).start();
+        }
+    }
+
+    public GameAnnotationsResponse getAnnotations(long gameId) {
+        if (inProgress.contains(gameId)) {
+            return new GameAnnotationsResponse(gameId, "PENDING", List.of());
+        }
+        GameAnnotations annotations;
+        try {
+            annotations = store.read(gameId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (annotations == null) {
+            throw new AnnotationsNotFoundException(gameId);
+        }
+        return new GameAnnotationsResponse(gameId, "DONE", annotations.moves());
+    }
+
+    /**
+     * One game under review: the scores and best moves of positions 0..n, filled in by engine tasks.
+     */
+    private final class Review {
+
+        private final ArchivedGame game;
+        private final int[] scores;
+        private final int[] bestMoves;
+        private final AtomicInteger remaining;
+        private final AtomicBoolean abandoned = new AtomicBoolean();
+
+        Review(ArchivedGame game) {
+            this.game = game;
+            this.scores = new int[game.moves().length + 1];
+            this.bestMoves = new int[game.moves().length + 1];
+            this.remaining = new AtomicInteger(scores.length);
+        }
+
+        void start() {
+            inProgress.add(game.gameId());
+            for (int ply = 0; ply < scores.length; ply++) {
+                int target = ply;
+                try {
+                    enginePool.execute(EnginePool.Priority.BACKGROUND, search -> analyse(search, target));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Engine queue full, abandoning post-game analysis of game {}", game.gameId());
+                    abandoned.set(true);
+                    // Account for the positions that were never queued
+                    if (remaining.addAndGet(-(scores.length - ply)) == 0) finish();
+                    return;
+                }
+            }
+        }
+
+        private void analyse(Search search, int ply) {
+            try {
+                Position position = replay(ply);
+                if (position.isTerminal()) {
+                    int result = position.result();
+                    scores[ply] = result == ToguzKorgoolEngine.DRAW ? 0
+                            : result == position.sideToMove() ? Search.WIN_VALUE : -Search.WIN_VALUE;
+                    bestMoves[ply] = -1;
+                } else {
+                    SearchResult result = search.search(position, depth, timeLimitMillis);
+                    scores[ply] = result.score();
+                    bestMoves[ply] = result.bestMove();
+                }
+            } catch (RuntimeException e) {
+                log.error("Post-game analysis of game {} failed at ply {}", game.gameId(), ply, e);
+                abandoned.set(true);
+            }
+            if (remaining.decrementAndGet() == 0) finish();
+        }
+
+        private Position replay(int plies) {
+            Position position = Position.initial();
+            for (int i = 0; i < plies; i++) {
+                position.make(game.moves()[i]);
+            }
+            return position;
+        }
+
+        private void finish() {
+            try {
+                if (!abandoned.get()) {
+                    store.append(annotate());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to store post-game analysis of game {}", game.gameId(), e);
+            } finally {
+                inProgress.remove(game.gameId());
+                pendingGames.release();
+            }
+        }
+
+        private GameAnnotations annotate() {
+            byte[] moves = game.moves();
+            List<MoveAnnotation> annotations = new ArrayList<>(moves.length);
+            Position position = Position.initial();
+            for (int ply = 0; ply < moves.length; ply++) {
+                int hole = moves[ply];
+                int best = bestMoves[ply];
+                int score = scores[ply];
+                int played = -scores[ply + 1];
+                int loss = sameProvenResult(score, played) ? 0 : Math.max(0, score - played);
+                int captured = captureOf(position, hole);
+                int bestCaptured = best >= 0 ? captureOf(position, best) : 0;
+
+                AnnotationTag tag = null;
+                if (best != hole) {
+                    if (loss >= blunderThreshold) {
+                        tag = AnnotationTag.BLUNDER;
+                    } else if (loss >= mistakeThreshold) {
+                        tag = AnnotationTag.MISTAKE;
+                    }
+                }
+                boolean missedCapture = best >= 0 && best != hole && bestCaptured > captured;
+                annotations.add(new MoveAnnotation(ply, hole, best, score, loss, captured, bestCaptured, tag,
+                        missedCapture));
+                position.make(hole);
+            }
+            return new GameAnnotations(game.gameId(), annotations);
+        }
+    }
+
+    /**
+     * Both scores are proven wins, or both proven losses: a slower win is not a mistake.
+     */
+    private static boolean sameProvenResult(int a, int b) {
+        return Search.isProven(a) && Search.isProven(b) && Integer.signum(a) == Integer.signum(b);
+    }
+
+    private static int captureOf(Position position, int hole) {
+        int[] holes = new int[TOTAL_HOLES];
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            holes[i] = position.hole(i);
+        }
+        int[] kazan = {position.kazan(0), position.kazan(1)};
+        int[] tuz = {position.tuz(0), position.tuz(1)};
+        if (hole / HOLES_PER_PLAYER != position.sideToMove()) return 0;
+        return ToguzKorgoolEngine.captured(ToguzKorgoolEngine.sow(holes, kazan, tuz, position.sideToMove(), hole));
+    }
+}
@@ -0,0 +1,220 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.response.PresenceEventMessage;
+import com.toguzkorgool.metrics.GameMetrics;
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.Room;
+import com.toguzkorgool.presence.PresenceChange;
+import com.toguzkorgool.presence.TimerWheel;
+import com.toguzkorgool.storage.GameStore;
+import com.toguzkorgool.storage.RoomStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which players are connected to their games.
+ * <p>
+ * A player is present in a room while at least one of their STOMP sessions subscribes to
+ * {@code /topic/game/{roomId}}; sessions are told apart by the {@code StompPrincipal} player id, so a
+ * second tab or a reconnect before the old session times out keeps the player present. Heart-beats
+ * make a dead connection end its session within a few heart-beat intervals.
+ * <p>
+ * Changes are handled on the room's owner: opponents get a PRESENCE event on
+ * {@code /topic/game/{roomId}/presence}, and a player who leaves a running game has
+ * {@code grace-period-ms} to come back before the game is forfeited or paused, per
+ * {@code on-timeout}. All grace periods share one {@link TimerWheel}.
+ */
+@Service
+public class PresenceService {
+
+    public static final String TIMEOUT_FORFEIT = "forfeit";
+    public static final String TIMEOUT_PAUSE = "pause";
+
+    private static final Logger log = LoggerFactory.getLogger(PresenceService.class);
+    private static final String GAME_TOPIC = "/topic/game/";
+    private static final int CHANGE_LOCKS = 64;
+
+    private final GameService gameService;
+    private final RoomStore roomStore;
+    private final GameStore gameStore;
+    private final GameBroadcaster broadcaster;
+    private final ClusterService cluster;
+    private final long gracePeriodMillis;
+    private final boolean pauseOnTimeout;
+    // Sessions and their subscriptions to game topics, by session id and subscription id
+    private final Map<String, Map<String, Watch>> sessions = new ConcurrentHashMap<>();
+    // Number of sessions of each player watching each room
+    private final Map<Watch, Integer> watchers = new ConcurrentHashMap<>();
+    private final TimerWheel<Watch> graceTimers;
+    // Serialize each watch's count update with sending its change, so changes reach the owner in order
+    private final Object[] changeLocks = new Object[CHANGE_LOCKS];
+
+    private record Watch(String roomId, String playerId) {
+    }
+
+    public PresenceService(GameService gameService, RoomStore roomStore, GameStore gameStore,
+                           GameBroadcaster broadcaster, ClusterService cluster, GameMetrics metrics,
+                           @Value("${toguzkorgool.presence.grace-period-ms:30000}") long gracePeriodMillis,
+                           @Value("${toguzkorgool.presence.on-timeout:forfeit}") String onTimeout,
+                           @Value("${toguzkorgool.presence.tick-ms:100}") long tickMillis) {
+        if (!TIMEOUT_FORFEIT.equals(onTimeout) && !TIMEOUT_PAUSE.equals(onTimeout)) {
+            throw new IllegalArgumentException("Unknown presence timeout action " + onTimeout);
+        }
+        this.gameService = gameService;
+        this.roomStore = roomStore;
+        this.gameStore = gameStore;
+        this.broadcaster = broadcaster;
+        this.cluster = cluster;
+        this.gracePeriodMillis = gracePeriodMillis;
+        this.pauseOnTimeout = TIMEOUT_PAUSE.equals(onTimeout);
+        this.graceTimers = new TimerWheel<>("presence-grace", tickMillis, 1024, this::expire);
+        for (int i = 0; i < CHANGE_LOCKS; i++) {
+            changeLocks[i] = new Object();
+        }
+        cluster.register("presence.change", PresenceChange.class, (change, principal) -> apply(change));
+        metrics.gauge("toguzkorgool.presence.sessions", "STOMP sessions watching a game", sessions::size);
+        metrics.gauge("toguzkorgool.presence.grace", "Disconnected players within their grace period",
+                graceTimers::size);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Principal user = event.getUser();
+        String roomId = gameTopicRoom(headers.getDestination());
+        if (user == null || roomId == null || headers.getSessionId() == null
+                || headers.getSubscriptionId() == null) {
+            return;
+        }
+        Watch watch = new Watch(roomId, user.getName());
+        Watch previous = sessions.computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(headers.getSubscriptionId(), watch);
+        if (previous != null) leave(previous);
+        join(watch);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, Watch> subscriptions = headers.getSessionId() == null ? null
+                : sessions.get(headers.getSessionId());
+        if (subscriptions == null || headers.getSubscriptionId() == null) return;
+        Watch watch = subscriptions.remove(headers.getSubscriptionId());
+        if (watch != null) leave(watch);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Watch> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions == null) return;
+        for (Watch watch : subscriptions.values()) {
+            leave(watch);
+        }
+    }
+
+    private void join(Watch watch) {
+        synchronized (lockFor(watch)) {
+            if (watchers.merge(watch, 1, Integer::sum) == 1) {
+                changed(watch, true);
+            }
+        }
+    }
+
+    private void leave(Watch watch) {
+        synchronized (lockFor(watch)) {
+            Integer remaining = watchers.computeIfPresent(watch, (w, count) -> count == 1 ? null : count - 1);
+            if (remaining == null) {
+                changed(watch, false);
+            }
+        }
+    }
+
+    private Object lockFor(Watch watch) {
+        return changeLocks[Math.floorMod(watch.hashCode(), CHANGE_LOCKS)];
+    }
+
+    /**
+     * @return the room id of {@code /topic/game/{roomId}}, or null for any other destination
+     */
+    private static String gameTopicRoom(String destination) {
+        if (destination == null || !destination.startsWith(GAME_TOPIC)) return null;
+        String roomId = destination.substring(GAME_TOPIC.length());
+        return roomId.isEmpty() || roomId.indexOf('/') >= 0 ? null : roomId;
+    }
+
+    /**
+     * Called with the watch's lock held. A forwarded change is applied on the owner in send order, since
+     * commands to a node share one connection that is read by one thread.
+     */
+    private void changed(Watch watch, boolean online) {
+        PresenceChange change = new PresenceChange(watch.roomId(), watch.playerId(), online);
+        if (cluster.forward(watch.roomId(), "presence.change", change, null)) return;
+        apply(change);
+    }
+
+    /**
+     * Runs on the room's owner.
+     */
+    private void apply(PresenceChange change) {
+        Room room = roomStore.get(change.roomId());
+        if (room == null || !isPlayer(room, change.playerId())) return;
+        Watch watch = new Watch(change.roomId(), change.playerId());
+        String topic = GAME_TOPIC + change.roomId() + "/presence";
+
+        if (change.online()) {
+            graceTimers.cancel(watch);
+            broadcaster.send(topic, PresenceEventMessage.online(change.playerId()));
+            if (pauseOnTimeout) {
+                gameService.resume(change.roomId(), change.playerId());
+            }
+            return;
+        }
+
+        GameState state = gameStore.get(change.roomId());
+        if (state == null || state.isGameOver()) {
+            broadcaster.send(topic, PresenceEventMessage.offline(change.playerId(), null));
+            return;
+        }
+        graceTimers.schedule(watch, gracePeriodMillis);
+        broadcaster.send(topic, PresenceEventMessage.offline(change.playerId(),
+                System.currentTimeMillis() + gracePeriodMillis));
+    }
+
+    private void expire(Watch watch) {
+        // Back on this node since the timer was scheduled; its cancellation may not have won the race
+        if (watchers.containsKey(watch)) return;
+        try {
+            if (pauseOnTimeout) {
+                gameService.pause(watch.roomId(), watch.playerId());
+            } else {
+                gameService.abandon(watch.roomId(), watch.playerId());
+            }
+        } catch (RuntimeException e) {
+            // The room or game may be gone by now, or the player left it
+            log.debug("Grace period expiry for {} in room {} not applied: {}", watch.playerId(), watch.roomId(),
+                    e.getMessage());
+        }
+    }
+
+    private static boolean isPlayer(Room room, String playerId) {
+        return (room.getPlayer1() != null && room.getPlayer1().id().equals(playerId))
+                || (room.getPlayer2() != null && room.getPlayer2().id().equals(playerId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        graceTimers.shutdown();
+    }
+}
@@ -3,6 +3,7 @@ package com.toguzkorgool.service;
 import com.toguzkorgool.dto.response.PlayerResponse;
 import com.toguzkorgool.dto.response.RoomEventMessage;
 import com.toguzkorgool.dto.response.RoomResponse;
+import com.toguzkorgool.exception.PlayerAlreadyInRoomException;
 import com.toguzkorgool.exception.PlayerNotFoundException;
 import com.toguzkorgool.exception.RoomAlreadyExistsException;
 import com.toguzkorgool.exception.RoomFullException;
@@ -11,7 +12,6 @@ import com.toguzkorgool.model.Player;
 import com.toguzkorgool.model.Room;
 import com.toguzkorgool.model.enums.RoomStatus;
 import com.toguzkorgool.storage.RoomStore;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -20,15 +20,22 @@ import java.util.UUID;
 public class RoomService {
 
     private final RoomStore roomStore;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GameBroadcaster broadcaster;
+    private final ClusterService cluster;
+    private final ChatService chatService;
 
-    public RoomService(RoomStore roomStore, SimpMessagingTemplate messagingTemplate) {
+    public RoomService(RoomStore roomStore, GameBroadcaster broadcaster, ClusterService cluster,
+                       ChatService chatService) {
         this.roomStore = roomStore;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcaster = broadcaster;
+        this.cluster = cluster;
+        this.chatService = chatService;
     }
 
-    public RoomResponse createRoom(String playerName, String roomId, int timerSetting, boolean undoEnabled) {
-        String playerId = UUID.randomUUID().toString();
+    public RoomResponse createRoom(String playerName, String roomId, int timerSetting, boolean undoEnabled,
+                                   String requestedPlayerId) {
+        cluster.checkOwner(roomId);
+        String playerId = playerIdOrRandom(requestedPlayerId);
         Player player = new Player(playerId, playerName);
         Room room = new Room(roomId, player, timerSetting, undoEnabled);
 
@@ -39,7 +46,7 @@ public class RoomService {
         return toResponse(room);
     }
 
-    public RoomResponse joinRoom(String roomId, String playerName) {
+    public RoomResponse joinRoom(String roomId, String playerName, String requestedPlayerId) {
         Room room = getRoom(roomId);
 
         synchronized (room) {
@@ -47,11 +54,14 @@ public class RoomService {
                 throw new RoomFullException(roomId);
             }
 
-            String playerId = UUID.randomUUID().toString();
+            String playerId = playerIdOrRandom(requestedPlayerId);
+            if (playerId.equals(room.getPlayer1().id())) {
+                throw new PlayerAlreadyInRoomException(playerId, roomId);
+            }
             Player player = new Player(playerId, playerName);
             room.setPlayer2(player);
 
-            messagingTemplate.convertAndSend("/topic/room/" + roomId,
+            broadcaster.send("/topic/room/" + roomId,
                     new RoomEventMessage("PLAYER_JOINED", playerName, playerId));
 
             return toResponse(room);
@@ -71,6 +81,7 @@ public class RoomService {
                     room.setPlayer2(null);
                 } else {
                     roomStore.remove(roomId);
+                    chatService.clear(roomId);
                     return;
                 }
             } else if (room.getPlayer2() != null && room.getPlayer2().id().equals(playerId)) {
@@ -82,7 +93,7 @@ public class RoomService {
 
             room.setStatus(RoomStatus.WAITING);
 
-            messagingTemplate.convertAndSend("/topic/room/" + roomId,
+            broadcaster.send("/topic/room/" + roomId,
                     new RoomEventMessage("PLAYER_LEFT", leavingPlayerName, null));
         }
     }
@@ -92,6 +103,7 @@ public class RoomService {
     }
 
     public Room getRoom(String roomId) {
+        cluster.checkOwner(roomId);
         Room room = roomStore.get(roomId);
         if (room == null) {
             throw new RoomNotFoundException(roomId);
@@ -99,6 +111,10 @@ public class RoomService {
         return room;
     }
 
+    private static String playerIdOrRandom(String playerId) {
+        return playerId == null || playerId.isBlank() ? UUID.randomUUID().toString() : playerId;
+    }
+
     private RoomResponse toResponse(Room room) {
         PlayerResponse p1 = room.getPlayer1() != null
                 ? new PlayerResponse(room.getPlayer1().id(), room.getPlayer1().name(), true)
@@ -2,31 +2,76 @@ package com.toguzkorgool.service;
 
 import com.toguzkorgool.dto.response.GameEventMessage;
 import com.toguzkorgool.dto.response.GameStateResponse;
+import com.toguzkorgool.event.GameFinishedEvent;
+import com.toguzkorgool.metrics.GameMetrics;
+import com.toguzkorgool.metrics.TimerTickEvent;
 import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.Room;
 import com.toguzkorgool.model.enums.PlayerSide;
+import com.toguzkorgool.model.enums.RoomStatus;
 import com.toguzkorgool.storage.GameStore;
+import com.toguzkorgool.storage.RoomStore;
 import jakarta.annotation.PreDestroy;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Game clocks of all timed rooms.
+ * <p>
+ * Running clocks are spread by room id over a fixed number of shards. Each shard has one repeating task
+ * that ticks all of its rooms once a second, so the scheduler's tasks and threads do not grow with the
+ * number of boards. Time is always charged from timestamps at move boundaries; a tick only broadcasts
+ * the remaining time and detects a flag fall, at most one tick late.
+ */
 @Service
 public class TimerService {
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
-    private final Map<String, ScheduledFuture<?>> timerTasks = new ConcurrentHashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(TimerService.class);
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ScheduledExecutorService scheduler;
+    private final Shard[] shards;
     private final GameStore gameStore;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomStore roomStore;
+    private final GameBroadcaster broadcaster;
+    private final GameMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TimerService(GameStore gameStore, SimpMessagingTemplate messagingTemplate) {
+    public TimerService(GameStore gameStore, RoomStore roomStore, GameBroadcaster broadcaster,
+                        GameMetrics metrics, ApplicationEventPublisher eventPublisher,
+                        @Value("${toguzkorgool.timer.threads:4}") int threads) {
         this.gameStore = gameStore;
-        this.messagingTemplate = messagingTemplate;
+        this.roomStore = roomStore;
+        this.broadcaster = broadcaster;
+        this.metrics = metrics;
+        this.eventPublisher = eventPublisher;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-timer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // One shard per thread, started at evenly spread offsets so broadcasts do not all land together
+        this.shards = new Shard[threads];
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            long offset = TICK_NANOS + TICK_NANOS * i / threads;
+            shards[i] = new Shard(start + offset);
+            scheduler.scheduleAtFixedRate(shards[i], offset, TICK_NANOS, TimeUnit.NANOSECONDS);
+        }
+        metrics.gauge("toguzkorgool.timer.clocks", "Running game clocks", this::runningClocks);
     }
 
     public void startTimer(String roomId) {
@@ -34,7 +79,22 @@ public class TimerService {
         if (state == null || !state.isTimerEnabled()) return;
 
         state.setLastMoveTimestamp(System.currentTimeMillis());
-        scheduleTimerTick(roomId);
+        shard(roomId).clocks.put(roomId, state);
+    }
+
+    /**
+     * Starts the clocks of many new games from the same instant, such as all boards of a tournament round.
+     */
+    public void startTimers(List<GameState> states) {
+        long now = System.currentTimeMillis();
+        for (GameState state : states) {
+            if (!state.isTimerEnabled()) continue;
+            synchronized (state) {
+                if (state.isGameOver()) continue;
+                state.setLastMoveTimestamp(now);
+                shard(state.getRoomId()).clocks.put(state.getRoomId(), state);
+            }
+        }
     }
 
     public void switchTimer(String roomId) {
@@ -52,38 +112,101 @@ public class TimerService {
 
         state.setLastMoveTimestamp(now);
 
-        // Cancel existing tick and start new one
-        cancelTimer(roomId);
-        if (!state.isGameOver()) {
-            scheduleTimerTick(roomId);
+        if (state.isGameOver()) {
+            cancelTimer(roomId);
+        } else {
+            shard(roomId).clocks.put(roomId, state);
         }
     }
 
+    /**
+     * Sets both clocks after a move is taken back and restarts the current player's clock from now.
+     * Called with the state's lock held.
+     */
+    public void restoreClocks(String roomId, double whiteTimeRemaining, double blackTimeRemaining) {
+        GameState state = gameStore.get(roomId);
+        if (state == null || !state.isTimerEnabled()) return;
+
+        state.setWhiteTimeRemaining(whiteTimeRemaining);
+        state.setBlackTimeRemaining(blackTimeRemaining);
+        state.setLastMoveTimestamp(System.currentTimeMillis());
+        shard(roomId).clocks.put(roomId, state);
+    }
+
+    /**
+     * Charges the current player for the time spent so far and stops both clocks; {@link #startTimer}
+     * resumes them. Called with the state's lock held.
+     */
+    public void pauseTimer(String roomId) {
+        GameState state = gameStore.get(roomId);
+        if (state == null || !state.isTimerEnabled()) return;
+
+        cancelTimer(roomId);
+        long now = System.currentTimeMillis();
+        deductTime(state, state.getCurrentPlayer(), (now - state.getLastMoveTimestamp()) / 1000.0);
+        state.setLastMoveTimestamp(now);
+    }
+
     public void cancelTimer(String roomId) {
-        ScheduledFuture<?> future = timerTasks.remove(roomId);
-        if (future != null) {
-            future.cancel(false);
+        shard(roomId).clocks.remove(roomId);
+    }
+
+    private Shard shard(String roomId) {
+        return shards[Math.floorMod(roomId.hashCode(), shards.length)];
+    }
+
+    private int runningClocks() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.clocks.size();
         }
+        return count;
     }
 
-    private void scheduleTimerTick(String roomId) {
-        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(() -> tick(roomId), 1, 1, TimeUnit.SECONDS);
-        ScheduledFuture<?> old = timerTasks.put(roomId, future);
-        if (old != null) {
-            old.cancel(false);
+    /**
+     * The clocks of one slice of rooms. Fixed-rate runs of one task never overlap, so the next due time
+     * needs no synchronization.
+     */
+    private final class Shard implements Runnable {
+
+        private final Map<String, GameState> clocks = new ConcurrentHashMap<>();
+        private long due;
+
+        Shard(long due) {
+            this.due = due;
+        }
+
+        @Override
+        public void run() {
+            long lag = System.nanoTime() - due;
+            metrics.recordTickLag(lag);
+            due += TICK_NANOS;
+
+            for (Map.Entry<String, GameState> entry : clocks.entrySet()) {
+                TimerTickEvent event = new TimerTickEvent();
+                event.begin();
+                event.lag = lag;
+                try {
+                    tick(entry.getKey(), entry.getValue(), event);
+                } catch (RuntimeException e) {
+                    // An exception would cancel the shard's task and stop every clock in it
+                    log.error("Timer tick failed for room {}", entry.getKey(), e);
+                }
+            }
         }
     }
 
-    private void tick(String roomId) {
-        GameState state = gameStore.get(roomId);
-        if (state == null || state.isGameOver()) {
-            cancelTimer(roomId);
+    private void tick(String roomId, GameState state, TimerTickEvent event) {
+        if (state.isGameOver()) {
+            shard(roomId).clocks.remove(roomId, state);
             return;
         }
 
+        long requested = System.nanoTime();
         synchronized (state) {
+            long lockWait = System.nanoTime() - requested;
             if (state.isGameOver()) {
-                cancelTimer(roomId);
+                shard(roomId).clocks.remove(roomId, state);
                 return;
             }
 
@@ -99,6 +222,7 @@ public class TimerService {
                 setTimeRemaining(state, current, 0);
                 state.setGameOver(true);
                 state.setGameOverReason("TIME");
+                state.setUndoRequestedBy(null);
 
                 // Winner is the opponent
                 PlayerSide winner = current.opponent();
@@ -106,8 +230,15 @@ public class TimerService {
 
                 cancelTimer(roomId);
 
+                Room room = roomStore.get(roomId);
+                if (room != null) {
+                    room.setStatus(RoomStatus.FINISHED);
+                    eventPublisher.publishEvent(new GameFinishedEvent(state, room.getPlayer1(), room.getPlayer2(),
+                            System.currentTimeMillis()));
+                }
+
                 GameStateResponse stateResponse = GameService.toGameStateResponse(state);
-                messagingTemplate.convertAndSend("/topic/game/" + roomId,
+                broadcaster.send("/topic/game/" + roomId,
                         new GameEventMessage("GAME_OVER", stateResponse, "TIME"));
             } else {
                 // Broadcast timer update
@@ -119,9 +250,16 @@ public class TimerService {
                                 ? getTimeRemaining(state, PlayerSide.BLACK) - elapsedSeconds
                                 : getTimeRemaining(state, PlayerSide.BLACK)
                 );
-                messagingTemplate.convertAndSend("/topic/game/" + roomId,
+                broadcaster.send("/topic/game/" + roomId,
                         new GameEventMessage("TIMER_UPDATE", timerData));
             }
+
+            if (event.shouldCommit()) {
+                event.roomId = roomId;
+                event.moveNumber = state.getMoveNumber();
+                event.lockWait = lockWait;
+                event.commit();
+            }
         }
     }
 
@@ -144,8 +282,6 @@ public class TimerService {
 
     @PreDestroy
     public void shutdown() {
-        timerTasks.values().forEach(f -> f.cancel(false));
-        timerTasks.clear();
         scheduler.shutdownNow();
     }
 }
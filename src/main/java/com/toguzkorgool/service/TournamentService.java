@@ -0,0 +1,345 @@
+package com.toguzkorgool.service;
+
+import com.toguzkorgool.dto.request.CreateTournamentRequest;
+import com.toguzkorgool.dto.request.TournamentEntrant;
+import com.toguzkorgool.dto.response.GameEventMessage;
+import com.toguzkorgool.dto.response.PairingResponse;
+import com.toguzkorgool.dto.response.StandingResponse;
+import com.toguzkorgool.dto.response.TournamentEventMessage;
+import com.toguzkorgool.dto.response.TournamentResponse;
+import com.toguzkorgool.event.GameFinishedEvent;
+import com.toguzkorgool.exception.InvalidTournamentException;
+import com.toguzkorgool.exception.TournamentAlreadyExistsException;
+import com.toguzkorgool.exception.TournamentAlreadyStartedException;
+import com.toguzkorgool.exception.TournamentNotFoundException;
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.Pairing;
+import com.toguzkorgool.model.Player;
+import com.toguzkorgool.model.Room;
+import com.toguzkorgool.model.Tournament;
+import com.toguzkorgool.model.enums.RoomStatus;
+import com.toguzkorgool.model.enums.TournamentFormat;
+import com.toguzkorgool.model.enums.TournamentStatus;
+import com.toguzkorgool.notation.GameNotation;
+import com.toguzkorgool.storage.GameStore;
+import com.toguzkorgool.storage.RoomStore;
+import com.toguzkorgool.storage.TournamentStore;
+import com.toguzkorgool.tournament.Pairings;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Round-robin and Swiss tournaments played in ordinary rooms.
+ * <p>
+ * Each round's rooms and games are created in one pass and their clocks started together through
+ * {@link TimerService#startTimers}. Finished games are matched to their board through a room index,
+ * and the game that completes a round hands the next one to a single advancing thread, so pairing
+ * and creating thousands of boards never runs under a game's lock. Bots are seated with the
+ * {@link BotService}.
+ */
+@Service
+public class TournamentService {
+
+    private static final Logger log = LoggerFactory.getLogger(TournamentService.class);
+
+    private final TournamentStore tournamentStore;
+    private final RoomStore roomStore;
+    private final GameStore gameStore;
+    private final TimerService timerService;
+    private final BotService botService;
+    private final GameBroadcaster broadcaster;
+    private final GameSummaryService gameSummaryService;
+    private final ClusterService cluster;
+    private final int maxPlayers;
+    // Room id to the board being played in it, for every unfinished tournament game
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    private final ExecutorService advancer;
+
+    private record Board(Tournament tournament, Pairing pairing) {
+    }
+
+    public TournamentService(TournamentStore tournamentStore, RoomStore roomStore, GameStore gameStore,
+                             TimerService timerService, BotService botService, GameBroadcaster broadcaster,
+                             GameSummaryService gameSummaryService, ClusterService cluster,
+                             @Value("${toguzkorgool.tournament.max-players:10000}") int maxPlayers) {
+        this.tournamentStore = tournamentStore;
+        this.roomStore = roomStore;
+        this.gameStore = gameStore;
+        this.timerService = timerService;
+        this.botService = botService;
+        this.broadcaster = broadcaster;
+        this.gameSummaryService = gameSummaryService;
+        this.cluster = cluster;
+        this.maxPlayers = maxPlayers;
+        this.advancer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tournament-rounds");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public TournamentResponse create(CreateTournamentRequest request) {
+        List<TournamentEntrant> entrants = request.players() == null ? List.of() : request.players();
+        if (request.format() == null) {
+            throw new InvalidTournamentException("format is required");
+        }
+        if (entrants.size() < 2 || entrants.size() > maxPlayers) {
+            throw new InvalidTournamentException("needs between 2 and " + maxPlayers + " players");
+        }
+        if (request.timerSetting() < 0) {
+            throw new InvalidTournamentException("timerSetting must not be negative");
+        }
+
+        List<Player> players = new ArrayList<>(entrants.size());
+        boolean[] bots = new boolean[entrants.size()];
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < entrants.size(); i++) {
+            TournamentEntrant entrant = entrants.get(i);
+            String playerId = entrant.playerId() == null || entrant.playerId().isBlank()
+                    ? UUID.randomUUID().toString() : entrant.playerId();
+            if (!ids.add(playerId)) {
+                throw new InvalidTournamentException("duplicate player " + playerId);
+            }
+            players.add(new Player(playerId, entrant.playerName() != null ? entrant.playerName() : playerId));
+            bots[i] = entrant.bot();
+        }
+
+        int rounds;
+        if (request.format() == TournamentFormat.ROUND_ROBIN) {
+            rounds = Pairings.roundRobinRounds(players.size());
+        } else {
+            int maxRounds = Pairings.roundRobinRounds(players.size());
+            if (request.rounds() == null || request.rounds() < 1 || request.rounds() > maxRounds) {
+                throw new InvalidTournamentException("a Swiss tournament of " + players.size()
+                        + " players needs between 1 and " + maxRounds + " rounds");
+            }
+            rounds = request.rounds();
+        }
+
+        String tournamentId = request.tournamentId() == null || request.tournamentId().isBlank()
+                ? UUID.randomUUID().toString() : request.tournamentId();
+        Tournament tournament = new Tournament(tournamentId, request.name(), request.format(), rounds,
+                request.timerSetting(), List.copyOf(players), bots);
+        if (tournamentStore.putIfAbsent(tournamentId, tournament) != null) {
+            throw new TournamentAlreadyExistsException(tournamentId);
+        }
+        return toResponse(tournament);
+    }
+
+    public TournamentResponse start(String tournamentId) {
+        Tournament tournament = getTournament(tournamentId);
+        List<Pairing> round;
+        synchronized (tournament) {
+            if (tournament.getStatus() != TournamentStatus.WAITING) {
+                throw new TournamentAlreadyStartedException(tournamentId);
+            }
+            tournament.setStatus(TournamentStatus.RUNNING);
+            round = createRound(tournament);
+        }
+        startRound(tournament, round);
+        return toResponse(tournament);
+    }
+
+    public TournamentResponse getResponse(String tournamentId) {
+        return toResponse(getTournament(tournamentId));
+    }
+
+    /**
+     * @return the room ids of the current round's boards; resolved before streaming, so an unknown
+     *         tournament still fails before the response is committed
+     */
+    public List<String> getRoundRoomIds(String tournamentId) {
+        Tournament tournament = getTournament(tournamentId);
+        List<String> roomIds = new ArrayList<>();
+        synchronized (tournament) {
+            for (Pairing pairing : tournament.getPairings()) {
+                if (!pairing.isBye()) roomIds.add(pairing.getRoomId());
+            }
+        }
+        return roomIds;
+    }
+
+    /**
+     * Streams the compact summaries of a round's boards, as for a bulk state request.
+     */
+    public void writeRoundStates(List<String> roomIds, OutputStream out) throws IOException {
+        gameSummaryService.writeSummaries(roomIds, out);
+    }
+
+    /**
+     * Scores a tournament game. Runs under the game's lock, so the next round is left to the advancing thread.
+     */
+    @EventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        GameState state = event.state();
+        Board board = boards.get(state.getRoomId());
+        if (board == null || board.pairing().getState() != state) return;
+        boards.remove(state.getRoomId(), board);
+        botService.unseat(state.getRoomId());
+
+        Tournament tournament = board.tournament();
+        boolean roundOver;
+        synchronized (tournament) {
+            roundOver = tournament.recordResult(board.pairing(), state.getWinner());
+        }
+        if (roundOver) {
+            advancer.execute(() -> advance(tournament));
+        }
+    }
+
+    private void advance(Tournament tournament) {
+        try {
+            List<Pairing> round = null;
+            synchronized (tournament) {
+                if (tournament.getRound() >= tournament.getTotalRounds()) {
+                    tournament.setStatus(TournamentStatus.FINISHED);
+                } else {
+                    round = createRound(tournament);
+                }
+            }
+            if (round != null) {
+                startRound(tournament, round);
+            } else {
+                broadcaster.send("/topic/tournament/" + tournament.getTournamentId(),
+                        new TournamentEventMessage("TOURNAMENT_FINISHED", tournament.getRound(), 0));
+            }
+        } catch (RuntimeException e) {
+            log.error("Advancing tournament {} failed", tournament.getTournamentId(), e);
+        }
+    }
+
+    /**
+     * Pairs the next round and creates its rooms and games. Called with the tournament's lock held;
+     * nothing is started or broadcast yet.
+     */
+    private List<Pairing> createRound(Tournament tournament) {
+        int roundNumber = tournament.getRound() + 1;
+        int[] pairs = tournament.getFormat() == TournamentFormat.ROUND_ROBIN
+                ? Pairings.roundRobin(tournament.getPlayers().size(), roundNumber)
+                : Pairings.swiss(tournament);
+
+        List<Player> players = tournament.getPlayers();
+        List<Pairing> pairings = new ArrayList<>(pairs.length / 2);
+        for (int i = 0; i < pairs.length; i += 2) {
+            int board = i / 2 + 1;
+            int white = pairs[i];
+            int black = pairs[i + 1];
+            if (black == Pairing.BYE) {
+                pairings.add(new Pairing(board, white, black, null, null));
+                continue;
+            }
+
+            // Boards must be owned by this node, which keeps the standings, and so must any fallback id
+            String roomId = cluster.localRoomId(tournament.getTournamentId() + "-" + roundNumber + "-" + board);
+            while (roomStore.putIfAbsent(roomId, boardRoom(roomId, tournament, players.get(white),
+                    players.get(black))) != null) {
+                roomId = cluster.localRoomId(UUID.randomUUID().toString());
+            }
+            GameState state = new GameState(roomId, tournament.getTimerSetting(), false);
+            gameStore.put(roomId, state);
+
+            Pairing pairing = new Pairing(board, white, black, roomId, state);
+            boards.put(roomId, new Board(tournament, pairing));
+            botService.seat(roomId, tournament.isBot(white) ? players.get(white).id() : null,
+                    tournament.isBot(black) ? players.get(black).id() : null);
+            pairings.add(pairing);
+        }
+        tournament.startRound(pairings);
+        return pairings;
+    }
+
+    private static Room boardRoom(String roomId, Tournament tournament, Player white, Player black) {
+        Room room = new Room(roomId, white, tournament.getTimerSetting(), false);
+        room.setPlayer2(black);
+        room.setStatus(RoomStatus.PLAYING);
+        return room;
+    }
+
+    /**
+     * Starts all clocks of a created round at once, then announces the games and lets bots with white move.
+     */
+    private void startRound(Tournament tournament, List<Pairing> round) {
+        List<GameState> states = new ArrayList<>(round.size());
+        for (Pairing pairing : round) {
+            if (!pairing.isBye()) states.add(pairing.getState());
+        }
+        timerService.startTimers(states);
+
+        for (GameState state : states) {
+            broadcaster.send("/topic/game/" + state.getRoomId(),
+                    new GameEventMessage("GAME_STARTED", GameService.toGameStateResponse(state)));
+            botService.play(state);
+        }
+        broadcaster.send("/topic/tournament/" + tournament.getTournamentId(),
+                new TournamentEventMessage("ROUND_STARTED", tournament.getRound(), states.size()));
+        log.info("Tournament {} round {} started on {} boards", tournament.getTournamentId(),
+                tournament.getRound(), states.size());
+    }
+
+    private Tournament getTournament(String tournamentId) {
+        Tournament tournament = tournamentStore.get(tournamentId);
+        if (tournament == null) {
+            throw new TournamentNotFoundException(tournamentId);
+        }
+        return tournament;
+    }
+
+    private TournamentResponse toResponse(Tournament tournament) {
+        synchronized (tournament) {
+            List<Player> players = tournament.getPlayers();
+            Integer[] order = new Integer[players.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> tournament.getHalfPoints(a) != tournament.getHalfPoints(b)
+                    ? Integer.compare(tournament.getHalfPoints(b), tournament.getHalfPoints(a))
+                    : Integer.compare(a, b));
+
+            List<StandingResponse> standings = new ArrayList<>(order.length);
+            for (int rank = 0; rank < order.length; rank++) {
+                int p = order[rank];
+                standings.add(new StandingResponse(rank + 1, players.get(p).id(), players.get(p).name(),
+                        tournament.isBot(p), tournament.getHalfPoints(p) / 2.0, tournament.getWins(p),
+                        tournament.getDraws(p), tournament.getLosses(p)));
+            }
+
+            List<PairingResponse> pairings = new ArrayList<>(tournament.getPairings().size());
+            for (Pairing pairing : tournament.getPairings()) {
+                String whiteId = players.get(pairing.getWhite()).id();
+                if (pairing.isBye()) {
+                    pairings.add(new PairingResponse(pairing.getBoard(), null, whiteId, null, "BYE"));
+                } else {
+                    pairings.add(new PairingResponse(pairing.getBoard(), pairing.getRoomId(), whiteId,
+                            players.get(pairing.getBlack()).id(),
+                            pairing.isFinished() ? GameNotation.resultOf(pairing.getWinner()) : "*"));
+                }
+            }
+
+            return new TournamentResponse(tournament.getTournamentId(), tournament.getName(),
+                    tournament.getFormat().name(), tournament.getStatus().name(), tournament.getRound(),
+                    tournament.getTotalRounds(), standings, pairings);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        advancer.shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.dto.response.AnalysisResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Position-hash keyed cache of engine analyses, shared by all rooms.
+ * Bounded by an estimate of retained bytes and evicted in least-recently-used order. Each entry records
+ * the opening book generation it was computed against; it is dropped once a newer generation asks for
+ * it, and left alone when an older one does.
+ */
+@Component
+public class AnalysisCache {
+
+    // Map node, boxed key, the entry and the response record with its boxed score
+    private static final int ENTRY_BYTES = 176;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    public AnalysisCache(@Value("${toguzkorgool.analysis.cache-max-bytes:16777216}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the analysis computed against {@code bookGeneration}, or null if there is none
+     */
+    public synchronized AnalysisResponse get(long hash, int bookGeneration) {
+        Entry entry = entries.get(hash);
+        if (entry == null) return null;
+        if (entry.bookGeneration() < bookGeneration) {
+            // Computed against a book that has since been replaced
+            entries.remove(hash);
+            bytes -= ENTRY_BYTES;
+            return null;
+        }
+        if (entry.bookGeneration() > bookGeneration) {
+            // The caller read the generation before a reload; the entry is for the new book, so keep it
+            return null;
+        }
+        return entry.response();
+    }
+
+    public synchronized void put(long hash, int bookGeneration, AnalysisResponse response) {
+        Entry existing = entries.get(hash);
+        // A search that started before a reload must not replace an entry for the new book
+        if (existing != null && existing.bookGeneration() > bookGeneration) return;
+        if (entries.put(hash, new Entry(bookGeneration, response)) == null) {
+            bytes += ENTRY_BYTES;
+        }
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            bytes -= ENTRY_BYTES;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(int bookGeneration, AnalysisResponse response) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.model.GameAnnotations;
+import com.toguzkorgool.model.MoveAnnotation;
+import com.toguzkorgool.model.enums.AnnotationTag;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only file of post-game analyses, keyed by archived game id.
+ * <p>
+ * File format: a 16-byte header ({@code "TKAN"}, version, reserved) followed by records of
+ * {@code (length, gameId, moveCount, moves)} with a fixed {@value #MOVE_SIZE}-byte move entry.
+ * Games finish analysis in any order, so the id to offset index is a map rebuilt by one scan at
+ * startup; a torn record at the end is truncated away like in {@link GameArchive}.
+ */
+@Component
+public class AnnotationStore {
+
+    public static final int MAGIC = 0x544B414E; // "TKAN"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    static final int MOVE_SIZE = 14;
+
+    private static final Logger log = LoggerFactory.getLogger(AnnotationStore.class);
+
+    private final FileChannel channel;
+    private final Map<Long, Long> offsets = new HashMap<>();
+    private long end;
+
+    public AnnotationStore(@Value("${toguzkorgool.postgame.path:data/annotations.tkan}") String path)
+            throws IOException {
+        Path file = Path.of(path);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            writeFully(header.clear(), 0);
+            channel.force(true);
+            end = HEADER_SIZE;
+        } else {
+            ByteBuffer header = readFully(0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not an annotation file: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported annotation file version " + header.getInt(4) + " in " + file);
+            }
+            scan(file);
+        }
+        log.info("Opened annotation store {} with {} games", file, offsets.size());
+    }
+
+    private void scan(Path file) throws IOException {
+        long size = channel.size();
+        long position = HEADER_SIZE;
+        while (position + Integer.BYTES <= size) {
+            int length = readFully(position, Integer.BYTES).getInt(0);
+            if (length < Long.BYTES + Short.BYTES || position + Integer.BYTES + length > size) break;
+            offsets.put(readFully(position + Integer.BYTES, Long.BYTES).getLong(0), position);
+            position += Integer.BYTES + length;
+        }
+        if (position < size) {
+            log.warn("Truncating {} bytes of incomplete records from {}", size - position, file);
+            channel.truncate(position);
+        }
+        end = position;
+    }
+
+    public synchronized boolean contains(long gameId) {
+        return offsets.containsKey(gameId);
+    }
+
+    public synchronized void append(GameAnnotations annotations) throws IOException {
+        List<MoveAnnotation> moves = annotations.moves();
+        int length = Long.BYTES + Short.BYTES + moves.size() * MOVE_SIZE;
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length)
+                .putInt(length)
+                .putLong(annotations.gameId())
+                .putShort((short) moves.size());
+        for (MoveAnnotation move : moves) {
+            record.put((byte) move.hole())
+                    .put((byte) move.bestMove())
+                    .putInt(move.score())
+                    .putInt(move.loss())
+                    .put((byte) move.captured())
+                    .put((byte) move.bestCaptured())
+                    .put((byte) (move.tag() == null ? 0 : move.tag().ordinal() + 1))
+                    .put((byte) (move.missedCapture() ? 1 : 0));
+        }
+        writeFully(record.flip(), end);
+        channel.force(false);
+        offsets.put(annotations.gameId(), end);
+        end += record.limit();
+    }
+
+    /**
+     * @return the stored analysis, or null if the game has none
+     */
+    public GameAnnotations read(long gameId) throws IOException {
+        Long offset;
+        synchronized (this) {
+            offset = offsets.get(gameId);
+        }
+        if (offset == null) return null;
+
+        int length = readFully(offset, Integer.BYTES).getInt(0);
+        ByteBuffer record = readFully(offset + Integer.BYTES, length);
+        record.getLong();
+        int count = Short.toUnsignedInt(record.getShort());
+        AnnotationTag[] tags = AnnotationTag.values();
+        List<MoveAnnotation> moves = new ArrayList<>(count);
+        for (int ply = 0; ply < count; ply++) {
+            int hole = record.get();
+            int bestMove = record.get();
+            int score = record.getInt();
+            int loss = record.getInt();
+            int captured = Byte.toUnsignedInt(record.get());
+            int bestCaptured = Byte.toUnsignedInt(record.get());
+            int tag = record.get();
+            boolean missedCapture = record.get() != 0;
+            moves.add(new MoveAnnotation(ply, hole, bestMove, score, loss, captured, bestCaptured,
+                    tag == 0 ? null : tags[tag - 1], missedCapture));
+        }
+        return new GameAnnotations(gameId, moves);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of annotation file at " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,206 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.model.ChatLine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recent chat of each room in a fixed-size ring, overwriting the oldest line when full.
+ * <p>
+ * Each room's ring and lines are charged an estimate of their heap size against a budget shared by
+ * all rooms, the ring in full as soon as the room's history is created. When an append takes the total
+ * over {@code max-bytes}, whole histories of the rooms that have been quiet longest are dropped until it
+ * is back under nine tenths of the budget, so the scan over all rooms happens once per tenth of the
+ * budget rather than on every append. A dropped room's next sequence number is remembered until the
+ * room is removed, so its numbering carries on and clients see the dropped lines as a gap.
+ */
+@Component
+public class ChatStore {
+
+    private static final int LINE_OVERHEAD = 96;
+    // The Log object and the ring array's header; each ring slot is one compressed reference
+    private static final int LOG_OVERHEAD = 64;
+    private static final int REFERENCE_SIZE = 4;
+    // Map node and boxed sequence number of a dropped room
+    private static final int CARRIED_SEQ_SIZE = 48;
+
+    private final ConcurrentHashMap<String, Log> logs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> carriedSeqs = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final int historySize;
+    private final long maxBytes;
+
+    public ChatStore(@Value("${toguzkorgool.chat.history-size:100}") int historySize,
+                     @Value("${toguzkorgool.chat.max-bytes:67108864}") long maxBytes) {
+        this.historySize = historySize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds a line to the room's history and assigns its sequence number.
+     */
+    public ChatLine append(String roomId, String playerId, String playerName, String message, long sentAt) {
+        ChatLine line;
+        while (true) {
+            Log log = logs.computeIfAbsent(roomId, this::newLog);
+            synchronized (log) {
+                // An evicted log is no longer in the map; start a fresh one
+                if (log.evicted) continue;
+                line = new ChatLine(log.nextSeq++, playerId, playerName, message, sentAt);
+                bytes.addAndGet(log.add(line));
+                break;
+            }
+        }
+        if (bytes.get() > maxBytes) {
+            evict();
+        }
+        return line;
+    }
+
+    /**
+     * @return the room's lines after {@code afterSeq}, oldest first
+     */
+    public List<ChatLine> history(String roomId, long afterSeq) {
+        Log log = logs.get(roomId);
+        if (log == null) return List.of();
+        synchronized (log) {
+            return log.after(afterSeq);
+        }
+    }
+
+    /**
+     * @return the sequence number of the oldest line kept, or of the room's next line if none is kept
+     */
+    public long firstSeq(String roomId) {
+        Log log = logs.get(roomId);
+        if (log == null) return carriedSeqs.getOrDefault(roomId, 1L);
+        synchronized (log) {
+            return log.firstSeq();
+        }
+    }
+
+    public void remove(String roomId) {
+        Log log = logs.remove(roomId);
+        if (log != null) {
+            discard(log);
+        }
+        if (carriedSeqs.remove(roomId) != null) {
+            bytes.addAndGet(-CARRIED_SEQ_SIZE);
+        }
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    public int rooms() {
+        return logs.size();
+    }
+
+    private synchronized void evict() {
+        long target = maxBytes / 10 * 9;
+        if (bytes.get() <= target) return;
+        // Activity keeps changing, so sort a snapshot of it
+        List<Candidate> byActivity = new ArrayList<>(logs.size());
+        logs.forEach((roomId, log) -> byActivity.add(new Candidate(roomId, log, log.lastActivity)));
+        byActivity.sort(Comparator.comparingLong(Candidate::lastActivity));
+        for (Candidate candidate : byActivity) {
+            if (bytes.get() <= target) break;
+            // Inside compute, so a history created for the room afterwards sees the carried sequence
+            logs.computeIfPresent(candidate.roomId(), (roomId, log) -> {
+                if (log != candidate.log()) return log;
+                carriedSeqs.put(roomId, discard(log));
+                bytes.addAndGet(CARRIED_SEQ_SIZE);
+                return null;
+            });
+        }
+    }
+
+    private record Candidate(String roomId, Log log, long lastActivity) {
+    }
+
+    private Log newLog(String roomId) {
+        Long carried = carriedSeqs.remove(roomId);
+        Log log = new Log(historySize, carried == null ? 1 : carried);
+        bytes.addAndGet(carried == null ? log.bytes : log.bytes - CARRIED_SEQ_SIZE);
+        return log;
+    }
+
+    /**
+     * @return the sequence number the log's next line would have had
+     */
+    private long discard(Log log) {
+        synchronized (log) {
+            log.evicted = true;
+            bytes.addAndGet(-log.bytes);
+            log.bytes = 0;
+            return log.nextSeq;
+        }
+    }
+
+    private static long sizeOf(ChatLine line) {
+        return LINE_OVERHEAD + 2L * (length(line.playerId()) + length(line.playerName()) + length(line.message()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * One room's ring. Guarded by its own monitor.
+     */
+    private static final class Log {
+
+        private final ChatLine[] lines;
+        private int head;
+        private int count;
+        private long nextSeq;
+        private long bytes;
+        private volatile long lastActivity;
+        private boolean evicted;
+
+        Log(int capacity, long nextSeq) {
+            this.lines = new ChatLine[capacity];
+            this.nextSeq = nextSeq;
+            this.bytes = LOG_OVERHEAD + (long) REFERENCE_SIZE * capacity;
+        }
+
+        /**
+         * @return the change in charged bytes
+         */
+        long add(ChatLine line) {
+            long delta = sizeOf(line);
+            int slot = (head + count) % lines.length;
+            if (count == lines.length) {
+                delta -= sizeOf(lines[head]);
+                head = (head + 1) % lines.length;
+            } else {
+                count++;
+            }
+            lines[slot] = line;
+            bytes += delta;
+            lastActivity = line.sentAt();
+            return delta;
+        }
+
+        long firstSeq() {
+            return count == 0 ? nextSeq : lines[head].seq();
+        }
+
+        List<ChatLine> after(long afterSeq) {
+            // Sequence numbers are consecutive, so the first line to return is found by subtraction
+            long skip = Math.max(0, afterSeq - firstSeq() + 1);
+            List<ChatLine> result = new ArrayList<>((int) Math.max(0, count - skip));
+            for (long i = skip; i < count; i++) {
+                result.add(lines[(int) ((head + i) % lines.length)]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.exception.ArchivedGameNotFoundException;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.model.Player;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only file of finished games.
+ * <p>
+ * File format: a 16-byte header ({@code "TKGA"}, version, reserved) followed by length-prefixed records
+ * in game id order. Ids are dense, so the id to offset index is a plain array rebuilt by one scan at
+ * startup; a torn record at the end of the file (crash during a write) is truncated away. The same scan
+ * rebuilds the room and player indexes. Ids follow the order games are archived, which for imported
+ * games is not the order they finished, so the indexes order games by end time, then id, and a game id
+ * works as a keyset pagination cursor through its end time.
+ * Only one thread may append; reads are positional and safe from any thread.
+ */
+@Component
+public class GameArchive {
+
+    public static final int MAGIC = 0x544B4741; // "TKGA"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+
+    private static final Logger log = LoggerFactory.getLogger(GameArchive.class);
+
+    private final FileChannel channel;
+    private final Map<String, GameIdList> roomGames = new HashMap<>();
+    private final Map<String, GameIdList> playerGames = new HashMap<>();
+    private long[] offsets = new long[1024];
+    // End time of each game by id, the sort key of the room and player indexes
+    private long[] finishedAt = new long[1024];
+    private int count;
+    private long end;
+
+    public GameArchive(@Value("${toguzkorgool.archive.path:data/games.tkga}") String path) throws IOException {
+        Path file = Path.of(path);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            writeFully(header.clear(), 0);
+            channel.force(true);
+            end = HEADER_SIZE;
+        } else {
+            ByteBuffer header = readFully(0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a game archive: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported game archive version " + header.getInt(4) + " in " + file);
+            }
+            scan(file);
+        }
+        log.info("Opened game archive {} with {} games", file, count);
+    }
+
+    private void scan(Path file) throws IOException {
+        long size = channel.size();
+        long position = HEADER_SIZE;
+        while (position + Integer.BYTES <= size) {
+            int length = readFully(position, Integer.BYTES).getInt(0);
+            if (length <= 0 || position + Integer.BYTES + length > size) break;
+            ArchivedGame game = decode(readFully(position + Integer.BYTES, length).array());
+            if (game.gameId() != count) break;
+            index(game, position);
+            position += Integer.BYTES + length;
+        }
+        if (position < size) {
+            log.warn("Truncating {} bytes of incomplete records from {}", size - position, file);
+            channel.truncate(position);
+        }
+        end = position;
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Writes a batch with one write and one sync. Ids must continue the archive's sequence.
+     */
+    public void append(List<ArchivedGame> games) throws IOException {
+        long first = size();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(games.size() * 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        long[] recordOffsets = new long[games.size()];
+        for (int i = 0; i < games.size(); i++) {
+            ArchivedGame game = games.get(i);
+            if (game.gameId() != first + i) {
+                throw new IllegalStateException("Expected game id " + (first + i) + " but got " + game.gameId());
+            }
+            byte[] record = encode(game);
+            recordOffsets[i] = end + bytes.size();
+            out.writeInt(record.length);
+            out.write(record);
+        }
+
+        writeFully(ByteBuffer.wrap(bytes.toByteArray()), end);
+        channel.force(false);
+        end += bytes.size();
+
+        synchronized (this) {
+            for (int i = 0; i < games.size(); i++) {
+                index(games.get(i), recordOffsets[i]);
+            }
+        }
+    }
+
+    public ArchivedGame read(long gameId) throws IOException {
+        long offset;
+        synchronized (this) {
+            if (gameId < 0 || gameId >= count) {
+                throw new ArchivedGameNotFoundException(gameId);
+            }
+            offset = offsets[(int) gameId];
+        }
+        int length = readFully(offset, Integer.BYTES).getInt(0);
+        return decode(readFully(offset + Integer.BYTES, length).array());
+    }
+
+    public synchronized long[] roomGameIds(String roomId) {
+        GameIdList ids = roomGames.get(roomId);
+        return ids == null ? new long[0] : ids.toArray();
+    }
+
+    /**
+     * @return up to {@code limit} ids of the player's games that finished before game {@code before}, or
+     *         at the same time with a lower id, newest first; a {@code before} past the last id starts
+     *         from the newest game
+     */
+    public synchronized long[] playerGameIds(String playerId, long before, int limit) {
+        GameIdList ids = playerGames.get(playerId);
+        if (ids == null || before < 0) return new long[0];
+        if (before >= count) {
+            return ids.pageBefore(finishedAt, Long.MAX_VALUE, Long.MAX_VALUE, limit);
+        }
+        return ids.pageBefore(finishedAt, finishedAt[(int) before], before, limit);
+    }
+
+    private void index(ArchivedGame game, long offset) {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            finishedAt = Arrays.copyOf(finishedAt, count * 2);
+        }
+        finishedAt[count] = game.finishedAt();
+        offsets[count++] = offset;
+        roomGames.computeIfAbsent(game.roomId(), key -> new GameIdList()).add(game.gameId(), finishedAt);
+        if (game.white() != null) {
+            playerGames.computeIfAbsent(game.white().id(), key -> new GameIdList()).add(game.gameId(), finishedAt);
+        }
+        if (game.black() != null && (game.white() == null || !game.black().id().equals(game.white().id()))) {
+            playerGames.computeIfAbsent(game.black().id(), key -> new GameIdList()).add(game.gameId(), finishedAt);
+        }
+    }
+
+    private static byte[] encode(ArchivedGame game) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + game.moves().length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(game.gameId());
+        out.writeLong(game.finishedAt());
+        out.writeUTF(game.roomId());
+        writePlayer(out, game.white());
+        writePlayer(out, game.black());
+        out.writeUTF(game.winner() == null ? "" : game.winner());
+        out.writeUTF(game.reason() == null ? "" : game.reason());
+        out.writeShort(game.moves().length);
+        out.write(game.moves());
+        return bytes.toByteArray();
+    }
+
+    private static ArchivedGame decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        long gameId = in.readLong();
+        long finishedAt = in.readLong();
+        String roomId = in.readUTF();
+        Player white = readPlayer(in);
+        Player black = readPlayer(in);
+        String winner = in.readUTF();
+        String reason = in.readUTF();
+        byte[] moves = new byte[in.readUnsignedShort()];
+        in.readFully(moves);
+        return new ArchivedGame(gameId, roomId, white, black, winner.isEmpty() ? null : winner,
+                reason.isEmpty() ? null : reason, finishedAt, moves);
+    }
+
+    private static void writePlayer(DataOutputStream out, Player player) throws IOException {
+        out.writeUTF(player == null ? "" : player.id());
+        out.writeUTF(player == null ? "" : player.name());
+    }
+
+    private static Player readPlayer(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        String name = in.readUTF();
+        return id.isEmpty() ? null : new Player(id, name);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of game archive at " + position);
+            }
+        }
+        return buffer;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.toguzkorgool.storage;
+
+import java.util.Arrays;
+
+/**
+ * Archived game ids ordered by end time, then id, stored as a primitive array so players with tens of
+ * thousands of games cost eight bytes per game. End times are not copied here; each call takes the
+ * archive's end times indexed by game id. Live games arrive in end-time order and are appended; an
+ * imported game that finished earlier is inserted in its place. Not thread-safe; {@link GameArchive}
+ * guards it.
+ */
+final class GameIdList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id, long[] finishedAt) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int at = size == 0 || compare(finishedAt, ids[size - 1], finishedAt[(int) id], id) < 0
+                ? size
+                : lowerBound(finishedAt, finishedAt[(int) id], id);
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * @return up to {@code limit} ids ordered before end time {@code beforeFinishedAt} and id
+     *         {@code beforeId}, newest first
+     */
+    long[] pageBefore(long[] finishedAt, long beforeFinishedAt, long beforeId, int limit) {
+        int end = lowerBound(finishedAt, beforeFinishedAt, beforeId);
+        int count = Math.min(limit, end);
+        long[] page = new long[count];
+        for (int i = 0; i < count; i++) {
+            page[i] = ids[end - 1 - i];
+        }
+        return page;
+    }
+
+    /**
+     * @return the index of the first id not ordered before {@code (at, id)}
+     */
+    private int lowerBound(long[] finishedAt, long at, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(finishedAt, ids[mid], at, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long[] finishedAt, long listed, long at, long id) {
+        int byTime = Long.compare(finishedAt[(int) listed], at);
+        return byTime != 0 ? byTime : Long.compare(listed, id);
+    }
+}
@@ -22,7 +22,26 @@ public class GameStore {
         return games.remove(roomId);
     }
 
+    /**
+     * Removes the room's game only if it is still {@code state}.
+     */
+    public boolean remove(String roomId, GameState state) {
+        return games.remove(roomId, state);
+    }
+
     public boolean containsKey(String roomId) {
         return games.containsKey(roomId);
     }
+
+    public int size() {
+        return games.size();
+    }
+
+    public int countActive() {
+        int count = 0;
+        for (GameState state : games.values()) {
+            if (!state.isGameOver()) count++;
+        }
+        return count;
+    }
 }
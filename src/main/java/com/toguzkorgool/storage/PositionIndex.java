@@ -0,0 +1,308 @@
+package com.toguzkorgool.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inverted index from position hash to the (game id, ply) pairs that reached it, stored as a
+ * log-structured merge tree.
+ * <p>
+ * New games go into an in-memory table; when it fills up it is sorted and written as a memory-mapped
+ * {@link PositionSegment}. Segments cover adjacent game id ranges, and a background thread merges the
+ * adjacent run with the fewest entries whenever there are more than {@code max-segments}, so a lookup
+ * is one binary search per segment. Games not yet in a segment when the process stops are re-indexed
+ * from the archive at startup: {@link #nextGameId()} says where to resume.
+ */
+@Component
+public class PositionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionIndex.class);
+
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".tkpx";
+    private static final int MAX_PLY = (1 << 16) - 1;
+
+    private final Path directory;
+    private final int memtableLimit;
+    private final int mergeFactor;
+    private final int maxSegments;
+    private final ExecutorService merger;
+
+    // Ordered by game id range; replaced as a whole under this object's lock
+    private volatile List<PositionSegment> segments;
+    private long nextGeneration;
+    private long nextGameId;
+    private long memtableFirstGame;
+    private long[] memHashes;
+    private long[] memValues;
+    private int memCount;
+
+    public PositionIndex(@Value("${toguzkorgool.positions.path:data/positions}") String path,
+                         @Value("${toguzkorgool.positions.memtable-entries:1048576}") int memtableLimit,
+                         @Value("${toguzkorgool.positions.merge-factor:4}") int mergeFactor,
+                         @Value("${toguzkorgool.positions.max-segments:8}") int maxSegments) throws IOException {
+        this.directory = Path.of(path);
+        this.memtableLimit = memtableLimit;
+        this.mergeFactor = Math.max(2, mergeFactor);
+        this.maxSegments = Math.max(this.mergeFactor, maxSegments);
+        this.memHashes = new long[1024];
+        this.memValues = new long[1024];
+        this.merger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "position-merge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Files.createDirectories(directory);
+        this.segments = List.copyOf(load());
+        this.nextGameId = segments.isEmpty() ? 0 : segments.getLast().maxGameId() + 1;
+        this.memtableFirstGame = nextGameId;
+        long entries = segments.stream().mapToLong(PositionSegment::entries).sum();
+        log.info("Opened position index {} with {} segments, {} entries, {} games", directory,
+                segments.size(), entries, nextGameId);
+        merger.execute(this::mergeIfNeeded);
+    }
+
+    /**
+     * Opens all segments, dropping temp files from interrupted writes and segments that a finished
+     * merge has already replaced (their range lies inside a newer segment's).
+     */
+    private List<PositionSegment> load() throws IOException {
+        List<PositionSegment> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.delete(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long generation = Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()), 16);
+                    found.add(PositionSegment.open(file, generation));
+                    nextGeneration = Math.max(nextGeneration, generation + 1);
+                }
+            }
+        }
+
+        found.sort(Comparator.comparingLong(PositionSegment::minGameId)
+                .thenComparing(Comparator.comparingLong(PositionSegment::maxGameId).reversed()));
+        List<PositionSegment> live = new ArrayList<>();
+        for (PositionSegment segment : found) {
+            if (!live.isEmpty() && segment.maxGameId() <= live.getLast().maxGameId()) {
+                log.info("Removing merged position segment {}", segment.file());
+                Files.delete(segment.file());
+            } else {
+                live.add(segment);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * @return the id of the next game to index; every lower id is already covered
+     */
+    public synchronized long nextGameId() {
+        return nextGameId;
+    }
+
+    /**
+     * Adds the positions after each ply of one game. Games must be added in id order.
+     *
+     * @param hashes position hash after ply {@code i + 1} at index {@code i}
+     */
+    public synchronized void add(long gameId, long[] hashes, int plies) throws IOException {
+        if (gameId != nextGameId) {
+            throw new IllegalStateException("Expected game " + nextGameId + " but got " + gameId);
+        }
+        if (memCount + plies > memHashes.length) {
+            int capacity = Math.max(memHashes.length * 2, memCount + plies);
+            memHashes = Arrays.copyOf(memHashes, capacity);
+            memValues = Arrays.copyOf(memValues, capacity);
+        }
+        for (int i = 0; i < Math.min(plies, MAX_PLY); i++) {
+            memHashes[memCount] = hashes[i];
+            memValues[memCount] = gameId << 16 | (i + 1);
+            memCount++;
+        }
+        nextGameId++;
+        if (memCount >= memtableLimit) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the in-memory table as a new segment.
+     */
+    public synchronized void flush() throws IOException {
+        if (memCount == 0) return;
+        sort(memHashes, memValues, 0, memCount - 1);
+        long generation = nextGeneration++;
+        Path file = directory.resolve(String.format("%s%016x%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+        PositionSegment segment = PositionSegment.write(file, generation, memHashes, memValues, memCount,
+                memtableFirstGame, nextGameId - 1);
+
+        List<PositionSegment> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        segments = List.copyOf(updated);
+        memCount = 0;
+        memtableFirstGame = nextGameId;
+        if (memHashes.length > memtableLimit) {
+            memHashes = new long[1024];
+            memValues = new long[1024];
+        }
+        merger.execute(this::mergeIfNeeded);
+    }
+
+    /**
+     * @return how many (game, ply) pairs reached this position
+     */
+    public long count(long hash) {
+        long total = 0;
+        synchronized (this) {
+            for (int i = 0; i < memCount; i++) {
+                if (memHashes[i] == hash) total++;
+            }
+        }
+        for (PositionSegment segment : segments) {
+            total += segment.upperBound(hash) - segment.lowerBound(hash);
+        }
+        return total;
+    }
+
+    /**
+     * @return up to {@code limit} packed {@code gameId << 16 | ply} values for this position, most recently
+     *         archived game first
+     */
+    public long[] find(long hash, int limit) {
+        long[] found = new long[limit];
+        int count = 0;
+        synchronized (this) {
+            for (int i = memCount - 1; i >= 0 && count < limit; i--) {
+                if (memHashes[i] == hash) found[count++] = memValues[i];
+            }
+        }
+        List<PositionSegment> snapshot = segments;
+        for (int s = snapshot.size() - 1; s >= 0 && count < limit; s--) {
+            PositionSegment segment = snapshot.get(s);
+            long low = segment.lowerBound(hash);
+            for (long i = segment.upperBound(hash) - 1; i >= low && count < limit; i--) {
+                found[count++] = segment.value(i);
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private void mergeIfNeeded() {
+        try {
+            while (true) {
+                List<PositionSegment> current = segments;
+                if (current.size() <= maxSegments) return;
+
+                int start = -1;
+                long smallest = Long.MAX_VALUE;
+                for (int s = 0; s + mergeFactor <= current.size(); s++) {
+                    long entries = 0;
+                    for (int k = s; k < s + mergeFactor; k++) {
+                        entries += current.get(k).entries();
+                    }
+                    if (entries < smallest && entries <= PositionSegment.MAX_ENTRIES) {
+                        smallest = entries;
+                        start = s;
+                    }
+                }
+                if (start < 0) return;
+
+                List<PositionSegment> inputs = current.subList(start, start + mergeFactor);
+                long generation;
+                synchronized (this) {
+                    generation = nextGeneration++;
+                }
+                Path file = directory.resolve(String.format("%s%016x%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+                PositionSegment merged = PositionSegment.merge(file, generation, inputs);
+
+                synchronized (this) {
+                    // Flushes only append, so the inputs are still adjacent at the same position
+                    List<PositionSegment> updated = new ArrayList<>(segments);
+                    updated.subList(start, start + mergeFactor).clear();
+                    updated.add(start, merged);
+                    segments = List.copyOf(updated);
+                }
+                for (PositionSegment input : inputs) {
+                    Files.deleteIfExists(input.file());
+                }
+                log.info("Merged {} position segments into {} ({} entries)", inputs.size(), file.getFileName(),
+                        merged.entries());
+            }
+        } catch (IOException e) {
+            log.error("Position segment merge failed", e);
+        }
+    }
+
+    /**
+     * Sorts the parallel arrays by hash, then value, over {@code [low, high]}.
+     */
+    private static void sort(long[] hashes, long[] values, int low, int high) {
+        while (high - low > 16) {
+            int mid = (low + high) >>> 1;
+            long pivotHash = hashes[mid];
+            long pivotValue = values[mid];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(hashes[i], values[i], pivotHash, pivotValue) < 0) i++;
+                while (compare(hashes[j], values[j], pivotHash, pivotValue) > 0) j--;
+                if (i <= j) {
+                    swap(hashes, values, i++, j--);
+                }
+            }
+            // Recurse into the smaller side to bound the stack depth
+            if (j - low < high - i) {
+                sort(hashes, values, low, j);
+                low = i;
+            } else {
+                sort(hashes, values, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(hashes[j], values[j], hashes[j - 1], values[j - 1]) < 0; j--) {
+                swap(hashes, values, j, j - 1);
+            }
+        }
+    }
+
+    private static int compare(long hashA, long valueA, long hashB, long valueB) {
+        int byHash = Long.compare(hashA, hashB);
+        return byHash != 0 ? byHash : Long.compare(valueA, valueB);
+    }
+
+    private static void swap(long[] hashes, long[] values, int i, int j) {
+        long hash = hashes[i];
+        hashes[i] = hashes[j];
+        hashes[j] = hash;
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        flush();
+        merger.shutdown();
+        merger.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
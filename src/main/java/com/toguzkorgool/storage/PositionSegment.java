@@ -0,0 +1,191 @@
+package com.toguzkorgool.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * One immutable, memory-mapped run of the position index.
+ * <p>
+ * File format: a 32-byte header ({@code "TKPX"}, version, entry count, first and last game id covered)
+ * followed by 16-byte entries {@code (hash, gameId << 16 | ply)} sorted by hash, then by value.
+ * Every game in the id range has all of its positions in this one segment.
+ */
+final class PositionSegment {
+
+    static final int MAGIC = 0x544B5058; // "TKPX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = 16;
+
+    /** Keeps a segment addressable by one mapped buffer. */
+    static final long MAX_ENTRIES = (Integer.MAX_VALUE - HEADER_SIZE) / ENTRY_SIZE;
+
+    private final Path file;
+    private final long generation;
+    private final long entries;
+    private final long minGameId;
+    private final long maxGameId;
+    private final MappedByteBuffer data;
+
+    private PositionSegment(Path file, long generation, long entries, long minGameId, long maxGameId,
+                            MappedByteBuffer data) {
+        this.file = file;
+        this.generation = generation;
+        this.entries = entries;
+        this.minGameId = minGameId;
+        this.maxGameId = maxGameId;
+        this.data = data;
+    }
+
+    static PositionSegment open(Path file, long generation) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+                throw new IOException("Not a position index segment: " + file);
+            }
+            if (data.getInt(4) != VERSION) {
+                throw new IOException("Unsupported position segment version " + data.getInt(4) + " in " + file);
+            }
+            long entries = data.getLong(8);
+            if (channel.size() != HEADER_SIZE + entries * ENTRY_SIZE) {
+                throw new IOException("Truncated position segment " + file);
+            }
+            return new PositionSegment(file, generation, entries, data.getLong(16), data.getLong(24), data);
+        }
+    }
+
+    /**
+     * Writes {@code count} entries already in index order through a temp file and maps the result.
+     */
+    static PositionSegment write(Path file, long generation, long[] hashes, long[] values, int count,
+                                 long minGameId, long maxGameId) throws IOException {
+        Path tmp = Files.createTempFile(file.getParent(), "segment", ".tmp");
+        try (DataOutputStream out = open(tmp, count, minGameId, maxGameId)) {
+            for (int i = 0; i < count; i++) {
+                out.writeLong(hashes[i]);
+                out.writeLong(values[i]);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        return open(file, generation);
+    }
+
+    /**
+     * K-way merge of segments covering adjacent game ranges.
+     */
+    static PositionSegment merge(Path file, long generation, List<PositionSegment> inputs) throws IOException {
+        long total = 0;
+        for (PositionSegment input : inputs) {
+            total += input.entries;
+        }
+        long minGameId = inputs.get(0).minGameId;
+        long maxGameId = inputs.get(inputs.size() - 1).maxGameId;
+        long[] cursors = new long[inputs.size()];
+
+        Path tmp = Files.createTempFile(file.getParent(), "segment", ".tmp");
+        try (DataOutputStream out = open(tmp, total, minGameId, maxGameId)) {
+            for (long written = 0; written < total; written++) {
+                int best = -1;
+                for (int s = 0; s < cursors.length; s++) {
+                    PositionSegment input = inputs.get(s);
+                    if (cursors[s] == input.entries) continue;
+                    if (best < 0 || compare(input, cursors[s], inputs.get(best), cursors[best]) < 0) {
+                        best = s;
+                    }
+                }
+                PositionSegment source = inputs.get(best);
+                out.writeLong(source.hash(cursors[best]));
+                out.writeLong(source.value(cursors[best]));
+                cursors[best]++;
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        return open(file, generation);
+    }
+
+    private static DataOutputStream open(Path file, long entries, long minGameId, long maxGameId)
+            throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(entries);
+        out.writeLong(minGameId);
+        out.writeLong(maxGameId);
+        return out;
+    }
+
+    private static int compare(PositionSegment a, long i, PositionSegment b, long j) {
+        int byHash = Long.compare(a.hash(i), b.hash(j));
+        return byHash != 0 ? byHash : Long.compare(a.value(i), b.value(j));
+    }
+
+    long hash(long index) {
+        return data.getLong((int) (HEADER_SIZE + index * ENTRY_SIZE));
+    }
+
+    long value(long index) {
+        return data.getLong((int) (HEADER_SIZE + index * ENTRY_SIZE + Long.BYTES));
+    }
+
+    /**
+     * @return the first index whose hash is not below {@code hash}
+     */
+    long lowerBound(long hash) {
+        long low = 0;
+        long high = entries;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (hash(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first index whose hash is above {@code hash}
+     */
+    long upperBound(long hash) {
+        long low = 0;
+        long high = entries;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (hash(mid) <= hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long entries() {
+        return entries;
+    }
+
+    long minGameId() {
+        return minGameId;
+    }
+
+    long maxGameId() {
+        return maxGameId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.toguzkorgool.storage;
 
 import com.toguzkorgool.model.Room;
+import com.toguzkorgool.model.enums.RoomStatus;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,4 +30,12 @@ public class RoomStore {
     public boolean containsKey(String roomId) {
         return rooms.containsKey(roomId);
     }
+
+    public int countByStatus(RoomStatus status) {
+        int count = 0;
+        for (Room room : rooms.values()) {
+            if (room.getStatus() == status) count++;
+        }
+        return count;
+    }
 }
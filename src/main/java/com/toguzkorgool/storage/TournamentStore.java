@@ -0,0 +1,24 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.model.Tournament;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class TournamentStore {
+
+    private final ConcurrentHashMap<String, Tournament> tournaments = new ConcurrentHashMap<>();
+
+    public Tournament get(String tournamentId) {
+        return tournaments.get(tournamentId);
+    }
+
+    public Tournament putIfAbsent(String tournamentId, Tournament tournament) {
+        return tournaments.putIfAbsent(tournamentId, tournament);
+    }
+
+    public Tournament remove(String tournamentId) {
+        return tournaments.remove(tournamentId);
+    }
+}
@@ -0,0 +1,115 @@
+package com.toguzkorgool.tournament;
+
+import com.toguzkorgool.model.Pairing;
+import com.toguzkorgool.model.Tournament;
+
+import java.util.Arrays;
+
+/**
+ * Pairing rules for tournament rounds. Pairings are returned as a flat array of
+ * {@code (white, black)} player indices, one pair per board, with a bye last as
+ * {@code (player, }{@link Pairing#BYE}{@code )}.
+ */
+public final class Pairings {
+
+    private Pairings() {
+    }
+
+    /**
+     * @return the number of rounds a round robin of {@code players} takes
+     */
+    public static int roundRobinRounds(int players) {
+        return players % 2 == 0 ? players - 1 : players;
+    }
+
+    /**
+     * Round {@code round} (1-based) of a round robin by the circle method: the last seat stays put and
+     * the others rotate one place per round. With an odd number of players the empty seat is the bye.
+     */
+    public static int[] roundRobin(int players, int round) {
+        int seats = players % 2 == 0 ? players : players + 1;
+        int rotating = seats - 1;
+        int k = round - 1;
+        int[] pairs = new int[seats];
+        int bye = -1;
+        int n = 0;
+        for (int i = 0; i < seats / 2; i++) {
+            int a = i == 0 ? k % rotating : (k + i) % rotating;
+            int b = i == 0 ? seats - 1 : (k - i + rotating) % rotating;
+            // Alternate colours by round for the fixed seat and by board for the others
+            boolean aWhite = i == 0 ? k % 2 == 0 : i % 2 == 1;
+            int white = aWhite ? a : b;
+            int black = aWhite ? b : a;
+            if (white >= players) {
+                bye = black;
+            } else if (black >= players) {
+                bye = white;
+            } else {
+                pairs[n++] = white;
+                pairs[n++] = black;
+            }
+        }
+        if (bye >= 0) {
+            pairs[n++] = bye;
+            pairs[n++] = Pairing.BYE;
+        }
+        return Arrays.copyOf(pairs, n);
+    }
+
+    /**
+     * The next Swiss round: players are ranked by score, then by seed, and each is paired with the
+     * highest-ranked player below them they have not met yet. If no such player is left, a rematch
+     * against the next free player is accepted. With an odd number of players the lowest-ranked player
+     * who has not had a bye gets it. Whoever has played white less often gets white.
+     */
+    public static int[] swiss(Tournament tournament) {
+        int players = tournament.getPlayers().size();
+        Integer[] order = new Integer[players];
+        for (int i = 0; i < players; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> tournament.getHalfPoints(a) != tournament.getHalfPoints(b)
+                ? Integer.compare(tournament.getHalfPoints(b), tournament.getHalfPoints(a))
+                : Integer.compare(a, b));
+
+        boolean[] paired = new boolean[players];
+        int[] pairs = new int[players + 1];
+        int n = 0;
+        int bye = -1;
+        if (players % 2 == 1) {
+            bye = order[players - 1];
+            for (int i = players - 1; i >= 0; i--) {
+                if (!tournament.hadBye(order[i])) {
+                    bye = order[i];
+                    break;
+                }
+            }
+            paired[bye] = true;
+        }
+
+        for (int i = 0; i < players; i++) {
+            int a = order[i];
+            if (paired[a]) continue;
+            int b = -1;
+            for (int j = i + 1; j < players; j++) {
+                int candidate = order[j];
+                if (paired[candidate]) continue;
+                if (b < 0) b = candidate;
+                if (!tournament.havePlayed(a, candidate)) {
+                    b = candidate;
+                    break;
+                }
+            }
+            paired[a] = true;
+            paired[b] = true;
+            boolean aWhite = tournament.getColorBalance(a) <= tournament.getColorBalance(b);
+            pairs[n++] = aWhite ? a : b;
+            pairs[n++] = aWhite ? b : a;
+        }
+        if (bye >= 0) {
+            pairs[n++] = bye;
+            pairs[n++] = Pairing.BYE;
+        }
+        return Arrays.copyOf(pairs, n);
+    }
+}
@@ -0,0 +1,64 @@
+package com.toguzkorgool.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashRingTest {
+
+    private static final int ROOMS = 20_000;
+
+    @Test
+    void ownersDoNotDependOnTheOrderOfTheMemberList() {
+        HashRing ring = new HashRing(List.of("node-1", "node-2", "node-3"), 128);
+        HashRing reordered = new HashRing(List.of("node-3", "node-1", "node-2"), 128);
+        for (int i = 0; i < ROOMS; i++) {
+            assertEquals(ring.ownerOf("room-" + i), reordered.ownerOf("room-" + i));
+        }
+    }
+
+    @Test
+    void addingANodeOnlyMovesRoomsToIt() {
+        HashRing before = new HashRing(List.of("node-1", "node-2", "node-3"), 128);
+        HashRing after = new HashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+        int moved = 0;
+        for (int i = 0; i < ROOMS; i++) {
+            String owner = after.ownerOf("room-" + i);
+            if (!owner.equals(before.ownerOf("room-" + i))) {
+                assertEquals("node-4", owner);
+                moved++;
+            }
+        }
+        // About a quarter of the rooms move to the new node
+        assertTrue(moved > ROOMS / 6 && moved < ROOMS / 3, moved + " rooms moved");
+    }
+
+    @Test
+    void spreadsRoomsEvenly() {
+        List<String> nodes = List.of("node-1", "node-2", "node-3", "node-4");
+        HashRing ring = new HashRing(nodes, 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < ROOMS; i++) {
+            counts.merge(ring.ownerOf("room-" + i), 1, Integer::sum);
+        }
+        for (String node : nodes) {
+            int count = counts.getOrDefault(node, 0);
+            assertTrue(count > ROOMS / 4 * 0.75 && count < ROOMS / 4 * 1.25, node + " owns " + count);
+        }
+    }
+
+    @Test
+    void singleNodeOwnsEverything() {
+        HashRing ring = new HashRing(List.of("node-1"), 1);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("node-1", ring.ownerOf("room-" + i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new HashRing(List.of(), 128));
+    }
+}
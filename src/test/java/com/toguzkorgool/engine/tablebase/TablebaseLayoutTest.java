@@ -0,0 +1,59 @@
+package com.toguzkorgool.engine.tablebase;
+
+import com.toguzkorgool.engine.Position;
+import org.junit.jupiter.api.Test;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_STONES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TablebaseLayoutTest {
+
+    @Test
+    void decodeAndIndexAreInverse() {
+        TablebaseLayout layout = new TablebaseLayout(3);
+        int[] holes = new int[TOTAL_HOLES];
+        int[] kazan = new int[2];
+        int[] tuz = new int[2];
+        Position position = new Position();
+        long positions = 0;
+
+        for (int block = 0; block < layout.blockCount(); block++) {
+            int stones = block / layout.configCount();
+            int size = layout.blockSize(stones, block % layout.configCount());
+            assertEquals(layout.blockOffset(block), positions, "offset of block " + block);
+            for (int local = 0; local < size; local++) {
+                int side = layout.decode(block, local, holes, kazan, tuz);
+                position.set(holes, kazan, tuz, side);
+
+                assertEquals(stones, position.boardStones());
+                assertEquals(TOTAL_STONES, position.boardStones() + kazan[0] + kazan[1]);
+                assertEquals(block, layout.blockFor(position));
+                assertEquals(local, layout.localIndex(block, position), "block " + block);
+                assertEquals(positions + local, layout.indexOf(position));
+            }
+            positions += size;
+        }
+        assertEquals(layout.totalPositions(), positions);
+    }
+
+    @Test
+    void positionsOutsideTheLayoutHaveNoIndex() {
+        TablebaseLayout layout = new TablebaseLayout(3);
+        assertEquals(-1, layout.indexOf(Position.initial()));
+
+        int[] holes = new int[TOTAL_HOLES];
+        holes[0] = 2;
+        // White already has more than half the stones
+        Position decided = new Position();
+        decided.set(holes, new int[]{TOTAL_STONES - 2, 0}, new int[]{-1, -1}, 0);
+        assertEquals(-1, layout.indexOf(decided));
+    }
+
+    @Test
+    void rejectsLayoutsTooLargeToMap() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TablebaseLayout(TablebaseLayout.MAX_SUPPORTED_STONES + 1));
+    }
+}
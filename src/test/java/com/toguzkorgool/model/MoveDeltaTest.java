@@ -0,0 +1,72 @@
+package com.toguzkorgool.model;
+
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.model.enums.PlayerSide;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveDeltaTest {
+
+    @Test
+    void restoringDeltasInReverseRewindsARandomGame() {
+        SplittableRandom random = new SplittableRandom(5);
+        GameState state = new GameState("room", 0, true);
+        Deque<int[]> snapshots = new ArrayDeque<>();
+        boolean sawTuz = false;
+
+        while (!state.isGameOver() && snapshots.size() < 200) {
+            PlayerSide side = state.getCurrentPlayer();
+            int hole;
+            do {
+                hole = side.getIndex() * HOLES_PER_PLAYER + random.nextInt(HOLES_PER_PLAYER);
+            } while (ToguzKorgoolEngine.checkMove(state, side, hole) != null);
+
+            int[] before = MoveDelta.snapshot(state);
+            ToguzKorgoolEngine.makeMove(state, side, hole);
+            MoveDelta delta = MoveDelta.between(before, state);
+            for (int i = 0; i < TOTAL_HOLES; i++) {
+                assertEquals(before[i] != state.getHoles()[i], (delta.getChangedHoles() & 1 << i) != 0);
+            }
+            state.pushUndo(delta);
+            snapshots.push(before);
+            sawTuz |= state.getTuz()[0] >= 0 || state.getTuz()[1] >= 0;
+        }
+        assertTrue(sawTuz, "the game should exercise tuz restoration");
+
+        while (!snapshots.isEmpty()) {
+            state.popUndo().restore(state);
+            assertArrayEquals(snapshots.pop(), MoveDelta.snapshot(state));
+        }
+        assertNull(state.popUndo());
+    }
+
+    @Test
+    void restoresCountsAbove127() {
+        GameState state = new GameState("room", 0, true);
+        int[] holes = state.getHoles();
+        Arrays.fill(holes, 0);
+        holes[0] = 150;
+        holes[10] = 12;
+        int[] before = MoveDelta.snapshot(state);
+
+        holes[0] = 0;
+        holes[10] = 161;
+        state.getKazan()[0] = 7;
+        MoveDelta.between(before, state).restore(state);
+
+        assertEquals(150, state.getHoles()[0]);
+        assertEquals(12, state.getHoles()[10]);
+        assertEquals(before[TOTAL_HOLES], state.getKazan()[0]);
+    }
+}
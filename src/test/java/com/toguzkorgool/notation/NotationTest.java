@@ -0,0 +1,120 @@
+package com.toguzkorgool.notation;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NotationTest {
+
+    @Test
+    void parsesWhatTheWriterWrites() throws IOException {
+        SplittableRandom random = new SplittableRandom(3);
+        ArchivedGame[] games = {
+                game(0, new Player("p-1", "Aida \"the \\ wall\""), new Player("p-2", "Bolot"), "0", "RESIGN",
+                        randomMoves(random, 120)),
+                game(1, new Player("p-2", "Bolot"), null, "DRAW", null, randomMoves(random, 37)),
+                game(2, null, null, null, null, new byte[0]),
+        };
+        StringWriter text = new StringWriter();
+        NotationWriter writer = new NotationWriter(text);
+        for (ArchivedGame game : games) {
+            writer.write(game);
+        }
+
+        NotationParser parser = new NotationParser(new StringReader(text.toString()));
+        for (ArchivedGame expected : games) {
+            NotatedGame parsed = parser.next();
+            ArchivedGame game = parsed.game();
+            assertEquals(expected.gameId(), game.gameId());
+            assertEquals(expected.roomId(), game.roomId());
+            assertEquals(expected.white(), game.white());
+            assertEquals(expected.black(), game.black());
+            assertEquals(expected.winner(), game.winner());
+            assertEquals(expected.reason(), game.reason());
+            assertEquals(expected.finishedAt(), game.finishedAt());
+            assertArrayEquals(expected.moves(), game.moves());
+            assertMarksMatchReplay(game.moves(), parsed.marks());
+        }
+        assertNull(parser.next());
+    }
+
+    @Test
+    void skipsToTheNextGameAfterAnError() throws IOException {
+        String text = """
+                [Room "a"]
+
+                1. 75 96 *
+
+                [Room "b"]
+
+                1. 75 96 3. 12 *
+
+                [Room "c"]
+
+                1. 1 0-1
+                """;
+        NotationParser parser = new NotationParser(new StringReader(text));
+
+        NotatedGame first = parser.next();
+        assertEquals("a", first.game().roomId());
+        assertArrayEquals(new byte[]{6, 17}, first.game().moves());
+        NotationException error = assertThrows(NotationException.class, parser::next);
+        assertEquals(7, error.getLine());
+        NotatedGame last = parser.next();
+        assertEquals("c", last.game().roomId());
+        assertEquals(ToguzKorgoolEngine.winnerOf(ToguzKorgoolEngine.BLACK_WINS), last.game().winner());
+        assertArrayEquals(new byte[]{0}, last.game().moves());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void rejectsAResultThatContradictsTheTag() {
+        NotationParser parser = new NotationParser(new StringReader("[Result \"1-0\"]\n\n1. 1 0-1\n"));
+        assertThrows(NotationException.class, parser::next);
+    }
+
+    private static void assertMarksMatchReplay(byte[] moves, byte[] marks) {
+        Position position = Position.initial();
+        for (int i = 0; i < moves.length; i++) {
+            int summary = position.make(moves[i]);
+            int landing = ToguzKorgoolEngine.lastHole(summary) % HOLES_PER_PLAYER + 1;
+            assertEquals(landing, marks[i] & GameNotation.LANDING_MASK, "landing of move " + i);
+            assertEquals(ToguzKorgoolEngine.isTuzDeclared(summary), (marks[i] & GameNotation.TUZ_MARK) != 0,
+                    "tuz mark of move " + i);
+        }
+    }
+
+    private static byte[] randomMoves(SplittableRandom random, int plies) {
+        Position position = Position.initial();
+        int[] legal = new int[HOLES_PER_PLAYER];
+        byte[] moves = new byte[plies];
+        int count = 0;
+        while (count < plies && !position.isTerminal()) {
+            int legalCount = position.generateMoves(legal);
+            int hole = legal[random.nextInt(legalCount)];
+            position.make(hole);
+            moves[count++] = (byte) hole;
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    private static ArchivedGame game(long gameId, Player white, Player black, String winner, String reason,
+                                     byte[] moves) {
+        return new ArchivedGame(gameId, "room-" + gameId, white, black, winner, reason,
+                1_700_000_000_000L + gameId * 60_000, moves);
+    }
+}
@@ -0,0 +1,114 @@
+package com.toguzkorgool.presence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    @Test
+    void firesEachKeyOnceAfterItsDelay() throws InterruptedException {
+        Map<String, Long> firedAt = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(2);
+        TimerWheel<String> wheel = new TimerWheel<>("test-wheel", TICK_MILLIS, 8, key -> {
+            firedAt.merge(key, System.nanoTime(), (a, b) -> -1L);
+            done.countDown();
+        });
+        try {
+            long start = System.nanoTime();
+            wheel.schedule("near", 30);
+            // Further than one rotation of the wheel away
+            wheel.schedule("far", 250);
+            assertEquals(2, wheel.size());
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(elapsedMillis(start, firedAt.get("near")) >= 30);
+            assertTrue(elapsedMillis(start, firedAt.get("far")) >= 250);
+            assertEquals(0, wheel.size());
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void cancelledKeysDoNotFire() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        TimerWheel<String> wheel = new TimerWheel<>("test-wheel", TICK_MILLIS, 8, key -> {
+            fired.add(key);
+            done.countDown();
+        });
+        try {
+            wheel.schedule("cancelled", 20);
+            wheel.schedule("kept", 60);
+            assertTrue(wheel.cancel("cancelled"));
+            assertFalse(wheel.cancel("cancelled"));
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            Thread.sleep(5 * TICK_MILLIS);
+            assertEquals(List.of("kept"), fired);
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void reschedulingReplacesTheDeadline() throws InterruptedException {
+        List<Long> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        TimerWheel<String> wheel = new TimerWheel<>("test-wheel", TICK_MILLIS, 8, key -> {
+            fired.add(System.nanoTime());
+            done.countDown();
+        });
+        try {
+            long start = System.nanoTime();
+            wheel.schedule("key", 20);
+            wheel.schedule("key", 200);
+            assertEquals(1, wheel.size());
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            Thread.sleep(5 * TICK_MILLIS);
+            assertEquals(1, fired.size());
+            assertTrue(elapsedMillis(start, fired.get(0)) >= 200);
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void aFailingHandlerDoesNotStopTheWheel() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        TimerWheel<String> wheel = new TimerWheel<>("test-wheel", TICK_MILLIS, 8, key -> {
+            if (key.equals("bad")) throw new IllegalStateException("expiry failed");
+            done.countDown();
+        });
+        try {
+            wheel.schedule("bad", 10);
+            wheel.schedule("good", 80);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsSlotCountsThatAreNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>("test-wheel", TICK_MILLIS, 6, key -> { }));
+    }
+
+    private static long elapsedMillis(long start, long end) {
+        return TimeUnit.NANOSECONDS.toMillis(end - start);
+    }
+}
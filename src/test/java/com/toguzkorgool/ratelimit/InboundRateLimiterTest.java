@@ -0,0 +1,33 @@
+package com.toguzkorgool.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InboundRateLimiterTest {
+
+    @Test
+    void readsTheRoomIdAsJsonBindingWould() {
+        assertEquals("abc", roomIdOf("{\"roomId\":\"abc\",\"message\":\"say \\\"hi\\\" \\u00e9\"}"));
+        assertEquals("r1", roomIdOf("{\"room\\u0049d\":\"r\\u0031\"}"));
+        // The last of duplicate keys wins
+        assertEquals("real", roomIdOf("{\"roomId\":\"x1\",\"roomId\":\"real\"}"));
+        assertEquals("top", roomIdOf("{\"n\":{\"a\":[1,{\"roomId\":\"inner\"}]}, \"roomId\" : \"top\", \"b\":true}"));
+    }
+
+    @Test
+    void findsNoRoomInPayloadsWithoutAReadableOne() {
+        assertNull(roomIdOf("{\"message\":\"hi\"}"));
+        assertNull(roomIdOf("{\"roomId\":5}"));
+        assertNull(roomIdOf("{\"roomId\":\"abc\""));
+        assertNull(roomIdOf("[\"roomId\"]"));
+        assertNull(roomIdOf("{\"roomId\":\"" + "x".repeat(129) + "\"}"));
+    }
+
+    private static String roomIdOf(String json) {
+        return InboundRateLimiter.roomIdOf(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
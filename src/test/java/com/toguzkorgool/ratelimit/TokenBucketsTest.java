@@ -0,0 +1,73 @@
+package com.toguzkorgool.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    @Test
+    void allowsABurstOfCapacityPerKey() {
+        // Refills one token every 1000 seconds, so nothing refills during the test
+        TokenBuckets buckets = new TokenBuckets(3, 0.001);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(buckets.tryTake("a"));
+        }
+        assertFalse(buckets.tryTake("a"));
+        assertTrue(buckets.tryTake("b"));
+        assertEquals(2, buckets.size());
+    }
+
+    @Test
+    void refillsOverTimeUpToCapacity() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(2, 100);
+        while (buckets.tryTake("a")) {
+            // drain
+        }
+        Thread.sleep(100);
+        // Ten tokens' worth of time has passed, but the bucket holds at most two
+        assertTrue(buckets.tryTake("a"));
+        assertTrue(buckets.tryTake("a"));
+        assertFalse(buckets.tryTake("a"));
+    }
+
+    @Test
+    void packsTheLargestCapacity() {
+        TokenBuckets buckets = new TokenBuckets(TokenBuckets.MAX_CAPACITY, 0.001);
+        for (int i = 0; i < TokenBuckets.MAX_CAPACITY; i++) {
+            assertTrue(buckets.tryTake("a"), "take " + i);
+        }
+        assertFalse(buckets.tryTake("a"));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(TokenBuckets.MAX_CAPACITY + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(1, 0));
+    }
+
+    @Test
+    void sweepDropsOnlyFullBuckets() throws InterruptedException {
+        // One token per millisecond: a single take is refilled at once, a drained bucket takes a second
+        TokenBuckets buckets = new TokenBuckets(1000, 1000);
+        buckets.tryTake("refilled");
+        while (buckets.tryTake("drained")) {
+            // drain
+        }
+        Thread.sleep(20);
+        buckets.sweep();
+        assertEquals(1, buckets.size());
+        buckets.tryTake("drained");
+        assertEquals(1, buckets.size(), "the drained bucket is kept");
+    }
+
+    @Test
+    void removedBucketStartsFull() {
+        TokenBuckets buckets = new TokenBuckets(2, 0.001);
+        buckets.tryTake("a");
+        buckets.tryTake("a");
+        buckets.remove("a");
+        assertEquals(0, buckets.size());
+        assertTrue(buckets.tryTake("a"));
+        assertTrue(buckets.tryTake("a"));
+    }
+}
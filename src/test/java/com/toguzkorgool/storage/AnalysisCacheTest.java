@@ -0,0 +1,55 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.dto.response.AnalysisResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AnalysisCacheTest {
+
+    @Test
+    void retiresEntriesFromAnEarlierBookGeneration() {
+        AnalysisCache cache = new AnalysisCache(1 << 20);
+        AnalysisResponse book = new AnalysisResponse(3, null, 0, "BOOK");
+        cache.put(42, 0, book);
+        assertEquals(book, cache.get(42, 0));
+
+        assertNull(cache.get(42, 1));
+        assertEquals(0, cache.size());
+
+        AnalysisResponse search = new AnalysisResponse(5, 120, 12, "SEARCH");
+        cache.put(42, 1, search);
+        assertEquals(search, cache.get(42, 1));
+    }
+
+    @Test
+    void keepsNewerEntriesFromRequestsWithAnOlderGeneration() {
+        AnalysisCache cache = new AnalysisCache(1 << 20);
+        AnalysisResponse fresh = new AnalysisResponse(7, null, 0, "BOOK");
+        cache.put(42, 2, fresh);
+
+        assertNull(cache.get(42, 1));
+        assertEquals(1, cache.size());
+        assertEquals(fresh, cache.get(42, 2));
+
+        cache.put(42, 1, new AnalysisResponse(3, null, 0, "BOOK"));
+        assertEquals(fresh, cache.get(42, 2));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOverBudget() {
+        // Room for two entries
+        AnalysisCache cache = new AnalysisCache(400);
+        AnalysisResponse response = new AnalysisResponse(1, 0, 8, "SEARCH");
+        cache.put(1, 0, response);
+        cache.put(2, 0, response);
+        cache.get(1, 0);
+        cache.put(3, 0, response);
+
+        assertEquals(2, cache.size());
+        assertEquals(response, cache.get(1, 0));
+        assertNull(cache.get(2, 0));
+        assertEquals(response, cache.get(3, 0));
+    }
+}
@@ -0,0 +1,62 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.model.ChatLine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatStoreTest {
+
+    @Test
+    void chargesTheWholeRingWhenARoomStarts() {
+        ChatStore small = new ChatStore(10, Long.MAX_VALUE);
+        ChatStore large = new ChatStore(1010, Long.MAX_VALUE);
+        small.append("room", "p", "n", "hello", 1);
+        large.append("room", "p", "n", "hello", 1);
+        // One compressed reference per slot, whether or not it holds a line yet
+        assertEquals(4 * 1000, large.bytes() - small.bytes());
+
+        small.remove("room");
+        assertEquals(0, small.bytes());
+    }
+
+    @Test
+    void numberingCarriesOnAfterARoomIsDropped() {
+        ChatStore store = new ChatStore(4, 800);
+        for (int i = 1; i <= 3; i++) {
+            store.append("quiet", "p", "n", "m", i);
+        }
+        // A second room's full ring takes the total over the budget, and the quiet room is dropped
+        long sentAt = 100;
+        for (int i = 0; i < 4; i++) {
+            store.append("busy", "p", "n", "m", sentAt++);
+        }
+        assertEquals(1, store.rooms());
+        assertEquals(List.of(), store.history("quiet", 0));
+        assertEquals(4, store.firstSeq("quiet"));
+
+        ChatLine next = store.append("quiet", "p", "n", "m", sentAt);
+        assertEquals(4, next.seq());
+        assertEquals(List.of(next), store.history("quiet", 0));
+        assertEquals(4, store.firstSeq("quiet"));
+    }
+
+    @Test
+    void aRemovedRoomStartsOver() {
+        ChatStore store = new ChatStore(4, 800);
+        for (int i = 1; i <= 3; i++) {
+            store.append("quiet", "p", "n", "m", i);
+        }
+        long sentAt = 100;
+        for (int i = 0; i < 4; i++) {
+            store.append("busy", "p", "n", "m", sentAt++);
+        }
+        store.remove("quiet");
+        store.remove("busy");
+        assertEquals(0, store.bytes());
+        assertEquals(1, store.firstSeq("quiet"));
+        assertEquals(1, store.append("quiet", "p", "n", "m", sentAt).seq());
+    }
+}
@@ -0,0 +1,101 @@
+package com.toguzkorgool.storage;
+
+import com.toguzkorgool.exception.ArchivedGameNotFoundException;
+import com.toguzkorgool.model.ArchivedGame;
+import com.toguzkorgool.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameArchiveTest {
+
+    private static final Player ALICE = new Player("p1", "Alice");
+    private static final Player BOB = new Player("p2", "Bob");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackAppendedGamesAfterReopening() throws IOException {
+        Path file = dir.resolve("games.tkga");
+        GameArchive archive = new GameArchive(file.toString());
+        archive.append(List.of(game(0, "r1", ALICE, BOB), game(1, "r2", BOB, null)));
+        archive.append(List.of(game(2, "r1", BOB, ALICE)));
+        archive.close();
+
+        GameArchive reopened = new GameArchive(file.toString());
+        assertEquals(3, reopened.size());
+        ArchivedGame game = reopened.read(1);
+        assertEquals("r2", game.roomId());
+        assertEquals(BOB, game.white());
+        assertNull(game.black());
+        assertEquals("0", game.winner());
+        assertArrayEquals(new byte[]{0, 9, 1}, game.moves());
+        assertArrayEquals(new long[]{0, 2}, reopened.roomGameIds("r1"));
+        assertArrayEquals(new long[]{2, 1, 0}, reopened.playerGameIds("p2", Long.MAX_VALUE, 10));
+        assertThrows(ArchivedGameNotFoundException.class, () -> reopened.read(3));
+        reopened.close();
+    }
+
+    @Test
+    void pagesPlayerGamesByEndTimeWhenIdsAreNot() throws IOException {
+        Path file = dir.resolve("games.tkga");
+        GameArchive archive = new GameArchive(file.toString());
+        archive.append(List.of(game(0, "r1", ALICE, BOB), game(1, "r2", ALICE, BOB)));
+        // Imported after the live games but finished years before them
+        archive.append(List.of(new ArchivedGame(2, "imported", BOB, ALICE, "0", "KAZAN", 1_400_000_000_000L,
+                new byte[]{0, 9, 1})));
+
+        assertArrayEquals(new long[]{1, 0, 2}, archive.playerGameIds("p1", Long.MAX_VALUE, 10));
+        assertArrayEquals(new long[]{1, 0}, archive.playerGameIds("p1", Long.MAX_VALUE, 2));
+        assertArrayEquals(new long[]{2}, archive.playerGameIds("p1", 0, 2));
+        assertArrayEquals(new long[0], archive.playerGameIds("p1", 2, 2));
+        archive.close();
+
+        // The scan on open rebuilds the same order
+        GameArchive reopened = new GameArchive(file.toString());
+        assertArrayEquals(new long[]{1, 0, 2}, reopened.playerGameIds("p2", Long.MAX_VALUE, 10));
+        reopened.close();
+    }
+
+    @Test
+    void truncatesATornRecordOnOpen() throws IOException {
+        Path file = dir.resolve("games.tkga");
+        GameArchive archive = new GameArchive(file.toString());
+        archive.append(List.of(game(0, "r1", ALICE, BOB), game(1, "r2", ALICE, BOB)));
+        archive.close();
+        long intact = Files.size(file);
+
+        // A record whose length prefix promises more bytes than were written
+        Files.write(file, new byte[]{0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+        GameArchive reopened = new GameArchive(file.toString());
+        assertEquals(2, reopened.size());
+        assertEquals(intact, Files.size(file));
+
+        reopened.append(List.of(game(2, "r3", BOB, ALICE)));
+        assertEquals("r3", reopened.read(2).roomId());
+        reopened.close();
+    }
+
+    @Test
+    void rejectsIdsOutOfSequence() throws IOException {
+        GameArchive archive = new GameArchive(dir.resolve("games.tkga").toString());
+        assertThrows(IllegalStateException.class, () -> archive.append(List.of(game(1, "r1", ALICE, BOB))));
+        archive.close();
+    }
+
+    private static ArchivedGame game(long gameId, String roomId, Player white, Player black) {
+        return new ArchivedGame(gameId, roomId, white, black, "0", "KAZAN", 1_700_000_000_000L + gameId,
+                new byte[]{0, 9, 1});
+    }
+}
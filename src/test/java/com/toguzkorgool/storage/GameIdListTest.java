@@ -0,0 +1,55 @@
+package com.toguzkorgool.storage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class GameIdListTest {
+
+    @Test
+    void pagesBackwardsFromTheCursor() {
+        // End time by game id; ids 3, 5, 8, 13, 21 and 34 finish in id order
+        long[] finishedAt = new long[35];
+        GameIdList ids = new GameIdList();
+        for (long id : new long[]{3, 5, 8, 13, 21, 34}) {
+            finishedAt[(int) id] = 1000 + id;
+            ids.add(id, finishedAt);
+        }
+
+        assertArrayEquals(new long[]{34, 21, 13}, ids.pageBefore(finishedAt, Long.MAX_VALUE, Long.MAX_VALUE, 3));
+        assertArrayEquals(new long[]{8, 5, 3}, ids.pageBefore(finishedAt, 1013, 13, 3));
+        // A cursor that is not in the list starts below it
+        assertArrayEquals(new long[]{8, 5}, ids.pageBefore(finishedAt, 1010, 10, 2));
+        assertArrayEquals(new long[]{3}, ids.pageBefore(finishedAt, 1005, 5, 10));
+        assertArrayEquals(new long[0], ids.pageBefore(finishedAt, 1003, 3, 10));
+        assertArrayEquals(new long[0], ids.pageBefore(finishedAt, 1100, 100, 0));
+    }
+
+    @Test
+    void ordersLaterIdsThatFinishedEarlierByEndTime() {
+        long[] finishedAt = {500, 700, 100, 700, 600};
+        GameIdList ids = new GameIdList();
+        for (int id = 0; id < finishedAt.length; id++) {
+            ids.add(id, finishedAt);
+        }
+
+        // Equal end times fall back to id order
+        assertArrayEquals(new long[]{2, 0, 4, 1, 3}, ids.toArray());
+        assertArrayEquals(new long[]{1, 4, 0, 2}, ids.pageBefore(finishedAt, 700, 3, 10));
+        assertArrayEquals(new long[]{0, 2}, ids.pageBefore(finishedAt, 600, 4, 10));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        long[] finishedAt = new long[200];
+        GameIdList ids = new GameIdList();
+        long[] expected = new long[100];
+        for (int i = 0; i < 100; i++) {
+            finishedAt[i * 2] = i;
+            ids.add(i * 2L, finishedAt);
+            expected[i] = i * 2L;
+        }
+        assertArrayEquals(expected, ids.toArray());
+        assertArrayEquals(new long[]{198, 196}, ids.pageBefore(finishedAt, Long.MAX_VALUE, Long.MAX_VALUE, 2));
+    }
+}
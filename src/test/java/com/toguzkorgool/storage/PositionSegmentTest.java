@@ -0,0 +1,94 @@
+package com.toguzkorgool.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PositionSegmentTest {
+
+    private static final Comparator<long[]> ORDER = Comparator.<long[]>comparingLong(entry -> entry[0])
+            .thenComparingLong(entry -> entry[1]);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mergeKeepsEntriesOrderedByHashThenValue() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        List<long[]> all = new ArrayList<>();
+        List<PositionSegment> inputs = new ArrayList<>();
+        for (int s = 0; s < 3; s++) {
+            long[][] entries = new long[500][];
+            for (int i = 0; i < entries.length; i++) {
+                // Few distinct hashes, of both signs, so runs of equal hashes cross segments
+                long hash = random.nextInt(-50, 50) * 0x9E3779B97F4A7C15L;
+                long value = (s * 100L + random.nextInt(100)) << 16 | random.nextInt(200);
+                entries[i] = new long[]{hash, value};
+            }
+            Arrays.sort(entries, ORDER);
+            all.addAll(List.of(entries));
+            inputs.add(write(dir.resolve("in-" + s + ".tkpx"), entries, s * 100L, s * 100L + 99));
+        }
+
+        PositionSegment merged = PositionSegment.merge(dir.resolve("merged.tkpx"), 9, inputs);
+        all.sort(ORDER);
+        assertEquals(all.size(), merged.entries());
+        assertEquals(0, merged.minGameId());
+        assertEquals(299, merged.maxGameId());
+        for (int i = 0; i < all.size(); i++) {
+            assertArrayEquals(all.get(i), new long[]{merged.hash(i), merged.value(i)}, "entry " + i);
+        }
+
+        long hash = all.get(all.size() / 2)[0];
+        long first = merged.lowerBound(hash);
+        long end = merged.upperBound(hash);
+        assertEquals(all.stream().filter(entry -> entry[0] == hash).count(), end - first);
+        assertEquals(hash, merged.hash(first));
+        assertEquals(hash, merged.hash(end - 1));
+    }
+
+    @Test
+    void boundsOfAMissingHashAreEqual() throws IOException {
+        PositionSegment segment = write(dir.resolve("s.tkpx"),
+                new long[][]{{-5, 1}, {2, 1}, {2, 3}, {9, 1}}, 0, 0);
+        assertEquals(1, segment.lowerBound(0));
+        assertEquals(1, segment.upperBound(0));
+        assertEquals(1, segment.lowerBound(2));
+        assertEquals(3, segment.upperBound(2));
+        assertEquals(4, segment.lowerBound(Long.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsATruncatedSegment() throws IOException {
+        Path file = dir.resolve("s.tkpx");
+        write(file, new long[][]{{1, 1}, {2, 2}}, 0, 0);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(PositionSegment.HEADER_SIZE + PositionSegment.ENTRY_SIZE);
+        }
+        assertThrows(IOException.class, () -> PositionSegment.open(file, 1));
+    }
+
+    private static PositionSegment write(Path file, long[][] entries, long minGameId, long maxGameId)
+            throws IOException {
+        long[] hashes = new long[entries.length];
+        long[] values = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            hashes[i] = entries[i][0];
+            values[i] = entries[i][1];
+        }
+        return PositionSegment.write(file, 1, hashes, values, entries.length, minGameId, maxGameId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.toguzkorgool.tournament;
+
+import com.toguzkorgool.model.Pairing;
+import com.toguzkorgool.model.Player;
+import com.toguzkorgool.model.Tournament;
+import com.toguzkorgool.model.enums.TournamentFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PairingsTest {
+
+    @Test
+    void roundRobinPairsEveryoneExactlyOnce() {
+        for (int players = 2; players <= 12; players++) {
+            int rounds = Pairings.roundRobinRounds(players);
+            boolean[][] met = new boolean[players][players];
+            int[] byes = new int[players];
+            int[] whites = new int[players];
+
+            for (int round = 1; round <= rounds; round++) {
+                int[] pairs = Pairings.roundRobin(players, round);
+                boolean[] seated = new boolean[players];
+                for (int i = 0; i < pairs.length; i += 2) {
+                    int white = pairs[i];
+                    int black = pairs[i + 1];
+                    assertFalse(seated[white], players + " players, round " + round + ": " + white + " twice");
+                    seated[white] = true;
+                    if (black == Pairing.BYE) {
+                        assertEquals(pairs.length - 2, i, "the bye comes last");
+                        byes[white]++;
+                        continue;
+                    }
+                    assertFalse(seated[black], players + " players, round " + round + ": " + black + " twice");
+                    seated[black] = true;
+                    assertFalse(met[white][black], players + " players: " + white + " and " + black + " meet again");
+                    met[white][black] = true;
+                    met[black][white] = true;
+                    whites[white]++;
+                }
+                for (int player = 0; player < players; player++) {
+                    assertTrue(seated[player], players + " players, round " + round + ": " + player + " unseated");
+                }
+            }
+
+            for (int a = 0; a < players; a++) {
+                assertEquals(players % 2 == 0 ? 0 : 1, byes[a], players + " players: byes of " + a);
+                for (int b = 0; b < players; b++) {
+                    assertEquals(a != b, met[a][b], players + " players: " + a + " against " + b);
+                }
+                int games = players - 1;
+                assertTrue(Math.abs(2 * whites[a] - games) <= 2, players + " players: colours of " + a);
+            }
+        }
+    }
+
+    @Test
+    void swissSeatsEveryoneAndRotatesTheBye() {
+        int players = 7;
+        List<Player> entrants = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            entrants.add(new Player("p" + i, "Player " + i));
+        }
+        Tournament tournament = new Tournament("t", "Swiss", TournamentFormat.SWISS, players, 0, entrants,
+                new boolean[players]);
+        boolean[] hadBye = new boolean[players];
+
+        for (int round = 1; round <= players; round++) {
+            int[] pairs = Pairings.swiss(tournament);
+            List<Pairing> pairings = new ArrayList<>();
+            boolean[] seated = new boolean[players];
+            for (int i = 0; i < pairs.length; i += 2) {
+                assertFalse(seated[pairs[i]], "round " + round + ": " + pairs[i] + " twice");
+                seated[pairs[i]] = true;
+                if (pairs[i + 1] == Pairing.BYE) {
+                    assertFalse(hadBye[pairs[i]], "round " + round + ": second bye for " + pairs[i]);
+                    hadBye[pairs[i]] = true;
+                } else {
+                    assertFalse(seated[pairs[i + 1]], "round " + round + ": " + pairs[i + 1] + " twice");
+                    seated[pairs[i + 1]] = true;
+                }
+                pairings.add(new Pairing(i / 2, pairs[i], pairs[i + 1], null, null));
+            }
+            tournament.startRound(pairings);
+            for (Pairing pairing : pairings) {
+                if (!pairing.isBye()) tournament.recordResult(pairing, pairing.getBoard() % 2 == 0 ? "0" : "DRAW");
+            }
+        }
+        for (int player = 0; player < players; player++) {
+            assertTrue(hadBye[player], "player " + player + " never had a bye");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.toguzkorgool.engine;
+
+import com.toguzkorgool.dto.response.ErrorMessage;
+import com.toguzkorgool.exception.InvalidMoveException;
+import com.toguzkorgool.model.GameState;
+import com.toguzkorgool.model.enums.MoveError;
+import com.toguzkorgool.model.enums.PlayerSide;
+
+/**
+ * Measures refused moves per second, from validation to the error frame, three ways: a freshly
+ * allocated exception with a stack trace (how refusals used to be reported), the shared stackless
+ * {@link InvalidMoveException}, and the {@link MoveError} returned by
+ * {@link ToguzKorgoolEngine#checkMove}. Validation runs below a configurable number of frames, since
+ * the cost of filling in a stack trace grows with the depth of the stack.
+ * <p>
+ * Run with {@code ./gradlew rejectionBenchmark} (optionally {@code -Pdepth=64}).
+ */
+public final class MoveRejectionBenchmark {
+
+    private static final int ITERATIONS = 200_000;
+    private static final int ROUNDS = 5;
+
+    /** Keeps the error frames observable so the JIT cannot drop the work. */
+    private static volatile Object sink;
+
+    private MoveRejectionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        GameState state = new GameState("benchmark", 0, false);
+        // Black moving while it is White's turn: refused as NOT_YOUR_TURN
+        PlayerSide side = PlayerSide.BLACK;
+        int hole = ToguzKorgoolEngine.HOLES_PER_PLAYER;
+        System.out.printf("stack depth %d%n", depth);
+
+        for (int warmup = 0; warmup < 2; warmup++) {
+            rate(Mode.STACK_TRACE, state, side, hole, depth);
+            rate(Mode.STACKLESS, state, side, hole, depth);
+            rate(Mode.RESULT, state, side, hole, depth);
+        }
+        for (Mode mode : Mode.values()) {
+            System.out.printf("%-12s %,14.0f rejections/s%n", mode.label, rate(mode, state, side, hole, depth));
+        }
+    }
+
+    private enum Mode {
+        STACK_TRACE("stack trace"),
+        STACKLESS("stackless"),
+        RESULT("result code");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+    }
+
+    private static double rate(Mode mode, GameState state, PlayerSide side, int hole, int depth) {
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink = reject(mode, state, side, hole, depth);
+            }
+        }
+        return (double) ROUNDS * ITERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static ErrorMessage reject(Mode mode, GameState state, PlayerSide side, int hole, int depth) {
+        try {
+            MoveError error = validate(mode, state, side, hole, depth);
+            return error == null ? null : ErrorMessage.of(error);
+        } catch (InvalidMoveException e) {
+            return ErrorMessage.of(e.getError());
+        } catch (RuntimeException e) {
+            return new ErrorMessage(e.getMessage());
+        }
+    }
+
+    private static MoveError validate(Mode mode, GameState state, PlayerSide side, int hole, int depth) {
+        if (depth > 0) {
+            return validate(mode, state, side, hole, depth - 1);
+        }
+        MoveError error = ToguzKorgoolEngine.checkMove(state, side, hole);
+        if (error == null || mode == Mode.RESULT) {
+            return error;
+        }
+        if (mode == Mode.STACKLESS) {
+            throw InvalidMoveException.of(error);
+        }
+        throw new IllegalStateException(error.getMessage());
+    }
+}
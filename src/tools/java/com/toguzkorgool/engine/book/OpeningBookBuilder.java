@@ -0,0 +1,134 @@
+package com.toguzkorgool.engine.book;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch job that replays recorded games (self-play output or exported archives in {@link GameLines} format)
+ * and writes an {@link OpeningBook} with per-move statistics for the first {@code maxPly} plies.
+ * <p>
+ * Run with {@code ./gradlew buildOpeningBook -Poutput=data/opening.tkob -Pinputs=data/selfplay.txt}.
+ */
+public final class OpeningBookBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(OpeningBookBuilder.class);
+
+    private record Key(long hash, int hole) {
+    }
+
+    private final int maxPly;
+    private final int minGames;
+    private final Map<Key, int[]> stats = new HashMap<>();
+    private long games;
+
+    public OpeningBookBuilder(int maxPly, int minGames) {
+        this.maxPly = maxPly;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Arguments: output file, max ply, min games per move, then one or more game files.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: OpeningBookBuilder <output> <maxPly> <minGames> <games-file>...");
+            System.exit(1);
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        for (int i = 3; i < args.length; i++) {
+            builder.addFile(Path.of(args[i]));
+        }
+        builder.write(Path.of(args[0]));
+    }
+
+    public void addFile(Path file) throws IOException {
+        int[] moves = new int[1024];
+        int[] result = new int[1];
+        long skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int count = GameLines.parse(line, moves, result);
+                if (count < 0 || !addGame(moves, count, result[0])) {
+                    skipped++;
+                }
+            }
+        }
+        log.info("Read {}: {} games so far, {} lines skipped", file, games, skipped);
+    }
+
+    /**
+     * @return false if the game contains an illegal move; nothing is recorded in that case
+     */
+    public boolean addGame(int[] moves, int count, int result) {
+        Position position = Position.initial();
+        int plies = Math.min(count, maxPly);
+        long[] hashes = new long[plies];
+        int[] movers = new int[plies];
+        for (int ply = 0; ply < plies; ply++) {
+            if (!position.isLegal(moves[ply])) return false;
+            hashes[ply] = position.hash();
+            movers[ply] = position.sideToMove();
+            position.make(moves[ply]);
+        }
+
+        for (int ply = 0; ply < plies; ply++) {
+            int[] entry = stats.computeIfAbsent(new Key(hashes[ply], moves[ply]), k -> new int[3]);
+            entry[0]++;
+            if (result == ToguzKorgoolEngine.DRAW) {
+                entry[2]++;
+            } else if (result == movers[ply]) {
+                entry[1]++;
+            }
+        }
+        games++;
+        return true;
+    }
+
+    public void write(Path output) throws IOException {
+        List<Map.Entry<Key, int[]>> entries = new ArrayList<>();
+        for (Map.Entry<Key, int[]> entry : stats.entrySet()) {
+            if (entry.getValue()[0] >= minGames) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.<Map.Entry<Key, int[]>>comparingLong(e -> e.getKey().hash())
+                .thenComparingInt(e -> e.getKey().hole()));
+
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, "opening", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(maxPly);
+            for (Map.Entry<Key, int[]> entry : entries) {
+                int[] counts = entry.getValue();
+                out.writeLong(entry.getKey().hash());
+                out.writeInt(entry.getKey().hole());
+                out.writeInt(counts[0]);
+                out.writeInt(counts[1]);
+                out.writeInt(counts[2]);
+            }
+        }
+        // Atomic rename lets a running server hot-swap to the new file
+        Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote {} book entries from {} games to {}", entries.size(), games, output);
+    }
+}
@@ -0,0 +1,108 @@
+package com.toguzkorgool.engine.book;
+
+import com.toguzkorgool.engine.Evaluator;
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.Search;
+import com.toguzkorgool.engine.SearchResult;
+import com.toguzkorgool.engine.tablebase.Tablebase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Plays engine-vs-engine games on all cores and appends them to a file in {@link GameLines} format.
+ * The first plies are occasionally randomized so the games cover more than one opening line. Games still
+ * running at the ply limit have no result and are dropped rather than recorded as draws.
+ * <p>
+ * Run with {@code ./gradlew selfPlay -Pgames=1000 -Pdepth=8 -Poutput=data/selfplay.txt}.
+ */
+public final class SelfPlay {
+
+    private static final Logger log = LoggerFactory.getLogger(SelfPlay.class);
+
+    private static final int MAX_GAME_PLIES = 1024;
+    private static final int RANDOM_PLIES = 8;
+    private static final double RANDOM_MOVE_CHANCE = 0.25;
+    private static final long MOVE_TIME_LIMIT_MILLIS = 60_000;
+
+    private SelfPlay() {
+    }
+
+    /**
+     * Arguments: number of games, search depth, output file, optional tablebase file.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        Path output = Path.of(args.length > 2 ? args[2] : "data/selfplay.txt");
+        Tablebase tablebase = args.length > 3 ? Tablebase.open(Path.of(args[3])) : Tablebase.empty();
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+        try (BufferedWriter writer = Files.newBufferedWriter(output,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            ThreadLocal<Search> searches = ThreadLocal.withInitial(() -> new Search(Evaluator.KAZAN_DIFFERENCE, tablebase));
+            IntStream.range(0, games).parallel().forEach(i -> {
+                String line = playGame(searches.get(), depth);
+                if (line == null) {
+                    dropped.incrementAndGet();
+                } else {
+                    synchronized (writer) {
+                        try {
+                            writer.write(line);
+                            writer.newLine();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }
+                int done = finished.incrementAndGet();
+                if (done % 100 == 0) {
+                    log.info("{} / {} games played", done, games);
+                }
+            });
+        }
+        if (dropped.get() > 0) {
+            log.info("Dropped {} games that reached {} plies without a result", dropped.get(), MAX_GAME_PLIES);
+        }
+    }
+
+    /**
+     * @return the game in {@link GameLines} format, or null if it reached the ply limit unfinished
+     */
+    static String playGame(Search search, int depth) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Position position = Position.initial();
+        int[] moves = new int[MAX_GAME_PLIES];
+        int[] legal = new int[HOLES_PER_PLAYER];
+        int plies = 0;
+
+        while (!position.isTerminal() && plies < MAX_GAME_PLIES) {
+            int move;
+            if (plies < RANDOM_PLIES && random.nextDouble() < RANDOM_MOVE_CHANCE) {
+                move = legal[random.nextInt(position.generateMoves(legal))];
+            } else {
+                SearchResult result = search.search(position, depth, MOVE_TIME_LIMIT_MILLIS);
+                move = result.bestMove();
+            }
+            moves[plies++] = move;
+            position.make(move);
+        }
+        if (!position.isTerminal()) {
+            return null;
+        }
+        return GameLines.format(position.result(), moves, plies);
+    }
+}
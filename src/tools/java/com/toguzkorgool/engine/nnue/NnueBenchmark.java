@@ -0,0 +1,109 @@
+package com.toguzkorgool.engine.nnue;
+
+import com.toguzkorgool.engine.Position;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.HOLES_PER_PLAYER;
+
+/**
+ * Measures evaluations per second on random mid-game positions: full refreshes versus
+ * incremental make/evaluate/unmake, for the scalar and (when available) vectorized accumulator code.
+ * <p>
+ * Run with {@code ./gradlew nnueBenchmark} (optionally {@code -Pnetwork=data/eval.tknn}).
+ */
+public final class NnueBenchmark {
+
+    private static final int POSITIONS = 4096;
+    private static final int ROUNDS = 50;
+
+    /** Keeps evaluation results observable so the JIT cannot drop the work. */
+    private static volatile long sink;
+
+    private NnueBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        NnueNetwork network = args.length > 0
+                ? NnueNetwork.load(Path.of(args[0]))
+                : NnueNetwork.random(64, 7);
+        List<Position> positions = randomPositions(new SplittableRandom(11));
+
+        NnueEvaluator vector = new NnueEvaluator(network);
+        NnueEvaluator scalar = NnueEvaluator.scalar(network);
+        System.out.printf("hidden=%d, vector API %s%n", network.hidden(), vector.isVectorized() ? "on" : "off");
+
+        for (int warmup = 0; warmup < 2; warmup++) {
+            refreshRate(scalar, positions);
+            incrementalRate(scalar, positions);
+            refreshRate(vector, positions);
+            incrementalRate(vector, positions);
+        }
+        System.out.printf("scalar  refresh:     %,12.0f evals/s%n", refreshRate(scalar, positions));
+        System.out.printf("scalar  incremental: %,12.0f evals/s%n", incrementalRate(scalar, positions));
+        if (vector.isVectorized()) {
+            System.out.printf("vector  refresh:     %,12.0f evals/s%n", refreshRate(vector, positions));
+            System.out.printf("vector  incremental: %,12.0f evals/s%n", incrementalRate(vector, positions));
+        }
+    }
+
+    private static double refreshRate(NnueEvaluator evaluator, List<Position> positions) {
+        long total = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Position position : positions) {
+                evaluator.reset(position);
+                total += evaluator.evaluate(position);
+            }
+        }
+        return rate((long) ROUNDS * positions.size(), start, total);
+    }
+
+    /** Each position plays every legal move once and evaluates the child. */
+    private static double incrementalRate(NnueEvaluator evaluator, List<Position> positions) {
+        int[] moves = new int[HOLES_PER_PLAYER];
+        long total = 0;
+        long evals = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Position position : positions) {
+                evaluator.reset(position);
+                int count = position.generateMoves(moves);
+                for (int i = 0; i < count; i++) {
+                    position.make(moves[i]);
+                    evaluator.onMake(position);
+                    total += evaluator.evaluate(position);
+                    position.unmake();
+                    evaluator.onUnmake();
+                }
+                evals += count;
+            }
+        }
+        return rate(evals, start, total);
+    }
+
+    private static double rate(long evals, long startNanos, long total) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        sink = total;
+        return evals / seconds;
+    }
+
+    private static List<Position> randomPositions(SplittableRandom random) {
+        List<Position> positions = new ArrayList<>(POSITIONS);
+        int[] moves = new int[HOLES_PER_PLAYER];
+        while (positions.size() < POSITIONS) {
+            Position position = Position.initial();
+            int plies = random.nextInt(10, 60);
+            for (int ply = 0; ply < plies && !position.isTerminal(); ply++) {
+                position.make(moves[random.nextInt(position.generateMoves(moves))]);
+            }
+            if (!position.isTerminal()) {
+                positions.add(position.copy());
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,90 @@
+package com.toguzkorgool.engine.nnue;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import com.toguzkorgool.engine.book.GameLines;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.toguzkorgool.engine.ToguzKorgoolEngine.TOTAL_HOLES;
+
+/**
+ * Replays self-play games and writes one CSV row per position for offline network training:
+ * {@code h0..h17,kazanWhite,kazanBlack,tuzWhite,tuzBlack,sideToMove,result}, where result is the final
+ * outcome for the side to move (1, 0.5 or 0). The first plies of each game are skipped as they
+ * repeat across games.
+ * <p>
+ * Run with {@code ./gradlew exportTrainingData -Poutput=data/train.csv -Pinputs=data/selfplay.txt}.
+ */
+public final class TrainingDataExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingDataExporter.class);
+
+    private TrainingDataExporter() {
+    }
+
+    /**
+     * Arguments: output file, plies to skip per game, then one or more game files.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: TrainingDataExporter <output.csv> <skipPlies> <games-file>...");
+            System.exit(1);
+        }
+        int skipPlies = Integer.parseInt(args[1]);
+        long rows = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(Path.of(args[0]))) {
+            for (int i = 2; i < args.length; i++) {
+                rows += export(Path.of(args[i]), skipPlies, out);
+            }
+        }
+        log.info("Wrote {} positions to {}", rows, args[0]);
+    }
+
+    static long export(Path games, int skipPlies, BufferedWriter out) throws IOException {
+        int[] moves = new int[1024];
+        int[] result = new int[1];
+        StringBuilder row = new StringBuilder(128);
+        long rows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(games)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int count = GameLines.parse(line, moves, result);
+                if (count < 0) continue;
+
+                Position position = Position.initial();
+                for (int ply = 0; ply < count && position.isLegal(moves[ply]); ply++) {
+                    if (ply >= skipPlies) {
+                        row.setLength(0);
+                        appendRow(row, position, result[0]);
+                        out.write(row.toString());
+                        out.newLine();
+                        rows++;
+                    }
+                    position.make(moves[ply]);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void appendRow(StringBuilder row, Position position, int result) {
+        for (int i = 0; i < TOTAL_HOLES; i++) {
+            row.append(position.hole(i)).append(',');
+        }
+        row.append(position.kazan(0)).append(',').append(position.kazan(1)).append(',')
+                .append(position.tuz(0)).append(',').append(position.tuz(1)).append(',')
+                .append(position.sideToMove()).append(',');
+        if (result == ToguzKorgoolEngine.DRAW) {
+            row.append("0.5");
+        } else {
+            row.append(result == position.sideToMove() ? "1" : "0");
+        }
+    }
+}
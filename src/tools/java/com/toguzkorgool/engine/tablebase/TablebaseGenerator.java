@@ -0,0 +1,192 @@
+package com.toguzkorgool.engine.tablebase;
+
+import com.toguzkorgool.engine.Position;
+import com.toguzkorgool.engine.ToguzKorgoolEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.toguzkorgool.engine.tablebase.Tablebase.DRAW;
+import static com.toguzkorgool.engine.tablebase.Tablebase.LOSS;
+import static com.toguzkorgool.engine.tablebase.Tablebase.UNKNOWN;
+import static com.toguzkorgool.engine.tablebase.Tablebase.WIN;
+
+/**
+ * Solves every position of a {@link TablebaseLayout} and writes the result as a {@link Tablebase} file.
+ * <p>
+ * Stones only ever leave the board, so layers are solved from 0 stones upwards. Inside a layer a move
+ * either lowers the stone count (already solved) or keeps the same tuz placement and kazans, so each
+ * layer is iterated to a fixpoint: a position is a win once any move reaches a lost position and a loss
+ * once every move reaches a won one. Positions still open at the fixpoint can only cycle and are draws.
+ * Passes are split into chunks and run on all cores.
+ * <p>
+ * The generator holds one byte per position in memory: about 1 GiB of heap at 8 stones and 3 GiB at
+ * {@value TablebaseLayout#MAX_SUPPORTED_STONES}.
+ * <p>
+ * Run with {@code ./gradlew generateTablebase -PmaxStones=6 -Poutput=data/endgame.tktb}.
+ */
+public final class TablebaseGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(TablebaseGenerator.class);
+
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private final TablebaseLayout layout;
+    private final byte[][] values;
+
+    public TablebaseGenerator(TablebaseLayout layout) {
+        this.layout = layout;
+        this.values = new byte[layout.blockCount()][];
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxStones = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        Path output = Path.of(args.length > 1 ? args[1] : "data/endgame.tktb");
+
+        TablebaseGenerator generator = new TablebaseGenerator(new TablebaseLayout(maxStones));
+        generator.generate();
+        generator.write(output);
+    }
+
+    public void generate() {
+        for (int stones = 0; stones <= layout.maxStones(); stones++) {
+            long started = System.nanoTime();
+            List<int[]> chunks = new ArrayList<>();
+            for (int cfg = 0; cfg < layout.configCount(); cfg++) {
+                int block = layout.blockId(stones, cfg);
+                int size = layout.blockSize(stones, cfg);
+                values[block] = new byte[size];
+                for (int from = 0; from < size; from += CHUNK_SIZE) {
+                    chunks.add(new int[]{block, from, Math.min(size, from + CHUNK_SIZE)});
+                }
+            }
+
+            int passes = 0;
+            AtomicBoolean changed = new AtomicBoolean();
+            do {
+                changed.set(false);
+                chunks.parallelStream().forEach(chunk -> {
+                    if (new Worker().solve(chunk[0], chunk[1], chunk[2])) {
+                        changed.set(true);
+                    }
+                });
+                passes++;
+            } while (changed.get());
+
+            chunks.parallelStream().forEach(chunk -> {
+                byte[] block = values[chunk[0]];
+                for (int i = chunk[1]; i < chunk[2]; i++) {
+                    if (block[i] == UNKNOWN) block[i] = DRAW;
+                }
+            });
+
+            log.info("Solved {} stones on board in {} passes, {} ms", stones, passes,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    public void write(Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, "tablebase", ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeInt(Tablebase.VERSION);
+            out.writeInt(layout.maxStones());
+            out.writeInt(0);
+
+            int packed = 0;
+            int filled = 0;
+            for (byte[] block : values) {
+                for (byte value : block) {
+                    packed |= value << (filled << 1);
+                    if (++filled == 4) {
+                        out.write(packed);
+                        packed = 0;
+                        filled = 0;
+                    }
+                }
+            }
+            if (filled > 0) {
+                out.write(packed);
+            }
+        }
+
+        Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote {} positions to {}", layout.totalPositions(), output);
+    }
+
+    /**
+     * Per-chunk scratch state; positions are decoded into it rather than allocated.
+     */
+    private final class Worker {
+
+        private final Position position = new Position();
+        private final int[] holes = new int[ToguzKorgoolEngine.TOTAL_HOLES];
+        private final int[] kazan = new int[2];
+        private final int[] tuz = new int[2];
+        private final int[] moves = new int[ToguzKorgoolEngine.HOLES_PER_PLAYER];
+
+        boolean solve(int block, int from, int to) {
+            byte[] blockValues = values[block];
+            boolean changed = false;
+            for (int local = from; local < to; local++) {
+                if (blockValues[local] != UNKNOWN) continue;
+                int value = evaluate(block, local);
+                if (value != UNKNOWN) {
+                    blockValues[local] = (byte) value;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        private int evaluate(int block, int local) {
+            int side = layout.decode(block, local, holes, kazan, tuz);
+            position.set(holes, kazan, tuz, side);
+
+            // Boards with an empty side never occur in play; score them the way the rules would end them
+            if (ToguzKorgoolEngine.sideStones(holes, 0) == 0 || ToguzKorgoolEngine.sideStones(holes, 1) == 0) {
+                return Tablebase.fromResult(ToguzKorgoolEngine.settle(holes, kazan), side);
+            }
+
+            boolean open = false;
+            boolean draw = false;
+            int count = position.generateMoves(moves);
+            for (int i = 0; i < count; i++) {
+                position.make(moves[i]);
+                int value = valueAfterMove(side);
+                position.unmake();
+
+                if (value == WIN) return WIN;
+                if (value == UNKNOWN) open = true;
+                else if (value == DRAW) draw = true;
+            }
+            if (open) return UNKNOWN;
+            return draw ? DRAW : LOSS;
+        }
+
+        private int valueAfterMove(int mover) {
+            if (position.isTerminal()) {
+                return Tablebase.fromResult(position.result(), mover);
+            }
+            int block = layout.blockFor(position);
+            int local = layout.localIndex(block, position);
+            if (local < 0) {
+                throw new IllegalStateException("Non-terminal position outside the tablebase layout");
+            }
+            // Stored value is from the opponent's point of view
+            return Tablebase.flip(values[block][local]);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.toguzkorgool.engine.tuning;
+
+import com.toguzkorgool.engine.EvalWeights;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Texel-style tuning of {@link EvalWeights}: the predicted score of a position is
+ * {@code sigmoid(K * eval)}, and the weights minimise the mean squared error against game results.
+ * K is fitted once for the starting weights, then the weights follow full-batch gradient descent
+ * (Adam) with the gradient summed over row ranges on every core.
+ * <p>
+ * Run with {@code ./gradlew tuneEval -Poutput=data/eval-weights.properties -Pinputs=data/train.csv}.
+ */
+public final class EvalTuner {
+
+    private static final Logger log = LoggerFactory.getLogger(EvalTuner.class);
+
+    private static final int FEATURES = EvalWeights.FEATURES;
+    private static final double LEARNING_RATE = 2.0;
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+
+    private final TuningData data;
+    private final ExecutorService workers;
+    private final int threads;
+
+    EvalTuner(TuningData data, int threads) {
+        this.data = data;
+        this.threads = threads;
+        this.workers = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Arguments: output weight file, iterations, then one or more training CSV files.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: EvalTuner <output> <iterations> <train.csv>...");
+            System.exit(1);
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            inputs.add(Path.of(args[i]));
+        }
+
+        try (TuningData data = TuningData.load(inputs)) {
+            log.info("Loaded {} positions, skipped {} unreadable rows", data.size(), data.skipped());
+            EvalTuner tuner = new EvalTuner(data, Runtime.getRuntime().availableProcessors());
+            try {
+                EvalWeights tuned = tuner.tune(EvalWeights.DEFAULT, Integer.parseInt(args[1]));
+                tuned.write(Path.of(args[0]), "Texel-tuned over " + data.size() + " positions");
+                log.info("Wrote {} to {}", tuned, args[0]);
+            } finally {
+                tuner.workers.shutdown();
+            }
+        }
+    }
+
+    EvalWeights tune(EvalWeights start, int iterations) throws InterruptedException, ExecutionException {
+        double[] weights = new double[FEATURES];
+        int[] initial = start.toArray();
+        for (int f = 0; f < FEATURES; f++) {
+            weights[f] = initial[f];
+        }
+        double k = fitK(weights);
+        log.info("Fitted K = {}, error {}", k, evaluate(weights, k)[FEATURES]);
+
+        double[] m = new double[FEATURES];
+        double[] v = new double[FEATURES];
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            double[] gradient = evaluate(weights, k);
+            for (int f = 0; f < FEATURES; f++) {
+                m[f] = BETA1 * m[f] + (1 - BETA1) * gradient[f];
+                v[f] = BETA2 * v[f] + (1 - BETA2) * gradient[f] * gradient[f];
+                double mHat = m[f] / (1 - Math.pow(BETA1, iteration));
+                double vHat = v[f] / (1 - Math.pow(BETA2, iteration));
+                weights[f] -= LEARNING_RATE * mHat / (Math.sqrt(vHat) + 1e-12);
+            }
+            if (iteration % 50 == 0) {
+                log.info("Iteration {}: error {}", iteration, gradient[FEATURES]);
+            }
+        }
+
+        int[] rounded = new int[FEATURES];
+        for (int f = 0; f < FEATURES; f++) {
+            rounded[f] = (int) Math.round(weights[f]);
+        }
+        return EvalWeights.of(rounded);
+    }
+
+    /** Golden-section search for the K minimising the error at fixed weights. */
+    private double fitK(double[] weights) throws InterruptedException, ExecutionException {
+        double low = 1e-4;
+        double high = 2.0;
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        for (int i = 0; i < 40; i++) {
+            double a = high - ratio * (high - low);
+            double b = low + ratio * (high - low);
+            if (evaluate(weights, a)[FEATURES] < evaluate(weights, b)[FEATURES]) {
+                high = b;
+            } else {
+                low = a;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * @return the error gradient per weight, followed by the mean squared error itself
+     */
+    private double[] evaluate(double[] weights, double k) throws InterruptedException, ExecutionException {
+        long size = data.size();
+        long chunk = (size + threads - 1) / threads;
+        List<Future<double[]>> parts = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            long from = t * chunk;
+            long to = Math.min(size, from + chunk);
+            parts.add(workers.submit(() -> partial(weights, k, from, to)));
+        }
+
+        double[] total = new double[FEATURES + 1];
+        for (Future<double[]> part : parts) {
+            double[] values = part.get();
+            for (int i = 0; i <= FEATURES; i++) {
+                total[i] += values[i];
+            }
+        }
+        for (int i = 0; i <= FEATURES; i++) {
+            total[i] /= Math.max(1, size);
+        }
+        return total;
+    }
+
+    private double[] partial(double[] weights, double k, long from, long to) {
+        double[] sums = new double[FEATURES + 1];
+        int[] features = new int[FEATURES];
+        for (long row = from; row < to; row++) {
+            double eval = 0;
+            for (int f = 0; f < FEATURES; f++) {
+                features[f] = data.feature(f, row);
+                eval += weights[f] * features[f];
+            }
+            double predicted = 1 / (1 + Math.exp(-k * eval / EvalWeights.SCALE));
+            double error = data.result(row) - predicted;
+            // d(error^2)/dw = -2 * error * sigmoid' * K * feature / SCALE
+            double common = -2 * error * predicted * (1 - predicted) * k / EvalWeights.SCALE;
+            for (int f = 0; f < FEATURES; f++) {
+                sums[f] += common * features[f];
+            }
+            sums[FEATURES] += error * error;
+        }
+        return sums;
+    }
+}